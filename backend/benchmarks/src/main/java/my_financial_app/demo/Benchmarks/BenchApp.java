@@ -0,0 +1,53 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Service.LabelDictionary;
+
+// context เล็กสำหรับ benchmark ฝั่ง DB: JPA + repository ของแอปบน H2 in-memory
+// ไม่ scan controller/security/scheduler ของแอป
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Expense.class)
+@EnableJpaRepositories(basePackageClasses = ExpenseRepository.class)
+@Import(LabelDictionary.class) // converter ของ Expense.category / paymentMethod
+public class BenchApp {
+
+    public static ConfigurableApplicationContext start(String dbName) {
+        return start("jdbc:h2:mem:" + dbName + ";DB_CLOSE_DELAY=-1", new String[0]); // ไม่ใส่ array = เรียกตัวเองวนไม่จบ
+    }
+
+    // url อื่น (H2 แบบไฟล์, PostgreSQL) + property เพิ่มเติม เช่น hikari / show-sql
+    public static ConfigurableApplicationContext start(String url, String... extraProperties) {
+        List<String> props = new ArrayList<>(List.of(
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=sa",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "spring.jpa.show-sql=false",
+                "spring.autoconfigure.exclude="
+                        + "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+                "logging.level.root=WARN"
+        ));
+        props.addAll(List.of(extraProperties)); // มาทีหลัง = override ค่าข้างบน
+        return new SpringApplicationBuilder(BenchApp.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(props.toArray(String[]::new))
+                .run();
+    }
+}
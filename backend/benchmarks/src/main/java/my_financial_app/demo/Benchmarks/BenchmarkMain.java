@@ -0,0 +1,19 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// main ของ benchmarks.jar: เหมือน org.openjdk.jmh.Main แต่ตั้งค่าเริ่มต้นให้เขียนผลเป็น JSON
+// (target/jmh-result.json) เพื่อเอาไป diff ระหว่าง commit ได้; ส่ง -rf/-rff เองเพื่อ override
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> all = new ArrayList<>(Arrays.asList(args));
+        if (!all.contains("-rf")) all.addAll(List.of("-rf", "json"));
+        if (!all.contains("-rff")) all.addAll(List.of("-rff", "target/jmh-result.json"));
+        org.openjdk.jmh.Main.main(all.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,155 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseView;
+import my_financial_app.demo.Repository.UserRepository;
+
+// throughput ของ datasource แบบต่าง ๆ ภายใต้ 8 thread พร้อมกัน (อ่าน page แรก + insert batch 50 แถว)
+//   dev       = ค่าเดิมใน application.yml: H2 file + AUTO_SERVER + show-sql/format_sql
+//   prod      = application-prod.yml: H2 file ไม่มี AUTO_SERVER, MVStore cache, query cache, log ปิด
+//   memory    = H2 in-memory (เพดานบน)
+//   postgres  = application-postgres.yml; ต้องระบุ -Dbench.pg.url=jdbc:postgresql://... (user/pass: -Dbench.pg.user/-Dbench.pg.password)
+// รัน: java -jar target/benchmarks.jar DatasourceBenchmark  (เพิ่ม -p mode=postgres เพื่อรวม PostgreSQL)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DatasourceBenchmark {
+
+    private static final int USERS = 8;
+    private static final int SEED_ROWS = 20_000;
+    private static final int BATCH = 50;
+
+    @Param({"dev", "prod", "memory"})
+    public String mode;
+
+    private ConfigurableApplicationContext ctx;
+    private ExpenseRepository repo;
+    private TransactionTemplate tx;
+    private final List<User> users = new ArrayList<>();
+    private final AtomicInteger nextUser = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Caller {
+        User user;
+
+        @Setup(Level.Trial)
+        public void pick(DatasourceBenchmark bench) {
+            user = bench.users.get(bench.nextUser.getAndIncrement() % USERS);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Path dir = Path.of("target", "bench-db", mode).toAbsolutePath();
+        ctx = switch (mode) {
+            case "dev" -> BenchApp.start("jdbc:h2:file:" + dir + "/finapp;AUTO_SERVER=TRUE",
+                    "spring.jpa.show-sql=true",
+                    "spring.jpa.properties.hibernate.format_sql=true");
+            case "prod" -> BenchApp.start("jdbc:h2:file:" + dir
+                            + "/finapp;DB_CLOSE_ON_EXIT=FALSE;CACHE_SIZE=131072;QUERY_CACHE_SIZE=64;LOCK_TIMEOUT=10000",
+                    hikari());
+            case "memory" -> BenchApp.start("jdbc:h2:mem:datasource;DB_CLOSE_DELAY=-1", hikari());
+            case "postgres" -> BenchApp.start(System.getProperty("bench.pg.url", "jdbc:postgresql://localhost:5432/finapp"),
+                    concat(hikari(),
+                            "spring.datasource.username=" + System.getProperty("bench.pg.user", "finapp"),
+                            "spring.datasource.password=" + System.getProperty("bench.pg.password", "finapp"),
+                            "spring.datasource.hikari.data-source-properties.prepareThreshold=3",
+                            "spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries=256",
+                            "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true"));
+            default -> throw new IllegalArgumentException("unknown mode " + mode);
+        };
+        repo = ctx.getBean(ExpenseRepository.class);
+        tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+
+        UserRepository userRepo = ctx.getBean(UserRepository.class);
+        for (int i = 0; i < USERS; i++) users.add(userRepo.save(new User("ds" + i, "x", "ds" + i + "@example.com")));
+        for (int done = 0; done < SEED_ROWS; done += BATCH) {
+            User u = users.get((done / BATCH) % USERS);
+            tx.executeWithoutResult(s -> repo.saveAll(batch(u, LocalDateTime.of(2025, 1, 1, 0, 0))));
+        }
+    }
+
+    // ค่าเดียวกับ application-prod.yml (+ jdbc batch ของแอป)
+    private static String[] hikari() {
+        return new String[] {
+                "spring.datasource.hikari.maximum-pool-size=10",
+                "spring.datasource.hikari.minimum-idle=10",
+                "spring.datasource.hikari.connection-timeout=5000",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true"
+        };
+    }
+
+    private static String[] concat(String[] base, String... more) {
+        List<String> all = new ArrayList<>(List.of(base));
+        all.addAll(List.of(more));
+        return all.toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<ExpenseView> readFirstPage(Caller caller) {
+        return repo.findByUserIdOrderByOccurredAtDescIdDesc(caller.user.getId(), PageRequest.ofSize(50));
+    }
+
+    @Benchmark
+    public int insertBatch(Caller caller) {
+        List<Expense> rows = batch(caller.user, LocalDateTime.now());
+        tx.executeWithoutResult(s -> repo.saveAll(rows));
+        return rows.size();
+    }
+
+    private static List<Expense> batch(User owner, LocalDateTime at) {
+        List<Expense> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Expense e = new Expense();
+            e.setUser(owner);
+            e.setType(Expense.EntryType.EXPENSE);
+            e.setCategory("อาหาร");
+            e.setAmount(new BigDecimal("42.50"));
+            e.setPlace("bench");
+            e.setPaymentMethod("CASH");
+            e.setIconKey("food");
+            e.setOccurredAt(at.minusMinutes(i));
+            rows.add(e);
+        }
+        return rows;
+    }
+}
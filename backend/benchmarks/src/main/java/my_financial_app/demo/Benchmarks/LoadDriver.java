@@ -0,0 +1,198 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// load test แบบ closed-loop กับ server ที่รันอยู่แล้ว: N session (login แยก cookie กัน) ยิง GET วนจนหมดเวลา
+// เทียบโหมด thread ของ server โดยรันซ้ำกับ server ที่เปิด/ปิด spring.threads.virtual.enabled:
+//
+//   java -jar ../target/demo-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true
+//   java -cp target/benchmarks.jar my_financial_app.demo.Benchmarks.LoadDriver \
+//        --label=virtual --sessions=10000 --duration=PT60S
+//
+// ผล: throughput, p50/p95/p99, error และ heap/thread ของ server (จาก /actuator/metrics) ก่อน-หลัง
+// เขียนเป็น JSON ที่ target/load-<label>-<sessions>.json ด้วย
+// หมายเหตุ: 10k session = 10k connection ค้าง ต้องเพิ่ม ulimit -n ทั้งฝั่ง driver และ server
+public final class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // bucket ละ ~10% ตั้งแต่ 100µs ถึง ~90s
+    private static final double BUCKET_BASE = 1.1;
+    private static final long BUCKET_MIN_NANOS = 100_000;
+    private static final int BUCKETS = 145;
+
+    private final String baseUrl;
+    private final String path;
+    private final int sessions;
+    private final int users;
+    private final Duration duration;
+    private final HttpClient http;
+
+    private final AtomicLongArray latency = new AtomicLongArray(BUCKETS);
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private LoadDriver(Map<String, String> opts, ExecutorService clientExecutor) {
+        this.baseUrl = opts.getOrDefault("url", "http://localhost:8081");
+        this.path = opts.getOrDefault("path", "/api/expenses?limit=50");
+        this.sessions = Integer.parseInt(opts.getOrDefault("sessions", "1000"));
+        this.users = Integer.parseInt(opts.getOrDefault("users", "50"));
+        this.duration = Duration.parse(opts.getOrDefault("duration", "PT30S"));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("expected --key=value: " + a);
+            opts.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        try (ExecutorService vt = Executors.newVirtualThreadPerTaskExecutor()) {
+            new LoadDriver(opts, vt).run(opts.getOrDefault("label", "server"));
+        }
+    }
+
+    private void run(String label) throws Exception {
+        for (int u = 0; u < users; u++) {
+            post("/api/auth/register", Map.of("username", user(u), "password", "load-pass", "email", user(u) + "@load.test"));
+        }
+
+        System.out.printf("Logging in %d sessions...%n", sessions);
+        List<String> cookies = new ArrayList<>(sessions);
+        for (int s = 0; s < sessions; s++) {
+            HttpResponse<String> res = post("/api/auth/login", Map.of("username", user(s % users), "password", "load-pass"));
+            String cookie = res.headers().firstValue("Set-Cookie")
+                    .orElseThrow(() -> new IllegalStateException("login failed: " + res.statusCode() + " " + res.body()));
+            cookies.add(cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()));
+        }
+
+        Map<String, Double> before = serverStats();
+        System.out.printf("Running %d sessions for %s against %s%s%n", sessions, duration, baseUrl, path);
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String cookie : cookies) clients.submit(() -> loop(cookie, deadline));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Map<String, Double> after = serverStats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("sessions", sessions);
+        result.put("seconds", seconds);
+        result.put("requests", ok.get());
+        result.put("errors", errors.get());
+        result.put("throughputPerSec", ok.get() / seconds);
+        result.put("p50Ms", percentileMillis(0.50));
+        result.put("p95Ms", percentileMillis(0.95));
+        result.put("p99Ms", percentileMillis(0.99));
+        result.put("serverBefore", before);
+        result.put("serverAfter", after);
+
+        String out = JSON.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+        System.out.println(out);
+        Path file = Path.of("target", "load-" + label + "-" + sessions + ".json");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, out);
+    }
+
+    private void loop(String cookie, long deadline) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(60))
+                .GET().build();
+        while (System.nanoTime() < deadline) {
+            long t0 = System.nanoTime();
+            try {
+                HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+                if (res.statusCode() == 200) {
+                    ok.incrementAndGet();
+                    record(System.nanoTime() - t0);
+                } else {
+                    errors.incrementAndGet();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private void record(long nanos) {
+        int bucket = nanos <= BUCKET_MIN_NANOS ? 0
+                : (int) Math.min(BUCKETS - 1, Math.ceil(Math.log((double) nanos / BUCKET_MIN_NANOS) / Math.log(BUCKET_BASE)));
+        latency.incrementAndGet(bucket);
+    }
+
+    // ขอบบนของ bucket ที่ครอบ percentile (คลาดเคลื่อนไม่เกิน ~10%)
+    private double percentileMillis(double p) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += latency.get(i);
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p * total), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latency.get(i);
+            if (seen >= rank) return BUCKET_MIN_NANOS * Math.pow(BUCKET_BASE, i) / 1e6;
+        }
+        return BUCKET_MIN_NANOS * Math.pow(BUCKET_BASE, BUCKETS - 1) / 1e6;
+    }
+
+    // heap ที่ใช้/commit และจำนวน thread ของ server (ต้อง expose actuator metrics)
+    private Map<String, Double> serverStats() {
+        Map<String, Double> stats = new LinkedHashMap<>();
+        stats.put("heapUsedMb", metric("jvm.memory.used?tag=area:heap") / (1024 * 1024));
+        stats.put("heapCommittedMb", metric("jvm.memory.committed?tag=area:heap") / (1024 * 1024));
+        stats.put("liveThreads", metric("jvm.threads.live"));
+        stats.put("peakThreads", metric("jvm.threads.peak"));
+        return stats;
+    }
+
+    private double metric(String name) {
+        try {
+            HttpResponse<String> res = http.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() != 200) return Double.NaN;
+            JsonNode value = JSON.readTree(res.body()).path("measurements").path(0).path("value");
+            return value.isNumber() ? value.asDouble() : Double.NaN;
+        } catch (Exception ex) {
+            return Double.NaN;
+        }
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> body) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String user(int i) {
+        return "load" + i;
+    }
+}
@@ -0,0 +1,40 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.Expense;
+
+// แปลงข้อความ type จาก frontend (ไทย/อังกฤษ) -> enum ที่ทุก create/update เรียก
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    private final String[] entryTypes = {"รายได้", "ค่าใช้จ่าย", "INCOME", " expense ", "spendings", "อะไรก็ได้", null};
+    private final String[] accountTypes = {"เงินสด", "ธนาคาร", "บัตรเครดิต", "BANK", "credit_card", "unknown", null};
+
+    @Benchmark
+    public void normalizeEntryType(Blackhole bh) {
+        for (String s : entryTypes) bh.consume(Expense.EntryType.normalize(s));
+    }
+
+    @Benchmark
+    public void parseAccountType(Blackhole bh) {
+        for (String s : accountTypes) bh.consume(Account.AccountType.parse(s));
+    }
+}
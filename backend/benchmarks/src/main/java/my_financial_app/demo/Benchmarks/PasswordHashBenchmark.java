@@ -0,0 +1,69 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import my_financial_app.demo.Security.PasswordHasher;
+
+// ต้นทุน CPU ของ login ต่อ cost ของ BCrypt (app.security.bcrypt.strength)
+// 1 thread = login/วินาที ต่อ 1 core (ตรวจรหัสผ่าน 1 ครั้ง = login 1 ครั้ง; lookup/UPDATE ของ DB ไม่รวม)
+//   verify       = encoder ตรง ๆ บน thread ของ benchmark
+//   verifyPooled = ผ่าน PasswordHasher (pool 1 thread) ดู overhead ของการส่งงานข้าม thread
+// ความจุทั้งเครื่อง ~= ผลของ verify x จำนวน core; เลือก cost ที่ยังเหลือ headroom เหนือ peak login/s
+// รัน: java -jar target/benchmarks.jar PasswordHashBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12", "14"})
+    public int strength;
+
+    private PasswordHasher hasher;
+    private BCryptPasswordEncoder encoder;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hasher = new PasswordHasher(strength, 1, 16, Duration.ofMinutes(1));
+        stored = encoder.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyPooled() {
+        return hasher.verify(PASSWORD, stored);
+    }
+}
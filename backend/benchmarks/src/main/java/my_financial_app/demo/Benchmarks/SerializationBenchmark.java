@@ -0,0 +1,136 @@
+package my_financial_app.demo.Benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import my_financial_app.demo.Controller.ExpenseController;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.Role;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseView;
+import my_financial_app.demo.Security.AuthenticatedUser;
+
+// ExpenseController.listMine / listByRange + แปลงเป็น JSON (ส่วนที่เกิดหลัง query ใน request จริง)
+// repository เป็น stub คืน list ที่เตรียมไว้ (query แบบแบ่งหน้าตัดตาม Pageable) -> วัดเฉพาะ controller + Jackson
+// listMine / listByRange = หน้าแรกตาม default ของ controller, *All = all=true ทั้งชุดใน response เดียว
+// entities* = แบบเดิมที่ส่ง entity Expense ออกไปตรง ๆ ไว้เทียบกับ ExpenseView (ขนาด payload พิมพ์ตอน setup)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private ExpenseController controller;
+    private List<Expense> entities;
+    private ObjectMapper mapper;
+    private AuthenticatedUser me;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        User owner = new User("bench", "bench", "bench@example.com");
+        setField(owner, User.class, "id", 1L);
+
+        entities = new ArrayList<>(rows);
+        LocalDateTime t = LocalDateTime.of(2025, 12, 31, 12, 0);
+        for (int i = 0; i < rows; i++) {
+            Expense e = new Expense();
+            setField(e, Expense.class, "id", (long) (rows - i));
+            e.setUser(owner);
+            e.setType(i % 10 == 0 ? Expense.EntryType.INCOME : Expense.EntryType.EXPENSE);
+            e.setCategory("อาหาร");
+            e.setAmount(new BigDecimal("120.50"));
+            e.setNote("ข้าวกลางวัน #" + i);
+            e.setPlace("ร้าน A");
+            e.setPaymentMethod("CASH");
+            e.setIconKey("food");
+            e.setOccurredAt(t.minusHours(i));
+            entities.add(e);
+        }
+        List<ExpenseView> views = entities.stream().map(ExpenseView::of).toList();
+
+        ExpenseRepository repo = (ExpenseRepository) Proxy.newProxyInstance(
+                ExpenseRepository.class.getClassLoader(),
+                new Class<?>[]{ExpenseRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    // all=true
+                    case "findByUserIdOrderByOccurredAtDesc",
+                         "findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc" -> views;
+                    // keyset หน้าแรก (cursor ไม่ได้ใช้ใน benchmark นี้)
+                    case "findByUserIdOrderByOccurredAtDescIdDesc",
+                         "findByUserIdAndOccurredAtBetweenOrderByOccurredAtDescIdDesc" ->
+                            views.subList(0, Math.min(views.size(), ((Pageable) args[args.length - 1]).getPageSize()));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        controller = new ExpenseController(repo, null, null, null, null);
+        mapper = Jackson2ObjectMapperBuilder.json().build(); // ตั้งค่าแบบเดียวกับ Spring Boot (ISO date)
+        me = new AuthenticatedUser(1L, "bench", Role.USER);
+
+        System.out.printf("%n[payload rows=%d] entity=%d bytes, view=%d bytes%n",
+                rows, mapper.writeValueAsBytes(entities).length, listMineAll().length);
+    }
+
+    @Benchmark
+    public byte[] listMine() throws Exception {
+        ResponseEntity<?> res = controller.listMine(null, null, false, me);
+        return mapper.writeValueAsBytes(res.getBody());
+    }
+
+    @Benchmark
+    public byte[] listMineAll() throws Exception {
+        ResponseEntity<?> res = controller.listMine(null, null, true, me);
+        return mapper.writeValueAsBytes(res.getBody());
+    }
+
+    @Benchmark
+    public byte[] entitiesListMine() throws Exception {
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] listByRange() throws Exception {
+        ResponseEntity<?> res = controller.listByRange("2024-01-01", "2025-12-31", null, null, false, me);
+        return mapper.writeValueAsBytes(res.getBody());
+    }
+
+    @Benchmark
+    public byte[] listByRangeAll() throws Exception {
+        ResponseEntity<?> res = controller.listByRange("2024-01-01", "2025-12-31", null, null, true, me);
+        return mapper.writeValueAsBytes(res.getBody());
+    }
+
+    private static void setField(Object target, Class<?> type, String name, Object value) throws Exception {
+        Field f = type.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -3,6 +3,7 @@ package my_financial_app.demo.Config;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Entity.Role;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -13,6 +14,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Override
     public void run(String... args) throws Exception {
         if (userRepository.count() == 0) {
@@ -24,23 +28,23 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private void initializeUsers() {
-        User admin = new User("admin", "admin", "admin@example.com");
+        User admin = new User("admin", passwordHasher.hash("admin"), "admin@example.com");
         admin.setRole(Role.ADMIN);
         userRepository.save(admin);
 
-        User user = new User("user", "password", "user@example.com");
+        User user = new User("user", passwordHasher.hash("password"), "user@example.com");
         user.setRole(Role.USER);
         userRepository.save(user);
 
-        User user2 = new User("jane", "password123", "jane@example.com");
+        User user2 = new User("jane", passwordHasher.hash("password123"), "jane@example.com");
         user2.setRole(Role.USER);
         userRepository.save(user2);
 
-        User user3 = new User("bob", "mypassword", "bob@example.com");
+        User user3 = new User("bob", passwordHasher.hash("mypassword"), "bob@example.com");
         user3.setRole(Role.USER);
         userRepository.save(user3);
 
-        User user4 = new User("alice", "alicepass", "alice@example.com");
+        User user4 = new User("alice", passwordHasher.hash("alicepass"), "alice@example.com");
         user4.setRole(Role.USER);
         userRepository.save(user4);
 
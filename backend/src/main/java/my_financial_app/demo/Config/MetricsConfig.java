@@ -0,0 +1,70 @@
+package my_financial_app.demo.Config;
+
+import java.time.Duration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+// metrics ที่ Boot ไม่ได้ให้มาเอง (ของที่ได้ฟรีอยู่แล้ว: http.server.requests, spring.data.repository.invocations,
+// hibernate.* จาก HibernateMetrics) -> ดู /actuator/prometheus, percentile ตั้งใน application.yml
+@Configuration
+public class MetricsConfig {
+
+    static final String HANDLER_TAG = "handler";
+
+    // เพิ่ม tag handler="ExpenseController.listMine" ให้ http.server.requests (แยกได้ทีละ method ของ controller)
+    @Bean
+    ServerRequestObservationConvention handlerTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod m) {
+            return KeyValue.of(HANDLER_TAG, m.getBeanType().getSimpleName() + "." + m.getMethod().getName());
+        }
+        return KeyValue.of(HANDLER_TAG, "none");
+    }
+
+    // จับเวลา Jackson แยกจากเวลาใน controller (http.server.serialization)
+    @Bean
+    MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper mapper, MeterRegistry registry) {
+        return new TimedJacksonHttpMessageConverter(mapper, registry);
+    }
+
+    // log request ที่ช้ากว่า app.metrics.slow-request
+    @Bean
+    SlowRequestLogger slowRequestLogger(@Value("${app.metrics.slow-request:PT1S}") Duration threshold) {
+        return new SlowRequestLogger(threshold);
+    }
+
+    // hibernate.query: จำนวนครั้ง/เวลารวม/เวลาสูงสุด ต่อ HQL (ต้องเปิด hibernate.generate_statistics)
+    @Bean
+    MeterBinder hibernateQueryMetrics(EntityManagerFactory emf) {
+        return (MeterRegistry registry) -> new HibernateQueryMetrics(
+                emf.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty()).bindTo(registry);
+    }
+}
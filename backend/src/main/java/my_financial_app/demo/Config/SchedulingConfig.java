@@ -0,0 +1,10 @@
+package my_financial_app.demo.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// งานเบื้องหลัง (@Scheduled) เช่น RecurrenceMaterializer
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,70 @@
+package my_financial_app.demo.Config;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+// ที่เก็บ HttpSession เลือกด้วย app.session.store (SessionAutoConfiguration ของ Boot ถูก exclude ไว้)
+//   memory = session ของ Tomcat ใน process (ค่าเริ่มต้น: dev และ MockMvc ที่ส่ง MockHttpSession เอง)
+//   map    = Spring Session บน Map ใน process: cookie SESSION + filter แบบเดียวกับ jdbc แต่ไม่ต้องมีตาราง
+//   jdbc   = Spring Session บนตาราง SPRING_SESSION (db/vendor/*/V5) ทุก replica เห็น session เดียวกัน ไม่ต้อง sticky
+// ของที่เก็บใน session ต้อง Serializable (username, AuthenticatedUser)
+@Configuration(proxyBeanMethods = false)
+public class SessionConfig {
+
+    static final String TIMEOUT = "${server.servlet.session.timeout:30m}";
+
+    // ต้องห่อ request ก่อน Spring Security และ filter อื่นที่อาจเรียก getSession()
+    // (ปกติ SessionAutoConfiguration ลงทะเบียนให้ แต่เรา exclude ไว้)
+    static FilterRegistrationBean<SessionRepositoryFilter<?>> firstFilter(SessionRepositoryFilter<?> filter) {
+        FilterRegistrationBean<SessionRepositoryFilter<?>> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER);
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+    @EnableJdbcHttpSession
+    static class Jdbc {
+
+        // session หมดอายุถูกลบทุกนาทีโดย JdbcIndexedSessionRepository (ทุก replica ทำได้ ลบซ้ำไม่เป็นไร)
+        @Bean
+        SessionRepositoryCustomizer<JdbcIndexedSessionRepository> sessionTimeout(@Value(TIMEOUT) Duration timeout) {
+            return repo -> repo.setDefaultMaxInactiveInterval(timeout);
+        }
+
+        @Bean
+        FilterRegistrationBean<SessionRepositoryFilter<?>> sessionFilterRegistration(SessionRepositoryFilter<?> filter) {
+            return firstFilter(filter);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "map")
+    @EnableSpringHttpSession
+    static class InProcess {
+
+        @Bean
+        MapSessionRepository sessionRepository(@Value(TIMEOUT) Duration timeout) {
+            MapSessionRepository repo = new MapSessionRepository(new ConcurrentHashMap<>());
+            repo.setDefaultMaxInactiveInterval(timeout);
+            return repo;
+        }
+
+        @Bean
+        FilterRegistrationBean<SessionRepositoryFilter<?>> sessionFilterRegistration(SessionRepositoryFilter<?> filter) {
+            return firstFilter(filter);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package my_financial_app.demo.Config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+// log WARN เมื่อ request ใช้เวลาเกิน threshold (query ที่ช้า Hibernate log เองที่ org.hibernate.SQL_SLOW)
+class SlowRequestLogger implements ObservationHandler<ServerRequestObservationContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestLogger.class);
+    private static final String STARTED_AT = SlowRequestLogger.class.getName() + ".startedAt";
+
+    private final long thresholdNanos;
+
+    SlowRequestLogger(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        context.put(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        Long startedAt = context.get(STARTED_AT);
+        if (startedAt == null) return;
+        long took = System.nanoTime() - startedAt;
+        if (took < thresholdNanos) return;
+
+        KeyValue handler = context.getLowCardinalityKeyValue(MetricsConfig.HANDLER_TAG);
+        log.warn("Slow request {} {} ({}) -> {} took {} ms",
+                context.getCarrier().getMethod(),
+                context.getPathPattern() != null ? context.getPathPattern() : context.getCarrier().getRequestURI(),
+                handler != null ? handler.getValue() : "none",
+                context.getResponse() != null ? context.getResponse().getStatus() : 0,
+                took / 1_000_000);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+}
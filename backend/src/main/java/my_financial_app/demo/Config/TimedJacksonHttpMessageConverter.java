@@ -0,0 +1,54 @@
+package my_financial_app.demo.Config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Jackson converter ตัวเดิม + จับเวลาการเขียน response body
+// metric: http.server.serialization{type="List<Expense>", outcome=SUCCESS|ERROR}
+class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String METRIC = "http.server.serialization";
+
+    private final MeterRegistry registry;
+    private final Map<Type, String> typeNames = new ConcurrentHashMap<>();
+
+    TimedJacksonHttpMessageConverter(ObjectMapper mapper, MeterRegistry registry) {
+        super(mapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "ERROR";
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = "SUCCESS";
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Time spent writing JSON response bodies")
+                    .tag("type", typeName(type != null ? type : object.getClass()))
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    // "java.util.List<my_financial_app.demo.Entity.Expense>" -> "List<Expense>" (tag สั้น, จำนวนค่าจำกัดตาม endpoint)
+    private String typeName(Type type) {
+        return typeNames.computeIfAbsent(type,
+                t -> ResolvableType.forType(t).toString().replaceAll("[\\w$]+[.$]", ""));
+    }
+}
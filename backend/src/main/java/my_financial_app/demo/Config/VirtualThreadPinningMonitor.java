@@ -0,0 +1,82 @@
+package my_financial_app.demo.Config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// ตรวจ virtual thread ที่ถูก pin กับ carrier (Java 21: รอ I/O อยู่ใน synchronized เช่นใน driver JDBC / H2)
+// ฟัง JFR event jdk.VirtualThreadPinned ในตัวแอป -> นับใน jvm.threads.virtual.pinned
+// และ log stack ครั้งแรกของแต่ละจุด (จุดเดิมไม่ log ซ้ำ ไม่ให้ log ท่วม)
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier longer than the threshold")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream rs = new RecordingStream();
+        rs.enable(EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(EVENT, this::onPinned);
+        rs.startAsync();
+        stream = rs;
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        if (event.getStackTrace() == null) return;
+
+        List<String> frames = event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(MAX_FRAMES)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.toList());
+        if (frames.isEmpty() || reported.size() > 1_000 || !reported.add(String.join("|", frames))) return;
+
+        log.warn("Virtual thread pinned for {} ms\n\tat {}",
+                event.getDuration().toMillis(), String.join("\n\tat ", frames));
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) rs.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+}
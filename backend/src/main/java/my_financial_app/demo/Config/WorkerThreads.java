@@ -0,0 +1,20 @@
+package my_financial_app.demo.Config;
+
+import java.util.concurrent.ThreadFactory;
+
+// thread factory ของ executor ภายในแอป (import, recurrence) ให้ตามโหมด spring.threads.virtual.enabled
+// จำนวน worker ยังถูกจำกัดด้วยขนาด pool เหมือนเดิม (กันแย่ง connection ของ DB) แค่ไม่กิน platform thread ตอนรอ JDBC
+public final class WorkerThreads {
+
+    public static final String VIRTUAL_ENABLED = "${spring.threads.virtual.enabled:false}";
+
+    private WorkerThreads() {
+    }
+
+    // ชื่อ thread: prefix-1, prefix-2, ... (virtual thread เป็น daemon อยู่แล้ว)
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(prefix + "-", 1).factory()
+                : Thread.ofPlatform().name(prefix + "-", 1).daemon(true).factory();
+    }
+}
@@ -2,19 +2,19 @@ package my_financial_app.demo.Controller;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
 import my_financial_app.demo.Entity.Account;
-import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.AccountView;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.AccountLedger;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -27,80 +27,70 @@ public class AccountController {
 
     private final AccountRepository repo;
     private final UserRepository userRepo;
+    private final AccountLedger ledger;
 
-    public AccountController(AccountRepository repo, UserRepository userRepo) {
+    public AccountController(AccountRepository repo, UserRepository userRepo, AccountLedger ledger) {
         this.repo = repo;
         this.userRepo = userRepo;
+        this.ledger = ledger;
     }
 
     @PostMapping
-    public ResponseEntity<?> create(@Valid @RequestBody CreateAccountRequest req, HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+    public ResponseEntity<?> create(@Valid @RequestBody CreateAccountRequest req, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
         Account a = new Account();
-        a.setUser(owner);
+        a.setUser(userRepo.getReferenceById(me.id()));
         a.setName(req.name.trim());
-        a.setType(parseType(req.type));
+        a.setType(Account.AccountType.parse(req.type));
         a.setAmount(BigDecimal.valueOf(req.amount));
+        a.setBalance(a.getAmount());
         a.setIconKey(req.iconKey);
 
-        return ResponseEntity.ok(repo.save(a));
+        return ResponseEntity.ok(AccountView.of(repo.save(a)));
     }
 
     @GetMapping
-    public ResponseEntity<?> listMine(HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
-        List<Account> result = repo.findByUserIdOrderByIdDesc(owner.getId());
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> listMine(AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
+        List<AccountView> result = repo.findByUserIdOrderByIdDesc(me.id());
         return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updateOne(@PathVariable Long id,
                                        @Valid @RequestBody CreateAccountRequest req,
-                                       HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+                                       AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<Account> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<Account> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty()) return ResponseEntity.status(404).body("Not found");
 
         Account a = opt.get();
+        BigDecimal oldAmount = a.getAmount();
         a.setName(req.name.trim());
-        a.setType(parseType(req.type));
+        a.setType(Account.AccountType.parse(req.type));
         a.setAmount(BigDecimal.valueOf(req.amount));
         a.setIconKey(req.iconKey);
 
-        return ResponseEntity.ok(repo.save(a));
+        Account saved = repo.save(a);
+        // แก้ยอดตั้งต้น = เลื่อนยอดคงเหลือด้วยส่วนต่าง (UPDATE ใน DB แล้ว refresh saved)
+        ledger.openingAmountChanged(saved, oldAmount);
+        return ResponseEntity.ok(AccountView.of(saved));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteOne(@PathVariable Long id, HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+    @Transactional
+    public ResponseEntity<?> deleteOne(@PathVariable Long id, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<Account> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<Account> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty()) return ResponseEntity.status(404).body("Not found");
 
+        ledger.detachAccount(id);
         repo.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-
-    private User requireLoginUser(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        String username = (session != null) ? (String) session.getAttribute("username") : null;
-        if (username == null || username.isBlank()) return null;
-        return userRepo.findByUsername(username).orElse(null);
-    }
-
-    private static Account.AccountType parseType(String raw) {
-        if (raw == null) return Account.AccountType.CASH;
-        String s = raw.trim().toLowerCase(Locale.ROOT);
-        if (s.equals("เงินสด") || s.equals("cash")) return Account.AccountType.CASH;
-        if (s.equals("ธนาคาร") || s.equals("bank")) return Account.AccountType.BANK;
-        if (s.equals("บัตรเครดิต") || s.equals("credit") || s.equals("credit_card") || s.equals("creditcard"))
-            return Account.AccountType.CREDIT_CARD;
-        return Account.AccountType.CASH;
-    }
 }
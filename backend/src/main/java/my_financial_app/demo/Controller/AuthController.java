@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.AuthenticatedUserArgumentResolver;
+import my_financial_app.demo.Security.LoginRateLimiter;
+import my_financial_app.demo.Security.PasswordHasher;
+import my_financial_app.demo.Service.ActivityTracker;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -28,6 +33,15 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private ActivityTracker activityTracker;
+
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         Map<String, Object> response = new HashMap<>();
@@ -41,17 +55,35 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
 
+            // นับก่อนแตะ DB/BCrypt: identifier ที่ถูกเดารหัสรัว ๆ ไม่ทำให้เกิด query หรือ hash เพิ่ม
+            if (!loginRateLimiter.tryAcquire(identifier)) {
+                response.put("success", false);
+                response.put("message", "พยายามเข้าสู่ระบบบ่อยเกินไป กรุณารอสักครู่แล้วลองใหม่");
+                return ResponseEntity.status(429)
+                        .header("Retry-After", String.valueOf(loginRateLimiter.retryAfterSeconds()))
+                        .body(response);
+            }
+
             Optional<User> userOpt = userRepository.findByUsernameOrEmail(identifier, identifier);
 
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
 
-                if (password.equals(user.getPassword())) {
-                    user.setLastLogin(LocalDateTime.now());
-                    userRepository.save(user);
+                if (passwordHasher.verify(password, user.getPassword())) {
+                    loginRateLimiter.reset(identifier);
+                    // plaintext เดิม / cost ต่ำกว่าปัจจุบัน -> เก็บ hash ใหม่ (เกิดครั้งเดียวต่อ user)
+                    if (passwordHasher.needsRehash(user.getPassword())) {
+                        String rehashed = passwordHasher.hash(password);
+                        userRepository.updatePassword(user.getId(), rehashed);
+                        user.setPassword(rehashed);
+                    }
+                    // lastLogin เขียนเป็น batch ภายหลัง (ActivityTracker) ไม่ UPDATE ทุก login
+                    LocalDateTime now = LocalDateTime.now();
+                    user.setLastLogin(now);
+                    activityTracker.record(user.getId(), now);
 
                     HttpSession session = httpRequest.getSession(true);
-                    session.setAttribute("username", user.getUsername());
+                    AuthenticatedUserArgumentResolver.remember(session, user);
 
                     response.put("success", true);
                     response.put("message", "Login successful");
@@ -73,6 +105,8 @@ public class AuthController {
             response.put("message", "ไม่พบบัญชีผู้ใช้");
             return ResponseEntity.badRequest().body(response);
 
+        } catch (RejectedExecutionException e) {
+            return busy(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Login failed: " + e.getMessage());
@@ -117,7 +151,7 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            User newUser = new User(username, password, email);
+            User newUser = new User(username, passwordHasher.hash(password), email);
             User savedUser = userRepository.save(newUser);
 
             response.put("success", true);
@@ -130,6 +164,8 @@ public class AuthController {
             ));
             return ResponseEntity.ok(response);
 
+        } catch (RejectedExecutionException e) {
+            return busy(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Registration failed: " + e.getMessage());
@@ -170,6 +206,13 @@ public class AuthController {
         }
     }
 
+    // pool ของ PasswordHasher เต็ม
+    private static ResponseEntity<Map<String, Object>> busy(Map<String, Object> response) {
+        response.put("success", false);
+        response.put("message", "ระบบกำลังยุ่ง กรุณาลองใหม่อีกครั้ง");
+        return ResponseEntity.status(429).body(response);
+    }
+
     private static String safeTrim(String s) {
         return s == null ? null : s.trim();
     }
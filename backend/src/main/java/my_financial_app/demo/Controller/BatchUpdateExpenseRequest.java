@@ -0,0 +1,8 @@
+package my_financial_app.demo.Controller;
+
+import jakarta.validation.constraints.NotNull;
+
+// แถวหนึ่งใน PUT /api/expenses/batch
+public class BatchUpdateExpenseRequest extends CreateExpenseRequest {
+    @NotNull public Long id;
+}
@@ -0,0 +1,75 @@
+package my_financial_app.demo.Controller;
+
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.validation.Valid;
+
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.UserCategory;
+import my_financial_app.demo.Repository.UserCategoryRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.AuthenticatedUser;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+// หมวดหมู่ที่ผู้ใช้สร้างเอง (หน้า Custom Income / Custom Outcome)
+@RestController
+@RequestMapping("/api/categories")
+@CrossOrigin(
+        origins = {"http://localhost:3000","http://localhost:5173"},
+        allowCredentials = "true"
+)
+public class CategoryController {
+
+    private final UserCategoryRepository repo;
+    private final UserRepository userRepo;
+
+    public CategoryController(UserCategoryRepository repo, UserRepository userRepo) {
+        this.repo = repo;
+        this.userRepo = userRepo;
+    }
+
+    // GET /api/categories?type=income|expense
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> listMine(@RequestParam(defaultValue = "EXPENSE") String type, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
+        List<UserCategory> result = repo.findByUserIdAndTypeOrderByIdAsc(me.id(), Expense.EntryType.normalize(type));
+        return ResponseEntity.ok(result);
+    }
+
+    // ชื่อซ้ำในประเภทเดียวกัน = แก้ไอคอนของอันเดิม (ไม่สร้างซ้ำ)
+    @PostMapping
+    @Transactional
+    public ResponseEntity<?> create(@Valid @RequestBody CreateCategoryRequest req, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
+
+        Expense.EntryType type = Expense.EntryType.normalize(req.type);
+        String name = req.name.trim();
+        UserCategory c = repo.findByUserIdAndTypeAndName(me.id(), type, name).orElseGet(() -> {
+            UserCategory created = new UserCategory();
+            created.setUser(userRepo.getReferenceById(me.id()));
+            created.setType(type);
+            created.setName(name);
+            return created;
+        });
+        c.setIconKey(req.iconKey);
+        return ResponseEntity.ok(repo.save(c));
+    }
+
+    // ลบแค่ตัวเลือกในหน้าเลือกหมวด รายการเดิมที่ใช้ชื่อนี้ยังอยู่ครบ
+    @DeleteMapping("/{id}")
+    @Transactional
+    public ResponseEntity<?> deleteOne(@PathVariable Long id, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
+
+        Optional<UserCategory> opt = repo.findByIdAndUserId(id, me.id());
+        if (opt.isEmpty()) return ResponseEntity.status(404).body("Not found");
+
+        repo.delete(opt.get());
+        return ResponseEntity.noContent().build();
+    }
+}
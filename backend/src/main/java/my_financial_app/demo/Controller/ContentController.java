@@ -1,11 +1,15 @@
 package my_financial_app.demo.Controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,8 +18,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import my_financial_app.demo.Entity.Role;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Repository.UserSummary;
+import my_financial_app.demo.Service.StatsEngine;
+import my_financial_app.demo.Service.UserDirectory;
 
 @RestController
 @RequestMapping("/api")
@@ -25,6 +33,12 @@ public class ContentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private StatsEngine statsEngine;
+
     @GetMapping("/user/profile/{id}")
     public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable Long id) {
         Optional<User> userOpt = userRepository.findById(id);
@@ -46,69 +60,57 @@ public class ContentController {
         }
     }
 
+    // อ่านจาก snapshot ใน memory (StatsEngine) ไม่ query DB ต่อ request
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
+        StatsEngine.Snapshot snap = statsEngine.snapshot();
+
         Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // ข้อมูลจริงจาก database
-            long totalUsers = userRepository.count();
-            long activeUsers = userRepository.countActiveUsersToday();
-            
-            // ข้อมูล mock สำหรับ demo (ในการใช้งานจริงควรมี entity อื่นๆ)
-            Random random = new Random();
-            long totalOrders = 500 + random.nextInt(500);
-            double revenue = 50000 + (random.nextDouble() * 100000);
-            
-            stats.put("totalUsers", totalUsers);
-            stats.put("activeUsers", activeUsers);
-            stats.put("totalOrders", totalOrders);
-            stats.put("revenue", Math.round(revenue * 100.0) / 100.0);
-            stats.put("userGrowth", calculateUserGrowth());
-            
-            return ResponseEntity.ok(stats);
-            
-        } catch (Exception e) {
-            // Fallback เมื่อมีปัญหา
-            Map<String, Object> fallbackStats = new HashMap<>();
-            fallbackStats.put("totalUsers", 0);
-            fallbackStats.put("activeUsers", 0);
-            fallbackStats.put("totalOrders", 0);
-            fallbackStats.put("revenue", 0.0);
-            fallbackStats.put("error", "Unable to fetch stats");
-            
-            return ResponseEntity.ok(fallbackStats);
-        }
+        stats.put("totalUsers", snap.totalUsers());
+        stats.put("activeUsers", snap.activeUsers());
+        stats.put("totalOrders", snap.transactions());     // จำนวนรายการทั้งหมด (รายรับ + รายจ่าย)
+        stats.put("revenue", snap.volume());               // ยอดรวมทั้งหมด (รายรับ + รายจ่าย)
+        stats.put("income", snap.income());
+        stats.put("expense", snap.expense());
+        stats.put("newUsers", snap.newUsers());
+        stats.put("userGrowth", snap.userGrowth());         // % ผู้ใช้ใหม่เทียบช่วงก่อนหน้า
+        stats.put("periodTransactions", snap.periodTransactions());
+        stats.put("periodVolume", snap.periodVolume());
+        stats.put("volumeGrowth", snap.volumeGrowth());     // % ยอดรวมเทียบช่วงก่อนหน้า
+        stats.put("periodDays", snap.periodDays());
+        stats.put("refreshedAt", snap.refreshedAt());
+        return ResponseEntity.ok(stats);
     }
 
+    // page เริ่มที่ 0; filter ทุกตัวไม่บังคับ; วันที่เป็น yyyy-MM-dd (to = รวมทั้งวัน)
     @GetMapping("/users/list")
     public ResponseEntity<Map<String, Object>> getUsersList(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate lastLoginFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate lastLoginTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo) {
+
         try {
-            // ในตัวอย่างง่ายๆ เอาทั้งหมดก่อน (ไม่ใช้ pagination ยัง)
-            var users = userRepository.findAll();
-            
+            UserDirectory.Filter filter = new UserDirectory.Filter(
+                    parseRole(role),
+                    startOf(lastLoginFrom), startOf(lastLoginTo == null ? null : lastLoginTo.plusDays(1)),
+                    startOf(createdFrom), startOf(createdTo == null ? null : createdTo.plusDays(1)));
+            Page<UserSummary> users = userDirectory.list(filter, page, size, sort);
+
             Map<String, Object> response = new HashMap<>();
-            response.put("users", users.stream().map(user -> {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("id", user.getId());
-                userInfo.put("username", user.getUsername());
-            
-                userInfo.put("email", user.getEmail());
-                userInfo.put("role", user.getRole().toString());
-                userInfo.put("createdAt", user.getCreatedAt());
-                userInfo.put("lastLogin", user.getLastLogin());
-                return userInfo;
-            }).toList());
-            
-            response.put("total", users.size());
+            response.put("users", users.getContent());
+            response.put("total", users.getTotalElements());
+            response.put("totalPages", users.getTotalPages());
             response.put("page", page);
             response.put("size", size);
-            
+            response.put("sort", sort);
+
             return ResponseEntity.ok(response);
-            
+
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Unable to fetch users: " + e.getMessage());
@@ -116,6 +118,19 @@ public class ContentController {
         }
     }
 
+    private static Role parseRole(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return Role.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role " + raw);
+        }
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day == null ? null : day.atStartOfDay();
+    }
+
     @GetMapping("/public/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
@@ -138,11 +153,4 @@ public class ContentController {
         
         return ResponseEntity.ok(response);
     }
-    
-    private double calculateUserGrowth() {
-        // Mock calculation สำหรับการเจริญเติบโตของผู้ใช้
-        // ในการใช้งานจริงควรเปรียบเทียบกับข้อมูลช่วงเวลาก่อนหน้า
-        Random random = new Random();
-        return Math.round((5.0 + (random.nextDouble() * 15.0)) * 100.0) / 100.0;
-    }
-}
\ No newline at end of file
+}
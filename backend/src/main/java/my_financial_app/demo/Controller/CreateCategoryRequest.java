@@ -0,0 +1,10 @@
+package my_financial_app.demo.Controller;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class CreateCategoryRequest {
+    @NotBlank @Size(max = 100) public String name;   // = Label.MAX_NAME
+    @NotBlank public String type;                      // "รายได้" | "income" -> INCOME, อื่น ๆ -> EXPENSE
+    @Size(max = 60) public String iconKey;
+}
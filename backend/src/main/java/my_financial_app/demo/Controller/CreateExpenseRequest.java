@@ -3,11 +3,12 @@ package my_financial_app.demo.Controller;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 public class CreateExpenseRequest {
     @NotBlank public String type;
-    @NotBlank public String category;
+    @NotBlank @Size(max = 100) public String category;   // = Label.MAX_NAME
     @NotNull  public Double amount;
     public String note;
     @NotBlank public String place;
@@ -16,6 +17,7 @@ public class CreateExpenseRequest {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     public LocalDateTime occurredAt;
 
-    @NotBlank public String paymentMethod;
+    @NotBlank @Size(max = 100) public String paymentMethod;
     public String iconKey;
+    public Long accountId; // ไม่ส่ง = จับคู่บัญชีจากชื่อ paymentMethod
 }
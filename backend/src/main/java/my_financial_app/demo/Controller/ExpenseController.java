@@ -4,48 +4,82 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import my_financial_app.demo.Entity.Account;
 import my_financial_app.demo.Entity.Expense;
-import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseTotal;
+import my_financial_app.demo.Repository.ExpenseView;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.AccountLedger;
+import my_financial_app.demo.Service.ExpenseBatchService;
+import my_financial_app.demo.Service.ExpensesChangedEvent;
 
 @RestController
 @RequestMapping("/api/expenses")
 @CrossOrigin(
         origins = {"http://localhost:3000","http://localhost:5173"},
-        allowCredentials = "true"
+        allowCredentials = "true",
+        exposedHeaders = "X-Next-Cursor"
 )
 public class ExpenseController {
 
+    // ช่วงเวลาเริ่มต้นเมื่อไม่ได้ส่ง start/end มา (ทั้งประวัติ)
+    private static final LocalDateTime SUMMARY_MIN = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime SUMMARY_MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ExpenseRepository repo;
     private final UserRepository userRepo;
+    private final AccountLedger ledger;
+    private final ExpenseBatchService batch;
+    private final ApplicationEventPublisher events;
 
-    public ExpenseController(ExpenseRepository repo, UserRepository userRepo) {
+    public ExpenseController(ExpenseRepository repo, UserRepository userRepo,
+                             AccountLedger ledger, ExpenseBatchService batch,
+                             ApplicationEventPublisher events) {
         this.repo = repo;
         this.userRepo = userRepo;
+        this.ledger = ledger;
+        this.batch = batch;
+        this.events = events;
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<?> create(
-            HttpServletRequest request,
+            AuthenticatedUser me,
             @RequestBody CreateExpenseRequest req
     ) {
-        User owner = requireLoginUserEarly(request);
-        if (owner == null)
+        if (me == null)
             return ResponseEntity.status(401).body("Unauthorized");
 
+        Account account = ledger.resolveAccount(me.id(), req.accountId, req.paymentMethod);
+        if (req.accountId != null && account == null)
+            return ResponseEntity.badRequest().body("Account not found");
+
         Expense e = new Expense();
-        e.setUser(owner);
-        e.setType(normalizeType(req.type));
+        e.setUser(userRepo.getReferenceById(me.id()));
+        e.setType(Expense.EntryType.normalize(req.type));
         e.setCategory(req.category);
         e.setAmount(BigDecimal.valueOf(req.amount));
         e.setNote(req.note);
@@ -53,43 +87,120 @@ public class ExpenseController {
         e.setOccurredAt(req.occurredAt);
         e.setPaymentMethod(req.paymentMethod);
         e.setIconKey(req.iconKey);
-        return ResponseEntity.ok(repo.save(e));
+        e.setAccount(account);
+
+        Expense saved = repo.save(e);
+        ledger.created(saved);
+        events.publishEvent(ExpensesChangedEvent.of(List.of(saved)));
+        return ResponseEntity.ok(ExpenseView.of(saved));
     }
 
     @PostMapping("/incomes")
+    @Transactional
     public ResponseEntity<?> createIncome(
             @Valid @RequestBody CreateExpenseRequest req,
-            HttpServletRequest request
+            AuthenticatedUser me
     ) {
         req.type = "INCOME";
-        return create(request, req);
+        return create(me, req);
     }
 
     @PostMapping("/spendings")
+    @Transactional
     public ResponseEntity<?> createExpense(
             @Valid @RequestBody CreateExpenseRequest req,
-            HttpServletRequest request
+            AuthenticatedUser me
     ) {
         req.type = "EXPENSE";
-        return create(request, req);
+        return create(me, req);
+    }
+
+    // --- Batch: ทุกแถวอยู่ใน transaction เดียว แถวไหนผิด = 400 และไม่บันทึกอะไรเลย ---
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(
+            @RequestBody List<CreateExpenseRequest> rows,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        try {
+            return ResponseEntity.ok(views(batch.createAll(me.id(), rows)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateBatch(
+            @RequestBody List<BatchUpdateExpenseRequest> rows,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        try {
+            return ResponseEntity.ok(views(batch.updateAll(me.id(), rows)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    // body = [id, id, ...]
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteBatch(
+            @RequestBody List<Long> ids,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        try {
+            return ResponseEntity.ok(Map.of("deleted", batch.deleteAll(me.id(), ids)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    // keyset pagination: ไม่ส่ง limit = DEFAULT_PAGE_SIZE แถว, cursor หน้าถัดไปอยู่ใน X-Next-Cursor (ไม่มี = หน้าสุดท้าย)
+    // all=true (และไม่ส่ง limit/cursor) = คืนทั้งหมดแบบเดิมใน response เดียว สำหรับ client เก่าที่ยังไม่อ่าน cursor
+    // readOnly: session อ่านอย่างเดียว + FlushMode.MANUAL (ไม่เก็บ snapshot / ไม่ dirty check), connection เป็น read-only
     @GetMapping
-    public ResponseEntity<?> listMine(HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null)
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> listMine(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean all,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
             return ResponseEntity.status(401).body("Unauthorized");
-        return ResponseEntity.ok(repo.findByUserIdOrderByOccurredAtDesc(owner.getId()));
+
+        if (all && limit == null && cursor == null)
+            return ResponseEntity.ok(repo.findByUserIdOrderByOccurredAtDesc(me.id()));
+
+        ExpenseCursor after = ExpenseCursor.decode(cursor);
+        if (cursor != null && after == null)
+            return ResponseEntity.badRequest().body("Invalid cursor");
+
+        int size = pageSize(limit);
+        Pageable fetch = PageRequest.ofSize(size + 1);
+        List<ExpenseView> rows = (after == null)
+                ? repo.findByUserIdOrderByOccurredAtDescIdDesc(me.id(), fetch)
+                : repo.findPageAfter(me.id(), after.occurredAt(), after.id(), fetch);
+        return page(rows, size);
     }
 
+    // แบ่งหน้าแบบเดียวกับ listMine (DEFAULT_PAGE_SIZE, all=true = ทั้งช่วงใน response เดียว)
     @GetMapping("/range")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> listByRange(
             @RequestParam String start,
             @RequestParam String end,
-            HttpServletRequest request
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean all,
+            AuthenticatedUser me
     ) {
-        User owner = requireLoginUser(request);
-        if (owner == null)
+        if (me == null)
             return ResponseEntity.status(401).body("Unauthorized");
 
         LocalDate s = LocalDate.parse(start);
@@ -97,27 +208,90 @@ public class ExpenseController {
         LocalDateTime from = s.atStartOfDay();
         LocalDateTime to = e.atTime(LocalTime.of(23, 59, 59));
 
-        return ResponseEntity.ok(
-                repo.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(owner.getId(), from, to)
-        );
+        if (all && limit == null && cursor == null)
+            return ResponseEntity.ok(
+                    repo.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(me.id(), from, to)
+            );
+
+        ExpenseCursor after = ExpenseCursor.decode(cursor);
+        if (cursor != null && after == null)
+            return ResponseEntity.badRequest().body("Invalid cursor");
+
+        int size = pageSize(limit);
+        Pageable fetch = PageRequest.ofSize(size + 1);
+        List<ExpenseView> rows = (after == null)
+                ? repo.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDescIdDesc(me.id(), from, to, fetch)
+                : repo.findRangePageAfter(me.id(), from, to, after.occurredAt(), after.id(), fetch);
+        return page(rows, size);
+    }
+
+    // GET /api/expenses/summary?groupBy=day|month|category|paymentMethod|type&start=yyyy-MM-dd&end=yyyy-MM-dd
+    @GetMapping("/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> summary(
+            @RequestParam(defaultValue = "month") String groupBy,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+
+        LocalDateTime from = (start == null || start.isBlank())
+                ? SUMMARY_MIN : LocalDate.parse(start).atStartOfDay();
+        LocalDateTime to = (end == null || end.isBlank())
+                ? SUMMARY_MAX : LocalDate.parse(end).atTime(LocalTime.of(23, 59, 59));
+
+        List<ExpenseTotal> buckets;
+        switch (groupBy.trim().toLowerCase(Locale.ROOT)) {
+            case "day" -> buckets = repo.sumByDay(me.id(), from, to);
+            case "month" -> buckets = repo.sumByMonth(me.id(), from, to);
+            case "category" -> buckets = repo.sumByCategory(me.id(), from, to);
+            case "paymentmethod", "payment_method" -> buckets = repo.sumByPaymentMethod(me.id(), from, to);
+            case "type" -> buckets = repo.sumByType(me.id(), from, to);
+            default -> {
+                return ResponseEntity.badRequest().body("Invalid groupBy");
+            }
+        }
+
+        Map<Expense.EntryType, BigDecimal> totals = new EnumMap<>(Expense.EntryType.class);
+        for (Expense.EntryType t : Expense.EntryType.values()) totals.put(t, BigDecimal.ZERO);
+        for (ExpenseTotal b : buckets) {
+            if (b.type() != null && b.total() != null) totals.merge(b.type(), b.total(), BigDecimal::add);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("groupBy", groupBy);
+        body.put("start", start);
+        body.put("end", end);
+        body.put("totals", totals);
+        body.put("net", totals.get(Expense.EntryType.INCOME).subtract(totals.get(Expense.EntryType.EXPENSE)));
+        body.put("buckets", buckets);
+        return ResponseEntity.ok(body);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updateOne(
             @PathVariable Long id,
             @Valid @RequestBody CreateExpenseRequest req,
-            HttpServletRequest request
+            AuthenticatedUser me
     ) {
-        User owner = requireLoginUser(request);
-        if (owner == null)
+        if (me == null)
             return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<Expense> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<Expense> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty())
             return ResponseEntity.status(404).build();
 
+        Account account = ledger.resolveAccount(me.id(), req.accountId, req.paymentMethod);
+        if (req.accountId != null && account == null)
+            return ResponseEntity.badRequest().body("Account not found");
+
         Expense e = opt.get();
-        e.setType(normalizeType(req.type));
+        AccountLedger.Posting before = ledger.postingOf(e);
+        ExpensesChangedEvent changed = ExpensesChangedEvent.of(List.of(e));
+        e.setType(Expense.EntryType.normalize(req.type));
         e.setCategory(req.category);
         e.setAmount(BigDecimal.valueOf(req.amount));
         e.setNote(req.note);
@@ -125,46 +299,50 @@ public class ExpenseController {
         e.setOccurredAt(req.occurredAt);
         e.setPaymentMethod(req.paymentMethod);
         e.setIconKey(req.iconKey);
-        return ResponseEntity.ok(repo.save(e));
+        e.setAccount(account);
+
+        Expense saved = repo.save(e);
+        ledger.updated(before, saved);
+        events.publishEvent(changed.and(List.of(saved)));
+        return ResponseEntity.ok(ExpenseView.of(saved));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteOne(@PathVariable Long id, HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null)
+    @Transactional
+    public ResponseEntity<?> deleteOne(@PathVariable Long id, AuthenticatedUser me) {
+        if (me == null)
             return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<Expense> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<Expense> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty())
             return ResponseEntity.status(404).body("Not found");
 
+        ledger.deleted(opt.get());
         repo.deleteById(id);
+        events.publishEvent(ExpensesChangedEvent.of(List.of(opt.get())));
         return ResponseEntity.noContent().build();
     }
 
-    private User requireLoginUserEarly(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session == null) return null;
-        Object username = session.getAttribute("username");
-        if (username == null) return null;
-        return userRepo.findByUsername(username.toString()).orElse(null);
+    // อีก request แก้/ลบรายการเดียวกันไปก่อน (Expense.version): ทั้ง transaction ย้อนกลับ ยอดบัญชีไม่ถูกนับซ้ำ
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> concurrentUpdate() {
+        return ResponseEntity.status(409).body("Expense was changed by another request");
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
-    private User requireLoginUser(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        String username = (session != null) ? (String) session.getAttribute("username") : null;
-        if (username == null || username.isBlank()) return null;
-        return userRepo.findByUsername(username).orElse(null);
+    private static List<ExpenseView> views(List<Expense> saved) {
+        return saved.stream().map(ExpenseView::of).toList();
     }
 
-    private static Expense.EntryType normalizeType(String raw) {
-        if (raw == null) return Expense.EntryType.EXPENSE;
-        String s = raw.trim().toLowerCase(Locale.ROOT);
-        if (s.equals("รายได้") || s.equals("income") || s.equals("incomes"))
-            return Expense.EntryType.INCOME;
-        if (s.equals("ค่าใช้จ่าย") || s.equals("expense") || s.equals("expenses")
-                || s.equals("spending") || s.equals("spendings"))
-            return Expense.EntryType.EXPENSE;
-        return Expense.EntryType.EXPENSE;
+    // rows ถูกดึงมาเกิน 1 แถวเพื่อดูว่ามีหน้าถัดไปไหม
+    private static ResponseEntity<List<ExpenseView>> page(List<ExpenseView> rows, int size) {
+        if (rows.size() <= size) return ResponseEntity.ok(rows);
+        List<ExpenseView> pageRows = rows.subList(0, size);
+        String next = ExpenseCursor.of(pageRows.get(size - 1)).encode();
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(pageRows);
     }
 }
@@ -0,0 +1,37 @@
+package my_financial_app.demo.Controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import my_financial_app.demo.Repository.ExpenseView;
+
+// Cursor แบบ opaque สำหรับ keyset pagination บน (occurredAt, id)
+// client ไม่ต้องรู้รูปแบบข้างใน แค่ส่งค่า X-Next-Cursor กลับมา
+public record ExpenseCursor(LocalDateTime occurredAt, Long id) {
+
+    public static ExpenseCursor of(ExpenseView e) {
+        return new ExpenseCursor(e.occurredAt(), e.id());
+    }
+
+    public String encode() {
+        String raw = occurredAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // คืน null ถ้า cursor ไม่ถูกต้อง
+    public static ExpenseCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep <= 0) return null;
+            return new ExpenseCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package my_financial_app.demo.Controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.ExpenseExporter;
+
+@RestController
+@RequestMapping("/api/expenses/export")
+@CrossOrigin(
+        origins = {"http://localhost:3000","http://localhost:5173"},
+        allowCredentials = "true",
+        exposedHeaders = HttpHeaders.CONTENT_DISPOSITION
+)
+public class ExportController {
+
+    private static final LocalDateTime EXPORT_MIN = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime EXPORT_MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final ExpenseExporter exporter;
+
+    public ExportController(ExpenseExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    // GET /api/expenses/export?format=csv|ndjson&start=yyyy-MM-dd&end=yyyy-MM-dd&gzip=true
+    // ส่งออกแบบ stream ไม่โหลดทั้งหมดเข้า memory
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return text(401, "Unauthorized");
+
+        ExpenseExporter.Format fmt = ExpenseExporter.Format.parse(format);
+        if (fmt == null)
+            return text(400, "Invalid format");
+
+        LocalDateTime from = (start == null || start.isBlank())
+                ? EXPORT_MIN : LocalDate.parse(start).atStartOfDay();
+        LocalDateTime to = (end == null || end.isBlank())
+                ? EXPORT_MAX : LocalDate.parse(end).atTime(LocalTime.of(23, 59, 59));
+
+        String filename = "expenses-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "." + fmt.extension + (gzip ? ".gz" : "");
+        Long userId = me.id();
+        StreamingResponseBody body = out -> exporter.write(userId, from, to, fmt, gzip, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : fmt.contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // handler ของ StreamingResponseBody ต้องการ ResponseEntity<StreamingResponseBody> -> error ก็ส่งแบบเดียวกัน
+    private static ResponseEntity<StreamingResponseBody> text(int status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,73 @@
+package my_financial_app.demo.Controller;
+
+import java.io.IOException;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import my_financial_app.demo.Entity.ImportJob;
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.AccountLedger;
+import my_financial_app.demo.Service.StatementImportService;
+
+@RestController
+@RequestMapping("/api/expenses/import")
+@CrossOrigin(
+        origins = {"http://localhost:3000","http://localhost:5173"},
+        allowCredentials = "true"
+)
+public class ImportController {
+
+    private final StatementImportService importer;
+    private final AccountLedger ledger;
+
+    public ImportController(StatementImportService importer, AccountLedger ledger) {
+        this.importer = importer;
+        this.ledger = ledger;
+    }
+
+    // POST /api/expenses/import (multipart: file, format=csv|ofx, charset, accountId, paymentMethod)
+    // ตอบ 202 + job ทันที แล้ว poll ความคืบหน้าที่ GET /api/expenses/import/{jobId}
+    @PostMapping(consumes = "multipart/form-data")
+    public ResponseEntity<?> upload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String charset,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) String paymentMethod,
+            AuthenticatedUser me
+    ) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        if (file.isEmpty())
+            return ResponseEntity.badRequest().body("Empty file");
+        if (accountId != null && ledger.resolveAccount(me.id(), accountId, null) == null)
+            return ResponseEntity.badRequest().body("Account not found");
+
+        try {
+            ImportJob job = importer.submit(me.id(), file, format, charset, accountId, paymentMethod);
+            return ResponseEntity.accepted().body(job);
+        } catch (RejectedExecutionException ex) {
+            return ResponseEntity.status(429).body("Import queue is full, try again later");
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            return ResponseEntity.badRequest().body("Unsupported charset");
+        } catch (IOException ex) {
+            return ResponseEntity.status(500).body("Upload failed");
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> status(@PathVariable String jobId, AuthenticatedUser me) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+
+        ImportJob job = importer.find(me.id(), jobId);
+        if (job == null)
+            return ResponseEntity.status(404).body("Not found");
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,17 @@
+package my_financial_app.demo.Controller;
+
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// start / end (yyyy-MM-dd) ของ range, summary, export ฯลฯ parse ไม่ได้ = ข้อมูลจาก client ผิด ไม่ใช่ 500
+@RestControllerAdvice
+public class InvalidDateHandler {
+
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<?> invalidDate(DateTimeParseException ex) {
+        return ResponseEntity.badRequest().body("Invalid date: " + ex.getParsedString());
+    }
+}
@@ -0,0 +1,54 @@
+package my_financial_app.demo.Controller;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.Place;
+import my_financial_app.demo.Service.PlaceService;
+
+// proxy ค้นหาสถานที่ให้หน้า Location (client ไม่ยิง Nominatim ตรง) เปิดเฉพาะผู้ที่ login กัน proxy ถูกใช้จากภายนอก
+@RestController
+@RequestMapping("/api/places")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class PlaceController {
+
+    private final PlaceService places;
+
+    public PlaceController(PlaceService places) {
+        this.places = places;
+    }
+
+    // GET /api/places/search?q=สยาม
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(required = false) String q, AuthenticatedUser me) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        return lookup(() -> places.search(q));
+    }
+
+    // GET /api/places/reverse?lat=13.7462&lon=100.5347 -> [] หรือ [place]
+    @GetMapping("/reverse")
+    public ResponseEntity<?> reverse(@RequestParam double lat, @RequestParam double lon, AuthenticatedUser me) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        return lookup(() -> places.reverse(lat, lon));
+    }
+
+    private static ResponseEntity<?> lookup(Supplier<List<Place>> call) {
+        try {
+            return ResponseEntity.ok(call.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body("Too many place lookups, try again later");
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(502).body("Place provider unavailable");
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package my_financial_app.demo.Controller;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import my_financial_app.demo.Entity.RepeatedTransaction;
-import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.RepeatedTransactionRepository;
+import my_financial_app.demo.Repository.RepeatedTransactionView;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.AuthenticatedUser;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -29,21 +29,13 @@ public class RepeatedTransactionController {
         this.userRepo = userRepo;
     }
 
-    // (Helper) ดึง User ที่ Login อยู่
-    private User requireLoginUser(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        String username = (session != null) ? (String) session.getAttribute("username") : null;
-        if (username == null || username.isBlank()) return null;
-        return userRepo.findByUsername(username).orElse(null);
-    }
-
     // GET /api/repeated-transactions
     @GetMapping
-    public ResponseEntity<?> listMine(HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> listMine(AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
-        List<RepeatedTransaction> result = repo.findByUserId(owner.getId());
+        List<RepeatedTransactionView> result = repo.findByUserId(me.id());
         return ResponseEntity.ok(result);
     }
 
@@ -51,20 +43,18 @@ public class RepeatedTransactionController {
     @PostMapping
     public ResponseEntity<?> create(
             @RequestBody RepeatedTransactionRequest req,
-            HttpServletRequest request
+            AuthenticatedUser me
     ) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
         RepeatedTransaction rt = new RepeatedTransaction();
-        rt.setUser(owner);
+        rt.setUser(userRepo.getReferenceById(me.id()));
         rt.setName(req.name);
         rt.setAccount(req.account);
         rt.setAmount(BigDecimal.valueOf(req.amount));
-        rt.setDate(req.date);
-        rt.setFrequency(req.frequency);
+        rt.reschedule(req.date, req.frequency);
 
-        return ResponseEntity.ok(repo.save(rt));
+        return ResponseEntity.ok(RepeatedTransactionView.of(repo.save(rt)));
     }
 
     // PUT /api/repeated-transactions/{id}
@@ -72,12 +62,11 @@ public class RepeatedTransactionController {
     public ResponseEntity<?> update(
             @PathVariable Long id,
             @RequestBody RepeatedTransactionRequest req,
-            HttpServletRequest request
+            AuthenticatedUser me
     ) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<RepeatedTransaction> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<RepeatedTransaction> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty()) {
             return ResponseEntity.status(404).body("Not found");
         }
@@ -86,19 +75,17 @@ public class RepeatedTransactionController {
         rt.setName(req.name);
         rt.setAccount(req.account);
         rt.setAmount(BigDecimal.valueOf(req.amount));
-        rt.setDate(req.date);
-        rt.setFrequency(req.frequency);
+        rt.reschedule(req.date, req.frequency);
 
-        return ResponseEntity.ok(repo.save(rt));
+        return ResponseEntity.ok(RepeatedTransactionView.of(repo.save(rt)));
     }
 
     // DELETE /api/repeated-transactions/{id}
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(@PathVariable Long id, HttpServletRequest request) {
-        User owner = requireLoginUser(request);
-        if (owner == null) return ResponseEntity.status(401).body("Unauthorized");
+    public ResponseEntity<?> delete(@PathVariable Long id, AuthenticatedUser me) {
+        if (me == null) return ResponseEntity.status(401).body("Unauthorized");
 
-        Optional<RepeatedTransaction> opt = repo.findByIdAndUserId(id, owner.getId());
+        Optional<RepeatedTransaction> opt = repo.findByIdAndUserId(id, me.id());
         if (opt.isEmpty()) {
             return ResponseEntity.status(404).body("Not found");
         }
@@ -0,0 +1,49 @@
+package my_financial_app.demo.Controller;
+
+import java.time.Year;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import my_financial_app.demo.Security.AuthenticatedUser;
+import my_financial_app.demo.Service.TaxEngine;
+
+@RestController
+@RequestMapping("/api/tax")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class TaxController {
+
+    private final TaxEngine taxEngine;
+
+    public TaxController(TaxEngine taxEngine) {
+        this.taxEngine = taxEngine;
+    }
+
+    // GET /api/tax/income?year=2025 -> รายได้ทั้งปีจากรายการ INCOME (เติมหน้า 01-Income)
+    @GetMapping("/income")
+    public ResponseEntity<?> income(@RequestParam(required = false) Integer year, AuthenticatedUser me) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        int y = year == null ? Year.now().getValue() : year;
+        if (!validYear(y))
+            return ResponseEntity.badRequest().body("Invalid year");
+        return ResponseEntity.ok(taxEngine.yearIncome(me.id(), y));
+    }
+
+    // POST /api/tax/summary?year=2025 body = ลดหย่อน/ภาษีหัก ณ ที่จ่าย (หน้า 02-07) -> ผลหน้า 08-Summary
+    @PostMapping("/summary")
+    public ResponseEntity<?> summary(@RequestParam(required = false) Integer year,
+                                     @RequestBody(required = false) TaxRequest req,
+                                     AuthenticatedUser me) {
+        if (me == null)
+            return ResponseEntity.status(401).body("Unauthorized");
+        int y = year == null ? Year.now().getValue() : year;
+        if (!validYear(y))
+            return ResponseEntity.badRequest().body("Invalid year");
+        return ResponseEntity.ok(taxEngine.summarize(me.id(), y, req));
+    }
+
+    private static boolean validYear(int year) {
+        return year >= 1900 && year <= 9999;
+    }
+}
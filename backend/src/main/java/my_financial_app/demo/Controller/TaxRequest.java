@@ -0,0 +1,42 @@
+package my_financial_app.demo.Controller;
+
+import java.math.BigDecimal;
+
+// ข้อมูลจากหน้า wizard ภาษี (ชื่อ field ตรงกับ state ของ TaxWizardModal) ทุกช่องไม่ส่ง = 0
+// รายได้: ไม่ส่ง salaryPerMonth/bonusPerYear/otherIncomePerYear เลย = ใช้ยอด INCOME ของปีจากรายการที่บันทึกไว้
+public class TaxRequest {
+    // รายได้ (override)
+    public BigDecimal salaryPerMonth;
+    public BigDecimal bonusPerYear;
+    public BigDecimal otherIncomePerYear;
+
+    // ครอบครัว: ลดหย่อนคู่สมรส/บุตร/บิดามารดา/ผู้พิการ รวมกันแล้ว (ไม่รวมลดหย่อนส่วนตัว 60,000)
+    public BigDecimal family;
+
+    // กองทุน / สวัสดิการ
+    public BigDecimal pvdPerYear;
+    public BigDecimal socialSecurityPerYear;
+    public BigDecimal mortgageInterestPerYear;
+    public BigDecimal gpfPerYear;
+    public BigDecimal nsoPerYear;
+    public BigDecimal teacherFundPerYear;
+
+    // ประกัน
+    public BigDecimal lifeIns;
+    public BigDecimal healthIns;
+    public BigDecimal parentHealthIns;
+    public BigDecimal annuityLifeIns;
+
+    // บริจาค
+    public BigDecimal donationGeneral;
+    public BigDecimal donationEducation;
+    public BigDecimal donationPolitical;
+
+    // ภาษีที่จ่ายไปแล้ว
+    public BigDecimal withheldSalaryPerYear;
+    public BigDecimal advancedTaxPaid;
+
+    public boolean hasIncomeOverride() {
+        return salaryPerMonth != null || bonusPerYear != null || otherIncomePerYear != null;
+    }
+}
@@ -2,12 +2,16 @@ package my_financial_app.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class DemoApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(DemoApplication.class, args);
+		SpringApplication app = new SpringApplication(DemoApplication.class);
+		// เก็บเวลาของแต่ละขั้นตอนตอน start (Flyway, Hibernate, repository ...) ดูได้ที่ GET /actuator/startup
+		app.setApplicationStartup(new BufferingApplicationStartup(4096));
+		app.run(args);
 	}
 
 }
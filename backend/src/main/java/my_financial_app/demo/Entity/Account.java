@@ -1,19 +1,44 @@
 package my_financial_app.demo.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "accounts")
+@DynamicUpdate // balance ถูกแก้ผ่าน AccountLedger (UPDATE แบบ atomic) ห้ามให้ save() เขียนทับ
+@Table(name = "accounts", indexes = {
+        // listMine: WHERE user_id = ? ORDER BY id DESC, findByIdAndUserId
+        @Index(name = "idx_accounts_user_id", columnList = "user_id, id")
+})
 public class Account {
 
-    public enum AccountType { CASH, BANK, CREDIT_CARD }
+    public enum AccountType {
+        CASH, BANK, CREDIT_CARD;
+
+        // รับทั้งไทย/อังกฤษจาก frontend; ไม่รู้จัก = CASH
+        public static AccountType parse(String raw) {
+            if (raw == null) return CASH;
+            String s = raw.trim().toLowerCase(Locale.ROOT);
+            if (s.equals("เงินสด") || s.equals("cash")) return CASH;
+            if (s.equals("ธนาคาร") || s.equals("bank")) return BANK;
+            if (s.equals("บัตรเครดิต") || s.equals("credit") || s.equals("credit_card") || s.equals("creditcard"))
+                return CREDIT_CARD;
+            return CASH;
+        }
+    }
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -22,11 +47,16 @@ public class Account {
     private String name;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false, length = 30)
     private AccountType type;
 
     @Column(nullable = false, precision = 14, scale = 2)
-    private BigDecimal amount;
+    private BigDecimal amount; // ยอดตั้งต้นที่ผู้ใช้กรอก
+
+    // ยอดคงเหลือปัจจุบัน = amount + รายรับ - รายจ่ายที่ผูกกับบัญชีนี้ (null = แถวเก่า ยังไม่เคยมีรายการ)
+    @Column(precision = 14, scale = 2)
+    private BigDecimal balance;
 
     @Column(length = 60)
     private String iconKey;
@@ -39,6 +69,10 @@ public class Account {
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
+    // ไม่ตั้งชื่อเป็น getter: Spring Data จะมองเป็น attribute userId แล้ว findBy...UserId หาไม่เจอ
+    @JsonProperty("userId")
+    public Long ownerId() { return user != null ? user.getId() : null; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -48,6 +82,9 @@ public class Account {
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
 
+    public BigDecimal getBalance() { return balance != null ? balance : amount; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
     public String getIconKey() { return iconKey; }
     public void setIconKey(String iconKey) { this.iconKey = iconKey; }
 
@@ -3,8 +3,10 @@ package my_financial_app.demo.Entity;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Locale;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -12,25 +14,60 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        // listMine / range / summary / keyset pagination: WHERE user_id = ? ORDER BY occurred_at DESC, id DESC
+        @Index(name = "idx_expenses_user_occurred", columnList = "user_id, occurred_at DESC, id DESC"),
+        @Index(name = "idx_expenses_account", columnList = "account_id"),
+        // rollup รายวันของ StatsEngine: WHERE occurred_at >= ? AND occurred_at < ?
+        @Index(name = "idx_expenses_occurred", columnList = "occurred_at")
+})
 public class Expense {
 
-    public enum EntryType { EXPENSE, INCOME }
+    public enum EntryType {
+        EXPENSE, INCOME;
+
+        // รับทั้งไทย/อังกฤษจาก frontend; ไม่รู้จัก = EXPENSE
+        public static EntryType normalize(String raw) {
+            if (raw == null) return EXPENSE;
+            String s = raw.trim().toLowerCase(Locale.ROOT);
+            if (s.equals("รายได้") || s.equals("income") || s.equals("incomes"))
+                return INCOME;
+            return EXPENSE;
+        }
+    }
+
+    // sequence + pooled optimizer: จอง id ทีละ ID_ALLOCATION ตัว ให้ Hibernate ทำ JDBC batch insert ได้
+    // (IDENTITY ต้อง insert ทีละแถวเพื่อเอา id กลับมา)
+    public static final String ID_SEQUENCE = "expenses_seq";
+    public static final int ID_ALLOCATION = 50;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION)
     private Long id;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR) // varchar เหมือนกันทุก DB (H2 จะสร้างเป็น ENUM ถ้าไม่ระบุ) ตรงกับ migration
     @Column(nullable = false, length = 20)
     private EntryType type;
 
-    @Column(nullable = false, length = 100)
+    // หมวดหมู่ / ช่องทางจ่ายเก็บเป็น id ใน labels (LabelConverter) ภายนอกยังเห็นเป็นชื่อ
+    @Convert(converter = LabelConverter.Category.class)
+    @Column(name = "category_id", nullable = false)
     private String category;
 
     @Column(nullable = false, precision = 14, scale = 2)
@@ -42,29 +79,44 @@ public class Expense {
     @Column(length = 255, nullable = false)
     private String place;
 
-    @Column(length = 100, nullable = false)
+    @Convert(converter = LabelConverter.PaymentMethod.class)
+    @Column(name = "payment_method_id", nullable = false)
     private String paymentMethod;
 
     @Column(length = 60)
     private String iconKey;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // บัญชีที่รายการนี้ตัดยอด (null = ไม่ผูกบัญชี เช่นข้อมูลเก่า)
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
     @Column(nullable = false)
     private LocalDateTime occurredAt;
 
     @Column(nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
+    // optimistic lock: แก้/ลบรายการเดียวกันพร้อมกัน ฝั่งที่ flush ทีหลังล้ม (ไม่ย้อนยอดบัญชีจากค่าเก่าซ้ำ)
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Long getId() { return id; }
 
     public EntryType getType() { return type; }
     public void setType(EntryType type) { this.type = type; }
 
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    // ตัดช่องว่างหัวท้ายเหมือนที่ labels เก็บ: ค่าที่ตอบกลับหลัง save ตรงกับที่อ่านได้ภายหลัง
+    public void setCategory(String category) { this.category = category == null ? null : category.trim(); }
 
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
@@ -76,7 +128,7 @@ public class Expense {
     public void setPlace(String place) { this.place = place; }
 
     public String getPaymentMethod() { return paymentMethod; }
-    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod == null ? null : paymentMethod.trim(); }
 
     public String getIconKey() { return iconKey; }
     public void setIconKey(String iconKey) { this.iconKey = iconKey; }
@@ -84,6 +136,16 @@ public class Expense {
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
+    // ส่งแค่ id ออก JSON (user เป็น lazy proxy) -- getId() บน proxy ไม่ trigger SELECT
+    // ไม่ตั้งชื่อเป็น getter: Spring Data จะมองเป็น attribute userId แล้ว findBy...UserId หาไม่เจอ
+    @JsonProperty("userId")
+    public Long ownerId() { return user != null ? user.getId() : null; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public Long getAccountId() { return account != null ? account.getId() : null; }
+
     public LocalDateTime getOccurredAt() { return occurredAt; }
     public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
 
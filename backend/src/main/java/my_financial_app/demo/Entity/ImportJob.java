@@ -0,0 +1,172 @@
+package my_financial_app.demo.Entity;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// สถานะงาน import หนึ่งไฟล์ เก็บในตาราง import_jobs: replica ไหนก็ตอบ GET /api/expenses/import/{id} ได้
+// worker ของ pod ที่รับไฟล์เป็นคนเดียวที่แก้แถวนี้ บันทึกทุก chunk ใน transaction เดียวกับ chunk นั้น
+// lastCommittedRow = แถวสุดท้าย (นับจากแถวข้อมูลแรกของไฟล์ = 1) ที่ commit แล้ว; งาน FAILED: แถวหลังจากนี้ยังไม่ถูกนำเข้า
+@Entity
+@Table(name = "import_jobs", indexes = {
+        // หมดอายุ: finished_at < ?, ค้าง: finished_at IS NULL AND updated_at < ?
+        @Index(name = "idx_import_jobs_finished", columnList = "finished_at, updated_at")
+})
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private static final int MAX_ERRORS = 20;
+    private static final int MAX_ERROR_TEXT = 4000;
+    private static final int MAX_FILENAME = 255;
+
+    @Id
+    @Column(length = 36)
+    private String id = UUID.randomUUID().toString();
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = MAX_FILENAME)
+    private String filename;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.QUEUED;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    // เวลาที่ worker บันทึกล่าสุด; QUEUED/RUNNING ที่ไม่ขยับนานเกิน job-ttl = pod ที่ทำงานนี้ตายไปแล้ว
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt = createdAt;
+
+    private OffsetDateTime finishedAt;
+
+    @Column(nullable = false)
+    private long totalBytes;
+    @Column(nullable = false)
+    private long bytesRead;
+    @Column(nullable = false)
+    private long rowsRead;
+    @Column(nullable = false)
+    private long rowsImported;
+    @Column(nullable = false)
+    private long rowsSkipped;
+    @Column(nullable = false)
+    private long lastCommittedRow;
+
+    // ข้อความ error ทีละบรรทัด (ไม่เกิน MAX_ERRORS)
+    @Column(name = "errors", length = MAX_ERROR_TEXT)
+    private String errorLog;
+
+    protected ImportJob() {
+    }
+
+    public ImportJob(Long userId, String filename, long totalBytes) {
+        this.userId = userId;
+        this.filename = filename == null || filename.length() <= MAX_FILENAME ? filename : filename.substring(0, MAX_FILENAME);
+        this.totalBytes = totalBytes;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+        touch();
+    }
+
+    public void rowRead() { rowsRead++; }
+
+    public void skipped(String message) {
+        rowsSkipped++;
+        addError(message);
+    }
+
+    // chunk ที่เพิ่ง commit ครอบคลุมถึงแถวที่อ่านล่าสุด
+    public void committed(int rows, long bytes) {
+        rowsImported += rows;
+        lastCommittedRow = rowsRead;
+        bytesRead = bytes;
+        touch();
+    }
+
+    // chunk ไม่ผ่าน: ย้อนตัวนับกลับไปเท่ากับที่อยู่ใน DB
+    public void uncommitted(long rowsImported, long lastCommittedRow) {
+        this.rowsImported = rowsImported;
+        this.lastCommittedRow = lastCommittedRow;
+    }
+
+    public void finish(long bytes) {
+        bytesRead = bytes;
+        status = Status.DONE;
+        finishedAt = OffsetDateTime.now();
+        updatedAt = finishedAt;
+    }
+
+    public void fail(String message) {
+        addError(message);
+        status = Status.FAILED;
+        finishedAt = OffsetDateTime.now();
+        updatedAt = finishedAt;
+    }
+
+    private void touch() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    private void addError(String message) {
+        String line = message == null ? "" : message.replace('\n', ' ');
+        if (errorLog == null) {
+            errorLog = cut(line);
+        } else if (getErrors().size() < MAX_ERRORS && errorLog.length() + 1 + line.length() <= MAX_ERROR_TEXT) {
+            errorLog = errorLog + "\n" + line;
+        }
+    }
+
+    private static String cut(String s) {
+        return s.length() <= MAX_ERROR_TEXT ? s : s.substring(0, MAX_ERROR_TEXT);
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public String getId() { return id; }
+    @JsonIgnore
+    public Long getUserId() { return userId; }
+    public String getFilename() { return filename; }
+    public Status getStatus() { return status; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public OffsetDateTime getFinishedAt() { return finishedAt; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getBytesRead() { return bytesRead; }
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsSkipped() { return rowsSkipped; }
+    public long getLastCommittedRow() { return lastCommittedRow; }
+
+    // 0-100 จากจำนวน byte ที่อ่านแล้ว (อัปเดตทุก chunk)
+    public int getProgress() {
+        if (status == Status.DONE) return 100;
+        if (totalBytes <= 0) return 0;
+        return (int) Math.min(99, bytesRead * 100 / totalBytes);
+    }
+
+    public List<String> getErrors() {
+        return errorLog == null ? List.of() : List.of(errorLog.split("\n", -1));
+    }
+}
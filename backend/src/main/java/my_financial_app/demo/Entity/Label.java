@@ -0,0 +1,51 @@
+package my_financial_app.demo.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+// พจนานุกรมชื่อหมวดหมู่ / ช่องทางจ่าย: expenses เก็บแค่ id (int) แทนข้อความซ้ำ ๆ ทุกแถว
+// แถวถูกเพิ่มอย่างเดียว ไม่แก้/ไม่ลบ (id ของชื่อหนึ่งไม่เปลี่ยน) อ่าน/เพิ่มผ่าน LabelDictionary
+@Entity
+@Table(name = "labels", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_labels_kind_name", columnNames = {"kind", "name"})
+})
+public class Label {
+
+    public enum Kind {
+        CATEGORY, PAYMENT_METHOD
+    }
+
+    // = ความยาวของคอลัมน์ข้อความเดิมใน expenses
+    public static final int MAX_NAME = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false, length = MAX_NAME)
+    private String name;
+
+    protected Label() {
+    }
+
+    public Integer getId() { return id; }
+
+    public Kind getKind() { return kind; }
+
+    public String getName() { return name; }
+}
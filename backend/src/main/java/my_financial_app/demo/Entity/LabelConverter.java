@@ -0,0 +1,58 @@
+package my_financial_app.demo.Entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import my_financial_app.demo.Service.LabelDictionary;
+
+// ฟิลด์ชื่อ (String) ใน entity <-> id ใน labels; entity / JSON / JPQL ยังเห็นเป็นชื่อ แต่คอลัมน์และ GROUP BY เป็น int
+// Hibernate สร้าง converter ผ่าน Spring (ได้ LabelDictionary ตัวเดียวกับแอป)
+// converter ถูกเรียกทั้งตอน flush และตอน bind parameter ของ JPQL: เพิ่มชื่อใหม่ได้เฉพาะใน transaction ที่เขียนได้
+// ที่อื่น (readOnly / ไม่มี transaction) ชื่อที่ไม่มีในตารางกลายเป็น NO_MATCH -> เงื่อนไขไม่ตรงกับแถวไหน
+public abstract class LabelConverter implements AttributeConverter<String, Integer> {
+
+    // labels.id เริ่มที่ 1 จึงไม่มีแถวไหนเป็น 0
+    public static final int NO_MATCH = 0;
+
+    private final LabelDictionary labels;
+    private final Label.Kind kind;
+
+    protected LabelConverter(LabelDictionary labels, Label.Kind kind) {
+        this.labels = labels;
+        this.kind = kind;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        if (name == null) return null;
+        if (writable()) return labels.idOf(kind, name);
+        Integer id = labels.find(kind, name);
+        return id == null ? NO_MATCH : id;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : labels.nameOf(id);
+    }
+
+    private static boolean writable() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Converter
+    public static class Category extends LabelConverter {
+        public Category(LabelDictionary labels) {
+            super(labels, Label.Kind.CATEGORY);
+        }
+    }
+
+    @Converter
+    public static class PaymentMethod extends LabelConverter {
+        public PaymentMethod(LabelDictionary labels) {
+            super(labels, Label.Kind.PAYMENT_METHOD);
+        }
+    }
+}
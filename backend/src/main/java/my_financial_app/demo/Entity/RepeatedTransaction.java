@@ -1,16 +1,73 @@
 package my_financial_app.demo.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 
 @Entity
-@Table(name = "repeated_transactions")
+@Table(name = "repeated_transactions", indexes = {
+        @Index(name = "idx_repeated_user_id", columnList = "user_id, id"),
+        // scheduler: WHERE next_run_date <= today
+        @Index(name = "idx_repeated_next_run", columnList = "next_run_date, id")
+})
 public class RepeatedTransaction {
 
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY;
+
+        // รับทั้งข้อความไทยจาก frontend ("ทุกเดือน") และชื่อ enum; ไม่รู้จัก = null
+        public static Frequency parse(String raw) {
+            if (raw == null) return null;
+            String s = raw.trim().toLowerCase(Locale.ROOT);
+            return switch (s) {
+                case "ทุกวัน", "รายวัน", "daily" -> DAILY;
+                case "ทุกสัปดาห์", "รายสัปดาห์", "weekly" -> WEEKLY;
+                case "ทุกเดือน", "รายเดือน", "monthly" -> MONTHLY;
+                case "ทุกปี", "รายปี", "yearly" -> YEARLY;
+                default -> null;
+            };
+        }
+
+        // ครั้งที่ n นับจาก start (คิดจาก start ทุกครั้ง วันที่ 31 จะไม่เลื่อนไปเรื่อย ๆ)
+        public LocalDate occurrence(LocalDate start, long n) {
+            return switch (this) {
+                case DAILY -> start.plusDays(n);
+                case WEEKLY -> start.plusWeeks(n);
+                case MONTHLY -> start.plusMonths(n);
+                case YEARLY -> start.plusYears(n);
+            };
+        }
+
+        public LocalDate firstOnOrAfter(LocalDate start, LocalDate date) {
+            if (!date.isAfter(start)) return start;
+            long n = switch (this) {
+                case DAILY -> ChronoUnit.DAYS.between(start, date);
+                case WEEKLY -> ChronoUnit.WEEKS.between(start, date);
+                case MONTHLY -> ChronoUnit.MONTHS.between(start, date);
+                case YEARLY -> ChronoUnit.YEARS.between(start, date);
+            };
+            LocalDate d = occurrence(start, n);
+            while (d.isBefore(date)) d = occurrence(start, ++n);
+            return d;
+        }
+    }
+
+    private static final DateTimeFormatter THAI_DATE = DateTimeFormatter.ofPattern("d/M/yyyy");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -21,10 +78,50 @@ public class RepeatedTransaction {
     private String date; // วันที่ (DD/MM/YYYY)
     private String frequency; // ความถี่ (เช่น "ทุกเดือน")
 
+    // --- ค่าที่ parse แล้ว ใช้โดย RecurrenceMaterializer ---
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "frequency_unit", length = 10)
+    private Frequency frequencyUnit;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    // watermark: occurrence ถัดไปที่ยังไม่ได้สร้างเป็น expense (null = หยุด / parse ไม่ได้)
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate;
+
     // Constructors
     public RepeatedTransaction() {
     }
 
+    // ตั้ง date/frequency พร้อมคำนวณค่า typed; occurrence ที่สร้างไปแล้ว (ก่อน nextRunDate เดิม) จะไม่ถูกสร้างซ้ำ
+    public void reschedule(String date, String frequency) {
+        this.date = date;
+        this.frequency = frequency;
+        LocalDate previousWatermark = this.nextRunDate;
+        this.startDate = parseDate(date);
+        this.frequencyUnit = Frequency.parse(frequency);
+        if (startDate == null || frequencyUnit == null) {
+            this.nextRunDate = null;
+            return;
+        }
+        LocalDate from = (previousWatermark != null && previousWatermark.isAfter(startDate))
+                ? previousWatermark : startDate;
+        this.nextRunDate = frequencyUnit.firstOnOrAfter(startDate, from);
+    }
+
+    // "DD/MM/YYYY" (frontend) หรือ "YYYY-MM-DD"
+    public static LocalDate parseDate(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String s = raw.trim();
+        try {
+            return s.contains("/") ? LocalDate.parse(s, THAI_DATE) : LocalDate.parse(s);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -42,6 +139,12 @@ public class RepeatedTransaction {
         this.user = user;
     }
 
+    // ไม่ตั้งชื่อเป็น getter: Spring Data จะมองเป็น attribute userId แล้ว findBy...UserId หาไม่เจอ
+    @JsonProperty("userId")
+    public Long ownerId() {
+        return user != null ? user.getId() : null;
+    }
+
     public String getName() {
         return name;
     }
@@ -81,4 +184,20 @@ public class RepeatedTransaction {
     public void setFrequency(String frequency) {
         this.frequency = frequency;
     }
-}
\ No newline at end of file
+
+    public Frequency getFrequencyUnit() {
+        return frequencyUnit;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getNextRunDate() {
+        return nextRunDate;
+    }
+
+    public void setNextRunDate(LocalDate nextRunDate) {
+        this.nextRunDate = nextRunDate;
+    }
+}
@@ -1,10 +1,18 @@
 package my_financial_app.demo.Entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // ActivityTracker.resync: WHERE last_login >= เที่ยงคืนวันนี้
+        @Index(name = "idx_users_last_login", columnList = "last_login"),
+        // รายการผู้ใช้หน้า admin (UserDirectory): ORDER BY created_at, id / WHERE role = ? ORDER BY created_at, id
+        @Index(name = "idx_users_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_users_role_created", columnList = "role, created_at, id")
+})
 public class User {
 
     @Id
@@ -21,6 +29,7 @@ public class User {
     private String email;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false, length = 20)
     private Role role = Role.USER; // ค่าเริ่มต้น
 
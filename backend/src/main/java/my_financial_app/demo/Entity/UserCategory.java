@@ -0,0 +1,71 @@
+package my_financial_app.demo.Entity;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// หมวดหมู่ที่ผู้ใช้สร้างเอง (หน้า customincome / customoutcome) ชื่ออยู่ใน labels ร่วมกับ expenses.category_id
+@Entity
+@Table(name = "user_categories", uniqueConstraints = {
+        // listMine: WHERE user_id = ? AND type = ? ใช้ prefix ของ unique นี้
+        @UniqueConstraint(name = "uk_user_categories", columnNames = {"user_id", "type", "category_id"})
+})
+public class UserCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Expense.EntryType type;
+
+    @Convert(converter = LabelConverter.Category.class)
+    @Column(name = "category_id", nullable = false)
+    private String name;
+
+    @Column(length = 60)
+    private String iconKey;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    public Long getId() { return id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Expense.EntryType getType() { return type; }
+    public void setType(Expense.EntryType type) { this.type = type; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getIconKey() { return iconKey; }
+    public void setIconKey(String iconKey) { this.iconKey = iconKey; }
+
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+}
@@ -3,11 +3,32 @@ package my_financial_app.demo.Repository;
 import java.util.List;
 import java.util.Optional;
 
+import java.math.BigDecimal;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import my_financial_app.demo.Entity.Account;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    List<Account> findByUserIdOrderByIdDesc(Long userId);
+    // หน้ารายการบัญชี: select เฉพาะคอลัมน์ที่แสดง (ไม่สร้าง entity)
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.AccountView(
+                a.id, a.name, a.type, a.amount, COALESCE(a.balance, a.amount), a.iconKey)
+            FROM Account a
+            WHERE a.user.id = :userId
+            ORDER BY a.id DESC
+            """)
+    List<AccountView> findByUserIdOrderByIdDesc(@Param("userId") Long userId);
     Optional<Account> findByIdAndUserId(Long id, Long userId);
+    Optional<Account> findFirstByUserIdAndNameOrderByIdAsc(Long userId, String name);
+
+    // ปรับยอดแบบ atomic ใน DB (ไม่อ่าน-แก้-เขียน) กัน lost update เมื่อมีหลายรายการพร้อมกัน
+    // ไม่ clear persistence context (entity อื่นใน transaction ยัง managed อยู่); Account ที่ถืออยู่มี balance เก่า
+    // ใครต้องใช้ยอดใหม่ให้ refresh เฉพาะ Account นั้น (AccountLedger.openingAmountChanged)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = COALESCE(a.balance, a.amount) + :delta WHERE a.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,17 @@
+package my_financial_app.demo.Repository;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import my_financial_app.demo.Entity.Account;
+
+// บัญชีที่ส่งให้ frontend; balance = ยอดคงเหลือ (แถวเก่าที่ยังไม่มีรายการ = ยอดตั้งต้น)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountView(Long id, String name, Account.AccountType type, BigDecimal amount,
+                          BigDecimal balance, String iconKey) {
+
+    public static AccountView of(Account a) {
+        return new AccountView(a.getId(), a.getName(), a.getType(), a.getAmount(), a.getBalance(), a.getIconKey());
+    }
+}
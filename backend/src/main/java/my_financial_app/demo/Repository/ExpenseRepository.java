@@ -1,19 +1,170 @@
 package my_financial_app.demo.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
 import my_financial_app.demo.Entity.Expense;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
-    List<Expense> findByUserIdOrderByOccurredAtDesc(Long userId);
+    // หน้ารายการอ่านเป็น ExpenseView (select เฉพาะคอลัมน์ ไม่สร้าง entity); entity ใช้ตอนแก้ไขเท่านั้น
+    String VIEW = """
+            SELECT new my_financial_app.demo.Repository.ExpenseView(
+                e.id, e.type, e.category, e.amount, e.note, e.place, e.paymentMethod, e.iconKey,
+                e.user.id, e.account.id, e.occurredAt)
+            FROM Expense e
+            """;
 
-    List<Expense> findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(
-            Long userId, LocalDateTime start, LocalDateTime end
-    );
+    @Query(VIEW + """
+            WHERE e.user.id = :userId
+            ORDER BY e.occurredAt DESC
+            """)
+    List<ExpenseView> findByUserIdOrderByOccurredAtDesc(@Param("userId") Long userId);
+
+    @Query(VIEW + """
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            ORDER BY e.occurredAt DESC
+            """)
+    List<ExpenseView> findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(@Param("userId") Long userId,
+                                                                            @Param("start") LocalDateTime start,
+                                                                            @Param("end") LocalDateTime end);
 
     java.util.Optional<Expense> findByIdAndUserId(Long id, Long userId);
+
+    // batch update/delete: เอาเฉพาะแถวที่เป็นของ user
+    List<Expense> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // ใช้ก่อนลบบัญชี: รายการเดิมยังอยู่แต่ไม่ผูกบัญชีแล้ว
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.account = null WHERE e.account.id = :accountId")
+    int detachAccount(@Param("accountId") Long accountId);
+
+    // --- Keyset pagination บน (occurredAt, id) ใช้ index idx_expenses_user_occurred ---
+
+    @Query(VIEW + """
+            WHERE e.user.id = :userId
+            ORDER BY e.occurredAt DESC, e.id DESC
+            """)
+    List<ExpenseView> findByUserIdOrderByOccurredAtDescIdDesc(@Param("userId") Long userId, Pageable page);
+
+    @Query(VIEW + """
+            WHERE e.user.id = :userId
+              AND (e.occurredAt < :at OR (e.occurredAt = :at AND e.id < :id))
+            ORDER BY e.occurredAt DESC, e.id DESC
+            """)
+    List<ExpenseView> findPageAfter(@Param("userId") Long userId,
+                                    @Param("at") LocalDateTime at,
+                                    @Param("id") Long id,
+                                    Pageable page);
+
+    @Query(VIEW + """
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            ORDER BY e.occurredAt DESC, e.id DESC
+            """)
+    List<ExpenseView> findByUserIdAndOccurredAtBetweenOrderByOccurredAtDescIdDesc(@Param("userId") Long userId,
+                                                                                  @Param("start") LocalDateTime start,
+                                                                                  @Param("end") LocalDateTime end,
+                                                                                  Pageable page);
+
+    @Query(VIEW + """
+            WHERE e.user.id = :userId
+              AND e.occurredAt BETWEEN :start AND :end
+              AND (e.occurredAt < :at OR (e.occurredAt = :at AND e.id < :id))
+            ORDER BY e.occurredAt DESC, e.id DESC
+            """)
+    List<ExpenseView> findRangePageAfter(@Param("userId") Long userId,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("at") LocalDateTime at,
+                                         @Param("id") Long id,
+                                         Pageable page);
+
+    // --- Export: keyset ทีละหน้าใน [start, end] ถัดจาก (at, id); หน้าแรกส่ง at = end, id = Long.MAX_VALUE ---
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(VIEW + """
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+              AND (e.occurredAt < :at OR (e.occurredAt = :at AND e.id < :id))
+            ORDER BY e.occurredAt DESC, e.id DESC
+            """)
+    List<ExpenseView> findExportPageAfter(@Param("userId") Long userId,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("at") LocalDateTime at,
+                                          @Param("id") Long id,
+                                          Pageable page);
+
+    // --- Aggregates (ส่งกลับเฉพาะยอดรวม ไม่ดึงทุกแถว) ---
+
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.ExpenseTotal(
+                CAST(e.occurredAt AS LocalDate), e.type, SUM(e.amount), COUNT(e))
+            FROM Expense e
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            GROUP BY CAST(e.occurredAt AS LocalDate), e.type
+            ORDER BY CAST(e.occurredAt AS LocalDate)
+            """)
+    List<ExpenseTotal> sumByDay(@Param("userId") Long userId,
+                                @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
+
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.ExpenseTotal(
+                YEAR(e.occurredAt), MONTH(e.occurredAt), e.type, SUM(e.amount), COUNT(e))
+            FROM Expense e
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            GROUP BY YEAR(e.occurredAt), MONTH(e.occurredAt), e.type
+            ORDER BY YEAR(e.occurredAt), MONTH(e.occurredAt)
+            """)
+    List<ExpenseTotal> sumByMonth(@Param("userId") Long userId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.ExpenseTotal(
+                e.category, e.type, SUM(e.amount), COUNT(e))
+            FROM Expense e
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            GROUP BY e.category, e.type
+            ORDER BY SUM(e.amount) DESC
+            """)
+    List<ExpenseTotal> sumByCategory(@Param("userId") Long userId,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
+
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.ExpenseTotal(
+                e.paymentMethod, e.type, SUM(e.amount), COUNT(e))
+            FROM Expense e
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            GROUP BY e.paymentMethod, e.type
+            ORDER BY SUM(e.amount) DESC
+            """)
+    List<ExpenseTotal> sumByPaymentMethod(@Param("userId") Long userId,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.ExpenseTotal(
+                e.type, SUM(e.amount), COUNT(e))
+            FROM Expense e
+            WHERE e.user.id = :userId AND e.occurredAt BETWEEN :start AND :end
+            GROUP BY e.type
+            """)
+    List<ExpenseTotal> sumByType(@Param("userId") Long userId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
 }
@@ -0,0 +1,26 @@
+package my_financial_app.demo.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import my_financial_app.demo.Entity.Expense;
+
+// ผลรวมต่อ bucket (วัน / เดือน / หมวดหมู่ / ช่องทางจ่าย / ประเภท) จาก query แบบ GROUP BY
+public record ExpenseTotal(String key, Expense.EntryType type, BigDecimal total, Long count) {
+
+    // group by วัน -> key = "2025-01-05"
+    public ExpenseTotal(LocalDate day, Expense.EntryType type, BigDecimal total, Long count) {
+        this(day == null ? null : day.toString(), type, total, count);
+    }
+
+    // group by เดือน -> key = "2025-01"
+    public ExpenseTotal(Integer year, Integer month, Expense.EntryType type, BigDecimal total, Long count) {
+        this(YearMonth.of(year, month).toString(), type, total, count);
+    }
+
+    // group by ประเภทอย่างเดียว -> key = "INCOME" | "EXPENSE"
+    public ExpenseTotal(Expense.EntryType type, BigDecimal total, Long count) {
+        this(type == null ? null : type.name(), type, total, count);
+    }
+}
@@ -0,0 +1,23 @@
+package my_financial_app.demo.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import my_financial_app.demo.Entity.Expense;
+
+// แถวรายการที่ส่งให้ frontend: select เฉพาะคอลัมน์ที่หน้าจอใช้ (ไม่สร้าง entity / ไม่มี persistence context ถือไว้)
+// userId / accountId มาจาก FK ตรง ๆ ไม่ join; ค่า null ไม่ส่ง (note / iconKey / accountId ว่างบ่อย)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseView(Long id, Expense.EntryType type, String category, BigDecimal amount,
+                          String note, String place, String paymentMethod, String iconKey,
+                          Long userId, Long accountId, LocalDateTime occurredAt) {
+
+    // หลัง save / แก้ไข: entity ที่มีอยู่แล้วในมือ
+    public static ExpenseView of(Expense e) {
+        return new ExpenseView(e.getId(), e.getType(), e.getCategory(), e.getAmount(),
+                e.getNote(), e.getPlace(), e.getPaymentMethod(), e.getIconKey(),
+                e.ownerId(), e.getAccountId(), e.getOccurredAt());
+    }
+}
@@ -0,0 +1,36 @@
+package my_financial_app.demo.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import my_financial_app.demo.Entity.ImportJob;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+    Optional<ImportJob> findByIdAndUserId(String id, Long userId);
+
+    // งานที่จบแล้วเกิน job-ttl (idx_import_jobs_finished)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImportJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") OffsetDateTime cutoff);
+
+    // pod ที่รับงานตายกลางทาง: ยังไม่จบ (finishedAt IS NULL) และไม่มีใครบันทึกต่อตั้งแต่ cutoff (idx_import_jobs_finished)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ImportJob j SET j.status = :failed, j.finishedAt = :now, j.updatedAt = :now
+            WHERE j.finishedAt IS NULL AND j.updatedAt < :cutoff""")
+    int markAbandoned(@Param("failed") ImportJob.Status failed,
+                      @Param("cutoff") OffsetDateTime cutoff,
+                      @Param("now") OffsetDateTime now);
+
+    default int failAbandoned(OffsetDateTime cutoff) {
+        return markAbandoned(ImportJob.Status.FAILED, cutoff, OffsetDateTime.now());
+    }
+}
@@ -1,16 +1,55 @@
 package my_financial_app.demo.Repository;
 
 import my_financial_app.demo.Entity.RepeatedTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface RepeatedTransactionRepository extends JpaRepository<RepeatedTransaction, Long> {
 
-    // ค้นหารายการทั้งหมดของ User ที่ Login อยู่
-    List<RepeatedTransaction> findByUserId(Long userId);
+    // ค้นหารายการทั้งหมดของ User ที่ Login อยู่ (select เฉพาะคอลัมน์ที่แสดง)
+    @Query("""
+            SELECT new my_financial_app.demo.Repository.RepeatedTransactionView(
+                r.id, r.name, r.account, r.amount, r.date, r.frequency)
+            FROM RepeatedTransaction r
+            WHERE r.user.id = :userId
+            ORDER BY r.id
+            """)
+    List<RepeatedTransactionView> findByUserId(@Param("userId") Long userId);
 
     // ค้นหารายการเดียว (สำหรับ Update/Delete)
     Optional<RepeatedTransaction> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+
+    // --- Scheduler ---
+
+    // id ของกฎที่ถึงกำหนด (keyset ตาม id เพื่อแบ่ง batch)
+    @Query("""
+            SELECT r.id FROM RepeatedTransaction r
+            WHERE r.nextRunDate <= :today AND r.id > :afterId
+            ORDER BY r.id
+            """)
+    List<Long> findDueIds(@Param("today") LocalDate today, @Param("afterId") Long afterId, Pageable page);
+
+    // แถวเก่าที่มีแต่ date/frequency แบบข้อความ ยังไม่เคยเติมค่า typed (next_run_date IS NULL ใช้ idx_repeated_next_run)
+    @Query("""
+            SELECT r FROM RepeatedTransaction r
+            WHERE r.nextRunDate IS NULL AND r.startDate IS NULL AND r.date IS NOT NULL
+            """)
+    List<RepeatedTransaction> findUnscheduledLegacy();
+
+    // เลื่อน watermark แบบ compare-and-set: ถ้ามี worker อื่นเลื่อนไปก่อนแล้วจะได้ 0
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE RepeatedTransaction r SET r.nextRunDate = :next
+            WHERE r.id = :id AND r.nextRunDate = :expected
+            """)
+    int advanceWatermark(@Param("id") Long id,
+                         @Param("expected") LocalDate expected,
+                         @Param("next") LocalDate next);
+}
@@ -0,0 +1,18 @@
+package my_financial_app.demo.Repository;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import my_financial_app.demo.Entity.RepeatedTransaction;
+
+// กฎรายการซ้ำที่ส่งให้ frontend: เฉพาะค่าที่ผู้ใช้กรอก (ค่าที่ parse แล้วของ scheduler ไม่ส่ง)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RepeatedTransactionView(Long id, String name, String account, BigDecimal amount,
+                                      String date, String frequency) {
+
+    public static RepeatedTransactionView of(RepeatedTransaction r) {
+        return new RepeatedTransactionView(r.getId(), r.getName(), r.getAccount(), r.getAmount(),
+                r.getDate(), r.getFrequency());
+    }
+}
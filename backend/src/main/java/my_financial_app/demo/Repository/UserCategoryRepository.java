@@ -0,0 +1,17 @@
+package my_financial_app.demo.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.UserCategory;
+
+public interface UserCategoryRepository extends JpaRepository<UserCategory, Long> {
+    List<UserCategory> findByUserIdAndTypeOrderByIdAsc(Long userId, Expense.EntryType type);
+    Optional<UserCategory> findByIdAndUserId(Long id, Long userId);
+
+    // name แปลงเป็น category_id ก่อนเทียบ (LabelConverter)
+    Optional<UserCategory> findByUserIdAndTypeAndName(Long userId, Expense.EntryType type, String name);
+}
@@ -2,9 +2,13 @@ package my_financial_app.demo.Repository;
 
 import my_financial_app.demo.Entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -21,10 +25,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    // --- Updates ---
+    // rehash ตอน login: UPDATE เฉพาะคอลัมน์ password (ไม่ merge ทั้ง entity)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     // --- Stats ---
     @Query("SELECT COUNT(u) FROM User u")
     long countTotalUsers();
 
-    @Query("SELECT COUNT(u) FROM User u WHERE u.lastLogin IS NOT NULL AND u.lastLogin >= CURRENT_DATE")
-    long countActiveUsersToday();
+    // ผู้ใช้ที่สมัครในช่วง [from, to) ใช้ idx_users_created_at
+    @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :from AND u.createdAt < :to")
+    long countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,10 @@
+package my_financial_app.demo.Repository;
+
+import java.time.LocalDateTime;
+
+import my_financial_app.demo.Entity.Role;
+
+// แถวของรายการผู้ใช้ฝั่ง admin: select เฉพาะคอลัมน์ที่แสดง (ไม่โหลด entity / password)
+public record UserSummary(Long id, String username, String email, Role role,
+                          LocalDateTime createdAt, LocalDateTime lastLogin) {
+}
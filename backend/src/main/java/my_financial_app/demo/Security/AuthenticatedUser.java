@@ -0,0 +1,18 @@
+package my_financial_app.demo.Security;
+
+import java.io.Serializable;
+
+import my_financial_app.demo.Entity.Role;
+import my_financial_app.demo.Entity.User;
+
+// ข้อมูลผู้ใช้ที่ login อยู่ เก็บไว้ใน session ครั้งเดียว ไม่ต้อง SELECT users ทุก request
+public record AuthenticatedUser(Long id, String username, Role role) implements Serializable {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+}
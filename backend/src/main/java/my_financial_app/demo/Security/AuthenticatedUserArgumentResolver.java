@@ -0,0 +1,99 @@
+package my_financial_app.demo.Security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.ActivityTracker;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// แปลง session -> AuthenticatedUser ให้ controller (null = ยังไม่ login)
+// lookup DB แค่ครั้งแรกของ session แล้ว cache ไว้ใน attribute "authUser"
+// - cache อยู่จน session หมดอายุ / logout (invalidate ทั้ง session): role หรือ username ที่แก้ตรงใน DB
+//   (ยังไม่มี endpoint แก้) มีผลเมื่อ login ใหม่; user ที่ถูกลบยังใช้ session เดิมได้จนกว่า session จะหมดอายุ
+// - ถ้าเพิ่ม endpoint แก้ role/username ต้องเขียน attribute นี้ใหม่ (remember) ใน session ของคนนั้นด้วย
+// ทุก request ที่ login อยู่แจ้ง ActivityTracker (เวลาใช้งานล่าสุด / active users) ไม่มี query เพิ่ม
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String USERNAME_ATTR = "username";
+    public static final String AUTH_USER_ATTR = "authUser";
+    public static final String RESOLVE_METRIC = "auth.session.resolve";
+
+    private final UserRepository userRepo;
+    private final ActivityTracker activityTracker;
+
+    public AuthenticatedUserArgumentResolver(UserRepository userRepo, ActivityTracker activityTracker) {
+        this.userRepo = userRepo;
+        this.activityTracker = activityTracker;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        return request == null ? null : resolve(request);
+    }
+
+    // จับเวลาไว้ใน auth.session.resolve{outcome=anonymous|cached|loaded|unknown}
+    // (ใช้ global registry: WebMvcTest ไม่มี MeterRegistry bean)
+    public AuthenticatedUser resolve(HttpServletRequest request) {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String[] outcome = {"anonymous"};
+        try {
+            AuthenticatedUser user = resolve(request, outcome);
+            if (user != null) activityTracker.touch(user.id());
+            return user;
+        } finally {
+            sample.stop(Metrics.timer(RESOLVE_METRIC, "outcome", outcome[0]));
+        }
+    }
+
+    private AuthenticatedUser resolve(HttpServletRequest request, String[] outcome) {
+        HttpSession session = request.getSession(false);
+        if (session == null) return null;
+
+        Object username = session.getAttribute(USERNAME_ATTR);
+        if (username == null || username.toString().isBlank()) return null;
+
+        // cache ใช้ได้เฉพาะเมื่อยังเป็น username เดียวกับที่อยู่ใน session
+        if (session.getAttribute(AUTH_USER_ATTR) instanceof AuthenticatedUser cached
+                && cached.username().equals(username.toString())) {
+            outcome[0] = "cached";
+            return cached;
+        }
+
+        User user = userRepo.findByUsername(username.toString()).orElse(null);
+        if (user == null) {
+            outcome[0] = "unknown";
+            session.removeAttribute(AUTH_USER_ATTR);
+            return null;
+        }
+        outcome[0] = "loaded";
+        AuthenticatedUser resolved = AuthenticatedUser.of(user);
+        session.setAttribute(AUTH_USER_ATTR, resolved);
+        return resolved;
+    }
+
+    // เรียกตอน login เพื่อเขียนทับ cache ใน session
+    public static void remember(HttpSession session, User user) {
+        session.setAttribute(USERNAME_ATTR, user.getUsername());
+        session.setAttribute(AUTH_USER_ATTR, AuthenticatedUser.of(user));
+    }
+}
@@ -0,0 +1,93 @@
+package my_financial_app.demo.Security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+
+// จำกัดจำนวนครั้งที่พยายาม login ต่อ identifier (username/email) แบบ sliding window
+// - นับแบบ sliding window counter: ช่องปัจจุบัน + ช่องก่อนหน้าถ่วงตามเวลาที่เหลื่อม (ไม่ต้องเก็บ timestamp ทุกครั้ง)
+// - state ต่อ key เป็น record ที่เปลี่ยนด้วย compareAndSet ไม่มี lock; ครั้งที่ถูกปฏิเสธไม่ถูกนับเพิ่ม
+// - key ที่เงียบเกินสอง window ถูกลบทิ้งทุก window (identifier สุ่มจาก credential stuffing ไม่ค้างใน heap)
+// - ตัวนับอยู่ใน memory ของ pod นี้: request ที่ load balancer กระจายไป N replica ได้ถึง max-attempts x N ครั้งต่อ window
+//   (deploy.yaml จึงหาร max-attempts ด้วยจำนวน replica)
+@Component
+public class LoginRateLimiter {
+
+    public static final String REJECTED_METRIC = "auth.login.throttled";
+
+    // windowStart = ns ต้นช่องปัจจุบัน
+    private record Window(long windowStart, int previous, int current) {
+    }
+
+    private final int maxAttempts;
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginRateLimiter(@Value("${app.security.login.max-attempts:10}") int maxAttempts,
+                            @Value("${app.security.login.window:PT1M}") Duration window) {
+        this(maxAttempts, window, System::nanoTime);
+    }
+
+    // clock = เวลาแบบ nanoTime (test ส่ง clock ปลอมมาได้)
+    public LoginRateLimiter(int maxAttempts, Duration window, LongSupplier clock) {
+        this.maxAttempts = maxAttempts;
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    // true = ให้ลองได้ (และนับครั้งนี้แล้ว)
+    public boolean tryAcquire(String identifier) {
+        String key = identifier.trim().toLowerCase(Locale.ROOT);
+        AtomicReference<Window> ref = windows.computeIfAbsent(key, k -> new AtomicReference<>(new Window(clock.getAsLong(), 0, 0)));
+        while (true) {
+            Window seen = ref.get();
+            long now = clock.getAsLong();
+            Window w = roll(seen, now);
+            double weight = 1.0 - (double) (now - w.windowStart()) / windowNanos;
+            if (w.previous() * weight + w.current() >= maxAttempts) {
+                Metrics.counter(REJECTED_METRIC).increment();
+                return false;
+            }
+            if (ref.compareAndSet(seen, new Window(w.windowStart(), w.previous(), w.current() + 1))) return true;
+        }
+    }
+
+    // login สำเร็จ: ไม่ต้องนับครั้งก่อนหน้าของ identifier นี้อีก
+    public void reset(String identifier) {
+        windows.remove(identifier.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // เลื่อนช่องให้ตรงกับเวลาปัจจุบัน (ช่องเดิม = คืน object เดิม)
+    private Window roll(Window w, long now) {
+        long elapsed = now - w.windowStart();
+        if (elapsed < windowNanos) return w;
+        long passed = elapsed / windowNanos;
+        return new Window(w.windowStart() + passed * windowNanos, passed == 1 ? w.current() : 0, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login.window:PT1M}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        windows.values().removeIf(ref -> now - ref.get().windowStart() >= 2 * windowNanos);
+    }
+
+    // ค่า Retry-After โดยประมาณ = ความยาว window (ช่องก่อนหน้ายังถ่วงอยู่บ้าง จึงอาจโดนอีกรอบถ้ายิงรัวต่อ)
+    public long retryAfterSeconds() {
+        return Math.max(1, Duration.ofNanos(windowNanos).toSeconds());
+    }
+
+    public int trackedKeys() {
+        return windows.size();
+    }
+}
@@ -0,0 +1,101 @@
+package my_financial_app.demo.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import my_financial_app.demo.Config.WorkerThreads;
+
+// รหัสผ่านใน users.password เป็น BCrypt (cost = app.security.bcrypt.strength)
+// - BCrypt กิน CPU ล้วน: hash/verify วิ่งบน pool ขนาดคงที่ (ค่าเริ่มต้น = จำนวน core) + คิวจำกัด
+//   login พร้อมกันเกิน pool + คิว -> RejectedExecutionException (controller ตอบ 429) แทนการแย่ง CPU กับ request อื่น
+// - แถวเก่าที่ยังเป็น plaintext login ได้ตามเดิม แล้วถูก hash ใหม่ตอน login สำเร็จ (needsRehash)
+// - hash ที่ cost ต่ำกว่าค่าปัจจุบันก็ถูก hash ใหม่ตอน login เช่นกัน (ปรับ cost ได้โดยไม่ต้อง migrate)
+@Component
+public class PasswordHasher {
+
+    public static final String VERIFY_METRIC = "auth.password.verify";
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutNanos;
+
+    public PasswordHasher(@Value("${app.security.bcrypt.strength:10}") int strength,
+                          @Value("${app.security.bcrypt.workers:0}") int workers,
+                          @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.security.bcrypt.timeout:PT5S}") Duration timeout) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutNanos = timeout.toNanos();
+
+        // งาน CPU ล้วน -> platform thread เสมอ (virtual thread ไม่ช่วยและจะไปแย่ง carrier)
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.factory("bcrypt", false));
+    }
+
+    public String hash(String raw) {
+        return call(() -> encoder.encode(raw));
+    }
+
+    public boolean verify(String raw, String stored) {
+        if (raw == null || stored == null) return false;
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        boolean hashed = isHashed(stored);
+        boolean ok = hashed
+                ? call(() -> encoder.matches(raw, stored))
+                : MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        sample.stop(Metrics.timer(VERIFY_METRIC,
+                "scheme", hashed ? "bcrypt" : "plain",
+                "outcome", ok ? "match" : "mismatch"));
+        return ok;
+    }
+
+    // plaintext เดิม หรือ cost ต่ำกว่าที่ตั้งไว้
+    public boolean needsRehash(String stored) {
+        return stored == null || !isHashed(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    static boolean isHashed(String stored) {
+        return BCRYPT.matcher(stored).matches();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> f = pool.submit(task);   // คิวเต็ม -> RejectedExecutionException
+        try {
+            return f.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            f.cancel(true);
+            throw new RejectedExecutionException("Password hashing timed out", ex);
+        } catch (InterruptedException ex) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
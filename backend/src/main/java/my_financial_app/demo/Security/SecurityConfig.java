@@ -2,6 +2,8 @@ package my_financial_app.demo.Security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -11,6 +13,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -21,13 +24,16 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticatedUserArgumentResolver users) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
                 // ถ้าอยากระบุชัด ๆ
                 .requestMatchers("/h2-console/**").permitAll()
+                // probe ของ k8s ไม่มี session; ที่เหลือของ actuator (metrics, prometheus, startup) ให้ ADMIN เท่านั้น
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").access(adminSession(users))
                 .anyRequest().permitAll()
             )
             // 👇 สำคัญ: อนุญาตให้ H2 Console ฝังใน iframe ของโดเมนเดียวกัน
@@ -35,6 +41,15 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    // login ของแอปอยู่ใน session (AuthenticatedUserArgumentResolver) ไม่ใช่ Authentication ของ Spring Security
+    // จึงใช้ hasRole("ADMIN") ตรง ๆ ไม่ได้: ตรวจ role จาก session แทน (ไม่ใช่ ADMIN = 403)
+    private static AuthorizationManager<RequestAuthorizationContext> adminSession(AuthenticatedUserArgumentResolver users) {
+        return (authentication, context) -> {
+            AuthenticatedUser me = users.resolve(context.getRequest());
+            return new AuthorizationDecision(me != null && me.isAdmin());
+        };
+    }
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -44,6 +59,7 @@ public class SecurityConfig {
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,95 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+
+// ดูแลยอดคงเหลือของบัญชี (accounts.balance) ให้ตรงกับรายการ expenses ที่ผูกอยู่
+// ทุกครั้งที่สร้าง/แก้/ลบรายการ จะปรับยอดด้วย UPDATE เดียวต่อบัญชี ไม่ต้องคำนวณจากประวัติทั้งหมด
+@Service
+public class AccountLedger {
+
+    // ผลของรายการหนึ่งต่อบัญชี (ใช้เก็บค่าก่อนแก้ไข)
+    public record Posting(Long accountId, BigDecimal delta) {}
+
+    private final AccountRepository accounts;
+    private final ExpenseRepository expenses;
+    private final EntityManager em;
+
+    public AccountLedger(AccountRepository accounts, ExpenseRepository expenses, EntityManager em) {
+        this.accounts = accounts;
+        this.expenses = expenses;
+        this.em = em;
+    }
+
+    // accountId มาก่อน ถ้าไม่ส่งมาให้จับคู่ชื่อบัญชีกับ paymentMethod
+    public Account resolveAccount(Long userId, Long accountId, String paymentMethod) {
+        if (accountId != null) return accounts.findByIdAndUserId(accountId, userId).orElse(null);
+        if (paymentMethod == null || paymentMethod.isBlank()) return null;
+        return accounts.findFirstByUserIdAndNameOrderByIdAsc(userId, paymentMethod.trim()).orElse(null);
+    }
+
+    public Posting postingOf(Expense e) {
+        if (e == null || e.getAccount() == null || e.getAmount() == null) return null;
+        return new Posting(e.getAccount().getId(), signed(e.getType(), e.getAmount()));
+    }
+
+    @Transactional
+    public void created(Expense e) {
+        post(null, postingOf(e));
+    }
+
+    @Transactional
+    public void updated(Posting before, Expense after) {
+        post(before, postingOf(after));
+    }
+
+    @Transactional
+    public void deleted(Expense e) {
+        post(postingOf(e), null);
+    }
+
+    @Transactional
+    public void post(Posting reverse, Posting apply) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        if (reverse != null) deltas.merge(reverse.accountId(), reverse.delta().negate(), BigDecimal::add);
+        if (apply != null) deltas.merge(apply.accountId(), apply.delta(), BigDecimal::add);
+        post(deltas);
+    }
+
+    // รวมยอดต่อบัญชีก่อน แล้วค่อย UPDATE (batch import ใช้ทางนี้)
+    @Transactional
+    public void post(Map<Long, BigDecimal> deltas) {
+        deltas.forEach((accountId, delta) -> {
+            if (accountId != null && delta.signum() != 0) accounts.addToBalance(accountId, delta);
+        });
+    }
+
+    // เลื่อนยอดคงเหลือด้วยส่วนต่างของยอดตั้งต้น แล้วอ่าน account กลับจาก DB (ได้ยอดที่รวมรายการของ transaction อื่นด้วย)
+    @Transactional
+    public void openingAmountChanged(Account account, BigDecimal oldAmount) {
+        BigDecimal delta = account.getAmount().subtract(oldAmount);
+        if (delta.signum() == 0) return;
+        accounts.addToBalance(account.getId(), delta);
+        em.refresh(account);
+    }
+
+    @Transactional
+    public void detachAccount(Long accountId) {
+        expenses.detachAccount(accountId);
+    }
+
+    public static BigDecimal signed(Expense.EntryType type, BigDecimal amount) {
+        return type == Expense.EntryType.INCOME ? amount : amount.negate();
+    }
+}
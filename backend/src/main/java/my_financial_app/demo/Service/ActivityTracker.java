@@ -0,0 +1,130 @@
+package my_financial_app.demo.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+
+// เวลาใช้งานล่าสุดของผู้ใช้ (login + request ที่ login อยู่) เก็บใน memory แล้วเขียน users.last_login แบบ write-behind
+// - pending: userId -> เวลาล่าสุดที่ยังไม่ได้เขียน; flush() ส่งทั้งหมดเป็น JDBC batch เดียวทุก flush-interval และตอนปิด
+//   (ConcurrentHashMap ล็อกแยกราย bin: request ของต่างคนไม่แย่งกัน)
+// - seen: userId -> เวลาใช้งานล่าสุดที่รู้ของวันนี้ ใช้นับ active users โดยไม่ query
+//   resync() ดึงของ replica อื่นจาก DB มารวมทุก resync-interval และทิ้งของเมื่อวาน
+// - touch() จาก request ถูกนับลง pending ไม่เกินครั้งละ touch-interval ต่อคน (login บันทึกเสมอ)
+// - UPDATE ไม่ทับค่าที่ใหม่กว่า: หลาย replica flush สลับลำดับกันได้
+// - process ตายก่อน flush = เวลาของช่วงนั้นหาย (ไม่กระทบการใช้งาน)
+@Service
+public class ActivityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityTracker.class);
+
+    public static final String FLUSHED_METRIC = "activity.flushed";
+
+    private static final String UPDATE = "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private static final BinaryOperator<LocalDateTime> LATEST = (a, b) -> a.isAfter(b) ? a : b;
+
+    private final JdbcTemplate jdbc;
+    private final Duration touchInterval;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LocalDateTime> seen = new ConcurrentHashMap<>();
+
+    public ActivityTracker(JdbcTemplate jdbc,
+                           @Value("${app.activity.touch-interval:PT1M}") Duration touchInterval) {
+        this.jdbc = jdbc;
+        this.touchInterval = touchInterval;
+    }
+
+    // login: บันทึกเสมอ
+    public void record(Long userId, LocalDateTime at) {
+        if (userId == null || at == null) return;
+        seen.merge(userId, at, LATEST);
+        pending.merge(userId, at, LATEST);
+    }
+
+    // request ที่ login อยู่: ข้ามถ้าเพิ่งบันทึกคนนี้ไปไม่ถึง touch-interval
+    public void touch(Long userId) {
+        if (userId == null) return;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime last = seen.get(userId);
+        if (last != null && last.plus(touchInterval).isAfter(now)) return;
+        record(userId, now);
+    }
+
+    // ผู้ใช้ที่ใช้งานตั้งแต่เที่ยงคืนวันนี้ (ของ replica อื่นช้าได้ไม่เกิน resync-interval)
+    public long activeUsersToday() {
+        LocalDateTime midnight = LocalDate.now().atStartOfDay();
+        return seen.values().stream().filter(t -> !t.isBefore(midnight)).count();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // คืนจำนวนแถวที่ส่งไป
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval:PT5S}",
+               initialDelayString = "${app.activity.flush-interval:PT5S}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) return 0;
+
+        // remove(key, value): ถ้ามีเวลาใหม่เข้ามาระหว่างนี้ ค่าใหม่ยังค้างรอรอบหน้า
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<Long, LocalDateTime> e : pending.entrySet()) {
+            if (pending.remove(e.getKey(), e.getValue())) {
+                Timestamp at = Timestamp.valueOf(e.getValue());
+                batch.add(new Object[]{at, e.getKey(), at});
+            }
+        }
+        if (batch.isEmpty()) return 0;
+
+        try {
+            jdbc.batchUpdate(UPDATE, batch);
+            Metrics.counter(FLUSHED_METRIC).increment(batch.size());
+        } catch (RuntimeException e) {
+            // DB ล่ม: ใส่กลับไว้ลองรอบหน้า (merge กันทับค่าที่ใหม่กว่า)
+            for (Object[] row : batch) {
+                pending.merge((Long) row[1], ((Timestamp) row[0]).toLocalDateTime(), LATEST);
+            }
+            log.warn("flush last_login failed ({} users), will retry: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+        return batch.size();
+    }
+
+    // รวมเวลาที่ replica อื่นเขียนไว้ (ใช้ idx_users_last_login) และทิ้งของก่อนวันนี้
+    // รอบแรกตอน start: active users ไม่เริ่มจาก 0 หลัง deploy
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.activity.resync-interval:PT5M}",
+               initialDelayString = "${app.activity.resync-interval:PT5M}")
+    public void resync() {
+        LocalDateTime midnight = LocalDate.now().atStartOfDay();
+        seen.values().removeIf(t -> t.isBefore(midnight));
+        jdbc.query("SELECT id, last_login FROM users WHERE last_login >= ?",
+                rs -> {
+                    seen.merge(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), LATEST);
+                },
+                Timestamp.valueOf(midnight));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,153 @@
+package my_financial_app.demo.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// CSV แบบ RFC 4180 (รองรับ "..." , "" และขึ้นบรรทัดใหม่ใน quote) อ่านทีละ record
+// แถวแรกเป็น header; จับคู่คอลัมน์จากชื่อ (ไทย/อังกฤษ) ไม่สนลำดับ
+class CsvStatementReader implements StatementReader {
+
+    private static final int MAX_FIELD_CHARS = 64 * 1024;
+
+    private enum Column { DATE, AMOUNT, DEBIT, CREDIT, TYPE, CATEGORY, NOTE, PLACE, PAYMENT_METHOD }
+
+    private static final Map<String, Column> HEADER_ALIASES = new HashMap<>();
+    static {
+        alias(Column.DATE, "date", "occurredat", "occurred_at", "transaction date", "วันที่", "วันที่ทำรายการ");
+        alias(Column.AMOUNT, "amount", "จำนวนเงิน", "จำนวน", "ยอดเงิน");
+        alias(Column.DEBIT, "debit", "withdrawal", "ถอน", "ถอนเงิน", "จ่าย");
+        alias(Column.CREDIT, "credit", "deposit", "ฝาก", "ฝากเงิน", "รับ");
+        alias(Column.TYPE, "type", "ประเภท");
+        alias(Column.CATEGORY, "category", "หมวดหมู่", "หมวด");
+        alias(Column.NOTE, "note", "description", "memo", "details", "รายละเอียด", "บันทึก", "หมายเหตุ");
+        alias(Column.PLACE, "place", "สถานที่");
+        alias(Column.PAYMENT_METHOD, "paymentmethod", "payment_method", "payment method", "account", "ช่องทาง", "บัญชี");
+    }
+
+    private static void alias(Column c, String... names) {
+        for (String n : names) HEADER_ALIASES.put(n, c);
+    }
+
+    private final BufferedReader in;
+    private Map<Column, Integer> columns;
+    private long rowNo;
+
+    CsvStatementReader(Reader in) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (columns == null) readHeader();
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) return null;
+        } while (fields.size() == 1 && fields.get(0).isBlank()); // ข้ามบรรทัดว่าง
+        rowNo++;
+
+        try {
+            BigDecimal amount;
+            if (columns.containsKey(Column.AMOUNT)) {
+                amount = StatementRow.parseAmount(get(fields, Column.AMOUNT));
+            } else {
+                String debit = get(fields, Column.DEBIT);
+                String credit = get(fields, Column.CREDIT);
+                amount = BigDecimal.ZERO;
+                if (credit != null && !credit.isBlank()) amount = amount.add(StatementRow.parseAmount(credit).abs());
+                if (debit != null && !debit.isBlank()) amount = amount.subtract(StatementRow.parseAmount(debit).abs());
+            }
+            return new StatementRow(
+                    StatementRow.parseDateTime(get(fields, Column.DATE)),
+                    amount,
+                    get(fields, Column.TYPE),
+                    get(fields, Column.CATEGORY),
+                    get(fields, Column.NOTE),
+                    get(fields, Column.PLACE),
+                    get(fields, Column.PAYMENT_METHOD)
+            );
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Row " + rowNo + ": " + ex.getMessage());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) throw new IllegalStateException("Empty file");
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            Column c = HEADER_ALIASES.get(name);
+            if (c != null) columns.putIfAbsent(c, i);
+        }
+        if (!columns.containsKey(Column.DATE))
+            throw new IllegalStateException("CSV header has no date column");
+        if (!columns.containsKey(Column.AMOUNT) && !columns.containsKey(Column.DEBIT) && !columns.containsKey(Column.CREDIT))
+            throw new IllegalStateException("CSV header has no amount column");
+    }
+
+    private String get(List<String> fields, Column c) {
+        Integer i = columns.get(c);
+        if (i == null || i >= fields.size()) return null;
+        String v = fields.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    // null = EOF
+    private List<String> readRecord() throws IOException {
+        int ch = in.read();
+        if (ch == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (ch == -1) {
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (ch == '"') {
+                    in.mark(1);
+                    int peek = in.read();
+                    if (peek == '"') field.append('"');
+                    else {
+                        quoted = false;
+                        if (peek != -1) in.reset();
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') in.reset();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) ch);
+            }
+            if (field.length() > MAX_FIELD_CHARS)
+                throw new IllegalStateException("CSV field too long (unbalanced quote?)");
+            ch = in.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
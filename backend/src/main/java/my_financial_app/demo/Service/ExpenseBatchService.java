@@ -0,0 +1,184 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import my_financial_app.demo.Controller.BatchUpdateExpenseRequest;
+import my_financial_app.demo.Controller.CreateExpenseRequest;
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.Label;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+
+// สร้าง/แก้/ลบ expense ทีละหลายแถวใน transaction เดียว
+// - ตรวจทุกแถวก่อนเขียน ถ้ามีแถวผิดจะไม่เขียนอะไรเลย (IllegalArgumentException -> 400)
+// - insert/update ไปเป็น JDBC batch (hibernate.jdbc.batch_size + sequence id)
+// - ยอดบัญชีรวม delta ต่อบัญชีก่อน แล้ว UPDATE ครั้งเดียวต่อบัญชี
+@Service
+public class ExpenseBatchService {
+
+    public static final int MAX_ROWS = 10_000;
+
+    private final ExpenseRepository repo;
+    private final UserRepository userRepo;
+    private final AccountLedger ledger;
+    private final ApplicationEventPublisher events;
+
+    public ExpenseBatchService(ExpenseRepository repo, UserRepository userRepo, AccountLedger ledger,
+                               ApplicationEventPublisher events) {
+        this.repo = repo;
+        this.userRepo = userRepo;
+        this.ledger = ledger;
+        this.events = events;
+    }
+
+    @Transactional
+    public List<Expense> createAll(Long userId, List<? extends CreateExpenseRequest> rows) {
+        checkSize(rows);
+        AccountCache accounts = new AccountCache(userId);
+        User owner = userRepo.getReferenceById(userId);
+
+        List<Expense> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            CreateExpenseRequest req = rows.get(i);
+            checkRow(i, req);
+            Expense e = new Expense();
+            e.setUser(owner);
+            fill(e, req, accounts.resolve(i, req));
+            batch.add(e);
+        }
+
+        List<Expense> saved = repo.saveAll(batch);
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        for (Expense e : saved) apply(deltas, ledger.postingOf(e), false);
+        ledger.post(deltas);
+        events.publishEvent(ExpensesChangedEvent.of(saved));
+        return saved;
+    }
+
+    @Transactional
+    public List<Expense> updateAll(Long userId, List<BatchUpdateExpenseRequest> rows) {
+        checkSize(rows);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            BatchUpdateExpenseRequest req = rows.get(i);
+            checkRow(i, req);
+            if (req.id == null) throw new IllegalArgumentException("Row " + i + ": id is required");
+            if (!ids.add(req.id)) throw new IllegalArgumentException("Row " + i + ": duplicate id " + req.id);
+        }
+
+        Map<Long, Expense> existing = new HashMap<>();
+        for (Expense e : repo.findByUserIdAndIdIn(userId, ids)) existing.put(e.getId(), e);
+        ExpensesChangedEvent before = ExpensesChangedEvent.of(existing.values());
+
+        AccountCache accounts = new AccountCache(userId);
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        List<Expense> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BatchUpdateExpenseRequest req = rows.get(i);
+            Expense e = existing.get(req.id);
+            if (e == null) throw new IllegalArgumentException("Row " + i + ": expense " + req.id + " not found");
+            apply(deltas, ledger.postingOf(e), true);
+            fill(e, req, accounts.resolve(i, req));
+            apply(deltas, ledger.postingOf(e), false);
+            batch.add(e);
+        }
+
+        List<Expense> saved = repo.saveAll(batch);
+        ledger.post(deltas);
+        events.publishEvent(before.and(saved));
+        return saved;
+    }
+
+    // คืนจำนวนแถวที่ลบ (id ที่ไม่ใช่ของ user จะถูกข้าม)
+    @Transactional
+    public int deleteAll(Long userId, List<Long> ids) {
+        checkSize(ids);
+        List<Expense> owned = repo.findByUserIdAndIdIn(userId, new LinkedHashSet<>(ids));
+        if (owned.isEmpty()) return 0;
+
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        List<Long> ownedIds = new ArrayList<>(owned.size());
+        for (Expense e : owned) {
+            apply(deltas, ledger.postingOf(e), true);
+            ownedIds.add(e.getId());
+        }
+        ledger.post(deltas);
+        repo.deleteAllByIdInBatch(ownedIds);
+        events.publishEvent(ExpensesChangedEvent.of(owned));
+        return ownedIds.size();
+    }
+
+    private static void checkSize(List<?> rows) {
+        if (rows == null || rows.isEmpty()) throw new IllegalArgumentException("Empty batch");
+        if (rows.size() > MAX_ROWS) throw new IllegalArgumentException("Batch too large (max " + MAX_ROWS + ")");
+    }
+
+    // คอลัมน์ NOT NULL ของ expenses
+    private static void checkRow(int i, CreateExpenseRequest req) {
+        if (req == null) throw new IllegalArgumentException("Row " + i + ": empty");
+        if (req.amount == null) throw new IllegalArgumentException("Row " + i + ": amount is required");
+        if (req.occurredAt == null) throw new IllegalArgumentException("Row " + i + ": occurredAt is required");
+        if (isBlank(req.category)) throw new IllegalArgumentException("Row " + i + ": category is required");
+        if (req.place == null) throw new IllegalArgumentException("Row " + i + ": place is required");
+        if (req.paymentMethod == null) throw new IllegalArgumentException("Row " + i + ": paymentMethod is required");
+        if (req.category.trim().length() > Label.MAX_NAME || req.paymentMethod.trim().length() > Label.MAX_NAME)
+            throw new IllegalArgumentException("Row " + i + ": category/paymentMethod longer than " + Label.MAX_NAME);
+    }
+
+    private static void fill(Expense e, CreateExpenseRequest req, Account account) {
+        e.setType(Expense.EntryType.normalize(req.type));
+        e.setCategory(req.category);
+        e.setAmount(BigDecimal.valueOf(req.amount));
+        e.setNote(req.note);
+        e.setPlace(req.place);
+        e.setOccurredAt(req.occurredAt);
+        e.setPaymentMethod(req.paymentMethod);
+        e.setIconKey(req.iconKey);
+        e.setAccount(account);
+    }
+
+    private static void apply(Map<Long, BigDecimal> deltas, AccountLedger.Posting p, boolean reverse) {
+        if (p == null) return;
+        deltas.merge(p.accountId(), reverse ? p.delta().negate() : p.delta(), BigDecimal::add);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    // แถวส่วนใหญ่ใช้บัญชีซ้ำกัน -> lookup ครั้งเดียวต่อ accountId / ชื่อ
+    private final class AccountCache {
+        private final Long userId;
+        private final Map<Object, Account> byKey = new HashMap<>();
+
+        AccountCache(Long userId) {
+            this.userId = userId;
+        }
+
+        Account resolve(int row, CreateExpenseRequest req) {
+            Object key = req.accountId != null ? req.accountId : "name:" + req.paymentMethod;
+            Account account;
+            if (byKey.containsKey(key)) {
+                account = byKey.get(key);
+            } else {
+                account = ledger.resolveAccount(userId, req.accountId, req.paymentMethod);
+                byKey.put(key, account); // เก็บ null ด้วย ชื่อที่ไม่ตรงบัญชีไหนจะไม่ query ซ้ำ
+            }
+            if (req.accountId != null && account == null)
+                throw new IllegalArgumentException("Row " + row + ": account not found");
+            return account;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package my_financial_app.demo.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseView;
+
+// export ประวัติทั้งหมดของ user แบบ stream: อ่านทีละหน้า (keyset บน occurredAt, id) -> เขียนออก -> หน้าถัดไป
+// - แต่ละหน้าอ่านใน readOnly transaction สั้น ๆ คืน connection ก่อนเขียนลง socket:
+//   client ที่โหลดช้าไม่ถือ connection ของ pool ไว้ตลอดการดาวน์โหลด
+// - memory คงที่ (ราว PAGE_SIZE แถว + buffer) ไม่ว่าจะมีกี่แถว
+// - ไม่ใช่ snapshot เดียวทั้งไฟล์: รายการที่เพิ่ม/แก้ระหว่าง export อาจติดหรือไม่ติดมาก็ได้
+// - อ่านเป็น ExpenseView (select เฉพาะคอลัมน์) ไม่ผูกกับ getter ของ entity
+// - NDJSON: JsonGenerator ตัวเดียวทั้ง response, flush ลง socket ทีละหน้า ไม่ใช่ทีละแถว
+@Service
+public class ExpenseExporter {
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        // null = ไม่รู้จัก
+        public static Format parse(String raw) {
+            if (raw == null || raw.isBlank()) return CSV;
+            return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl", "json" -> NDJSON;
+                default -> null;
+            };
+        }
+    }
+
+    private static final String CSV_HEADER =
+            "id,occurredAt,type,category,amount,paymentMethod,place,note,iconKey,accountId\n";
+    static final int PAGE_SIZE = 1_000;
+
+    private final ExpenseRepository repo;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter json;
+
+    public ExpenseExporter(ExpenseRepository repo, PlatformTransactionManager txManager, ObjectMapper mapper) {
+        this.repo = repo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        // ไม่ flush ทุกแถว (ค่า default ของ writeValue) + ขึ้นบรรทัดใหม่เอง (ค่า default คั่น root value ด้วยช่องว่าง)
+        this.json = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // เรียกจาก StreamingResponseBody (thread ของ async) -> เปิด transaction เองทีละหน้าที่นี่
+    public long write(Long userId, LocalDateTime from, LocalDateTime to,
+                      Format format, boolean gzip, OutputStream target) throws IOException {
+        OutputStream out = gzip ? new GZIPOutputStream(target, 64 * 1024) : target;
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        JsonGenerator gen = null;
+        if (format == Format.CSV) {
+            w.write('\uFEFF'); // BOM ให้ Excel อ่านภาษาไทยถูก
+            w.write(CSV_HEADER);
+        } else {
+            gen = json.createGenerator(w);
+        }
+
+        long rows = 0;
+        LocalDateTime at = to;
+        long id = Long.MAX_VALUE;
+        while (true) {
+            List<ExpenseView> page = page(userId, from, to, at, id);
+            for (ExpenseView e : page) {
+                if (gen == null) writeCsv(w, e);
+                else writeJson(gen, e);
+            }
+            rows += page.size();
+            // client ปิด connection กลางทาง -> IOException ออกไปเลย
+            if (gen != null) gen.flush(); // flush buffer ของ generator แล้วต่อไปที่ w
+            else w.flush();
+            if (page.size() < PAGE_SIZE) break;
+            ExpenseView last = page.get(page.size() - 1);
+            at = last.occurredAt();
+            id = last.id();
+        }
+
+        if (out instanceof GZIPOutputStream z) z.finish();
+        return rows;
+    }
+
+    private List<ExpenseView> page(Long userId, LocalDateTime from, LocalDateTime to, LocalDateTime at, long id) {
+        List<ExpenseView> page = readOnlyTx.execute(status ->
+                repo.findExportPageAfter(userId, from, to, at, id, PageRequest.of(0, PAGE_SIZE)));
+        return page == null ? List.of() : page;
+    }
+
+    private void writeJson(JsonGenerator gen, ExpenseView e) throws IOException {
+        json.writeValue(gen, e);
+        gen.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer w, ExpenseView e) throws IOException {
+        w.write(String.valueOf(e.id()));
+        w.write(',');
+        w.write(String.valueOf(e.occurredAt()));
+        w.write(',');
+        w.write(e.type() == null ? "" : e.type().name());
+        w.write(',');
+        w.write(csvText(e.category()));
+        w.write(',');
+        w.write(e.amount() == null ? "" : e.amount().toPlainString());
+        w.write(',');
+        w.write(csvText(e.paymentMethod()));
+        w.write(',');
+        w.write(csvText(e.place()));
+        w.write(',');
+        w.write(csvText(e.note()));
+        w.write(',');
+        w.write(csvText(e.iconKey()));
+        w.write(',');
+        Long accountId = e.accountId();
+        if (accountId != null) w.write(String.valueOf(accountId));
+        w.write('\n');
+    }
+
+    // quote เมื่อจำเป็น + กัน formula injection ตอนเปิดใน spreadsheet
+    static String csvText(String s) {
+        if (s == null || s.isEmpty()) return "";
+        char first = s.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') s = "'" + s;
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,41 @@
+package my_financial_app.demo.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import my_financial_app.demo.Entity.Expense;
+
+// รายการ expense ถูกสร้าง/แก้/ลบ (ส่งหลัง commit)
+// - days: วัน (occurred_at) ที่ถูกแตะ -> StatsEngine คำนวณ rollup ของวันเหล่านั้นใหม่
+// - incomeYears: user/ปี ที่มีรายการ INCOME ถูกแตะ -> TaxEngine ล้างรายได้ทั้งปีที่ cache ไว้
+// แก้ไขรายการให้สร้างจากสภาพก่อนแก้แล้ว and() กับหลังแก้ (วัน/ประเภทอาจเปลี่ยน)
+public record ExpensesChangedEvent(Set<LocalDate> days, Set<IncomeYear> incomeYears) {
+
+    public record IncomeYear(Long userId, int year) {
+    }
+
+    public static ExpensesChangedEvent of(Collection<Expense> expenses) {
+        Set<LocalDate> days = new HashSet<>();
+        Set<IncomeYear> incomeYears = new HashSet<>();
+        for (Expense e : expenses) {
+            if (e.getOccurredAt() == null) continue;
+            days.add(e.getOccurredAt().toLocalDate());
+            if (e.getType() == Expense.EntryType.INCOME && e.ownerId() != null) {
+                incomeYears.add(new IncomeYear(e.ownerId(), e.getOccurredAt().getYear()));
+            }
+        }
+        return new ExpensesChangedEvent(days, incomeYears);
+    }
+
+    // รวมกับรายการหลังแก้ไข
+    public ExpensesChangedEvent and(Collection<Expense> expenses) {
+        ExpensesChangedEvent after = of(expenses);
+        Set<LocalDate> allDays = new HashSet<>(days);
+        allDays.addAll(after.days());
+        Set<IncomeYear> allYears = new HashSet<>(incomeYears);
+        allYears.addAll(after.incomeYears());
+        return new ExpensesChangedEvent(allDays, allYears);
+    }
+}
@@ -0,0 +1,215 @@
+package my_financial_app.demo.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Metrics;
+import my_financial_app.demo.Entity.Label;
+
+// id <-> ชื่อ ของตาราง labels (หมวดหมู่ / ช่องทางจ่าย) ถือไว้ใน memory ทั้งสองทาง เติมทั้งตารางตอนเริ่ม (ตารางเล็ก)
+// - ชื่อที่เคยเห็นแล้วไม่ถาม DB อีก (แถวใน labels ไม่ถูกแก้/ลบ cache จึงไม่ต้องหมดอายุ)
+// - ถาม / INSERT ผ่าน connection ของ transaction ที่กำลังทำงานอยู่ (DataSourceUtils) ไม่ยืม connection ที่สองจาก pool:
+//   converter ถูกเรียกระหว่าง flush ถ้าต้องรอ connection อีกเส้น request พร้อมกันเท่าขนาด pool จะค้างกันเอง
+// - ชื่อใหม่ที่ transaction นี้ INSERT ถูกจำไว้ใน transaction ก่อน เข้า cache หลัง commit เท่านั้น
+//   (rollback = แถวหาย id ต้องไม่ค้างใน cache)
+// - insert ชื่อเดียวกันพร้อมกัน (หลาย thread / replica): ฝั่งที่ชน unique ย้อนไปที่ savepoint แล้วอ่าน id ของอีกฝั่ง
+//   transaction ของผู้เรียกยังใช้ต่อได้ (PostgreSQL ยกเลิกทั้ง transaction ถ้าไม่มี savepoint)
+// - ชื่อตัดช่องว่างหัวท้ายก่อนเสมอ (เหมือน TRIM ใน V6) "อาหาร " กับ "อาหาร" จึงเป็น id เดียวกัน
+// จำนวนครั้งที่ต้องถาม DB นับใน labels.cache.miss
+@Service
+public class LabelDictionary {
+
+    public static final String MISS_METRIC = "labels.cache.miss";
+
+    private static final String SELECT_ALL = "SELECT id, kind, name FROM labels";
+    private static final String SELECT_ID = "SELECT id FROM labels WHERE kind = ? AND name = ?";
+    private static final String SELECT_NAME = "SELECT name FROM labels WHERE id = ?";
+    private static final String INSERT = "INSERT INTO labels (kind, name) VALUES (?, ?)";
+
+    private record Key(Label.Kind kind, String name) {
+    }
+
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run(Connection c) throws SQLException;
+    }
+
+    private final DataSource dataSource;
+    private final ConcurrentHashMap<Key, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> names = new ConcurrentHashMap<>();
+
+    public LabelDictionary(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        inConnection("cannot load labels", c -> {
+            try (PreparedStatement ps = c.prepareStatement(SELECT_ALL);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) remember(new Key(Label.Kind.valueOf(rs.getString(2)), rs.getString(3)), rs.getInt(1));
+            }
+            return null;
+        });
+    }
+
+    // ไม่มีในตาราง = เพิ่มให้ (ใน transaction ของผู้เรียกถ้ามี); ยาวเกิน Label.MAX_NAME -> IllegalArgumentException
+    public int idOf(Label.Kind kind, String name) {
+        Key key = new Key(kind, normalize(name));
+        Integer id = cached(key);
+        if (id != null) return id;
+
+        Metrics.counter(MISS_METRIC).increment();
+        return inConnection("cannot store label " + kind + " '" + key.name() + "'", c -> {
+            Integer found = select(c, key);
+            if (found != null) {
+                remember(key, found);
+                return found;
+            }
+            Integer inserted = insert(c, key);
+            if (c.getAutoCommit() || !TransactionSynchronizationManager.isSynchronizationActive()) remember(key, inserted);
+            else pending().put(key, inserted);
+            return inserted;
+        });
+    }
+
+    // แค่ค้นหา ไม่เพิ่ม: null = ยังไม่มีชื่อนี้
+    public Integer find(Label.Kind kind, String name) {
+        Key key = new Key(kind, normalize(name));
+        Integer id = cached(key);
+        if (id != null) return id;
+
+        Metrics.counter(MISS_METRIC).increment();
+        return inConnection("cannot read label " + kind + " '" + key.name() + "'", c -> {
+            Integer found = select(c, key);
+            if (found != null) remember(key, found);
+            return found;
+        });
+    }
+
+    public String nameOf(int id) {
+        String name = names.get(id);
+        if (name != null) return name;
+        Map<Key, Integer> mine = currentPending();
+        if (mine != null) {
+            for (Map.Entry<Key, Integer> e : mine.entrySet())
+                if (e.getValue() == id) return e.getKey().name();
+        }
+
+        Metrics.counter(MISS_METRIC).increment();
+        return inConnection("cannot read label " + id, c -> {
+            try (PreparedStatement ps = c.prepareStatement(SELECT_NAME)) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) throw new IllegalStateException("unknown label id " + id);
+                    String n = rs.getString(1);
+                    names.put(id, n);
+                    return n;
+                }
+            }
+        });
+    }
+
+    public int cachedCount() {
+        return names.size();
+    }
+
+    public static String normalize(String name) {
+        String n = name == null ? "" : name.trim();
+        if (n.length() > Label.MAX_NAME)
+            throw new IllegalArgumentException("Label is longer than " + Label.MAX_NAME + " characters");
+        return n;
+    }
+
+    private Integer cached(Key key) {
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        Map<Key, Integer> mine = currentPending();
+        return mine == null ? null : mine.get(key);
+    }
+
+    private void remember(Key key, int id) {
+        ids.put(key, id);
+        names.put(id, key.name());
+    }
+
+    // ชื่อที่ transaction ปัจจุบัน INSERT (ยังไม่ commit)
+    @SuppressWarnings("unchecked")
+    private Map<Key, Integer> currentPending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        return (Map<Key, Integer>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private Map<Key, Integer> pending() {
+        Map<Key, Integer> mine = currentPending();
+        if (mine != null) return mine;
+
+        Map<Key, Integer> created = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.forEach(LabelDictionary.this::remember);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(LabelDictionary.this);
+            }
+        });
+        return created;
+    }
+
+    private <T> T inConnection(String failure, SqlWork<T> work) {
+        Connection c = DataSourceUtils.getConnection(dataSource);
+        try {
+            return work.run(c);
+        } catch (SQLException e) {
+            throw new IllegalStateException(failure, e);
+        } finally {
+            DataSourceUtils.releaseConnection(c, dataSource);
+        }
+    }
+
+    private static Integer insert(Connection c, Key key) throws SQLException {
+        Savepoint savepoint = c.getAutoCommit() ? null : c.setSavepoint();
+        try (PreparedStatement ps = c.prepareStatement(INSERT)) {
+            ps.setString(1, key.kind().name());
+            ps.setString(2, key.name());
+            ps.executeUpdate();
+            if (savepoint != null) c.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // SQLState 23xxx = integrity constraint violation: อีกฝั่งเพิ่งเพิ่มชื่อนี้
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) throw e;
+            if (savepoint != null) c.rollback(savepoint);
+        }
+        Integer id = select(c, key);
+        if (id == null) throw new IllegalStateException("label " + key.kind() + " '" + key.name() + "' was not stored");
+        return id;
+    }
+
+    private static Integer select(Connection c, Key key) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SELECT_ID)) {
+            ps.setString(1, key.kind().name());
+            ps.setString(2, key.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+}
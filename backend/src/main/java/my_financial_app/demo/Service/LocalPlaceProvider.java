@@ -0,0 +1,57 @@
+package my_financial_app.demo.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// provider ในเครื่องจากรายการสถานที่ตัวอย่าง ไม่ออก network (app.places.provider=local)
+// นับจำนวนครั้งที่ถูกเรียก ให้ test ตรวจได้ว่า lookup ซ้ำไม่หลุดออกจาก cache
+@Component
+@ConditionalOnProperty(name = "app.places.provider", havingValue = "local")
+public class LocalPlaceProvider implements PlaceProvider {
+
+    static final List<Place> PLACES = List.of(
+            new Place("สยามพารากอน, ถนนพระรามที่ 1, แขวงปทุมวัน, เขตปทุมวัน, กรุงเทพมหานคร", 13.7462, 100.5347),
+            new Place("เซ็นทรัลเวิลด์, ถนนราชดำริ, แขวงปทุมวัน, เขตปทุมวัน, กรุงเทพมหานคร", 13.7466, 100.5393),
+            new Place("เอ็ม บี เค เซ็นเตอร์, ถนนพญาไท, แขวงวังใหม่, เขตปทุมวัน, กรุงเทพมหานคร", 13.7447, 100.5300),
+            new Place("ตลาดนัดจตุจักร, ถนนกำแพงเพชร 2, แขวงจตุจักร, เขตจตุจักร, กรุงเทพมหานคร", 13.7999, 100.5506),
+            new Place("ท่าอากาศยานสุวรรณภูมิ, อำเภอบางพลี, จังหวัดสมุทรปราการ", 13.6900, 100.7501),
+            new Place("มหาวิทยาลัยเกษตรศาสตร์, ถนนงามวงศ์วาน, แขวงลาดยาว, เขตจตุจักร, กรุงเทพมหานคร", 13.8476, 100.5696),
+            new Place("ตลาดวโรรส, ถนนวิชยานนท์, ตำบลช้างม่อย, อำเภอเมืองเชียงใหม่, จังหวัดเชียงใหม่", 18.7902, 98.9996));
+
+    // reverse: ใกล้กว่านี้ (องศา ~2 กม.) ถือว่าเป็นสถานที่นั้น
+    private static final double NEAR_DEGREES = 0.02;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public List<Place> search(String query, int limit) {
+        calls.incrementAndGet();
+        String q = query.toLowerCase(Locale.ROOT);
+        List<Place> found = new ArrayList<>();
+        for (Place p : PLACES) {
+            if (found.size() >= limit) break;
+            if (p.label().toLowerCase(Locale.ROOT).contains(q)) found.add(p);
+        }
+        return found;
+    }
+
+    @Override
+    public List<Place> reverse(double lat, double lon) {
+        calls.incrementAndGet();
+        return PLACES.stream()
+                .filter(p -> Math.abs(p.lat() - lat) < NEAR_DEGREES && Math.abs(p.lon() - lon) < NEAR_DEGREES)
+                .min(Comparator.comparingDouble(p -> Math.hypot(p.lat() - lat, p.lon() - lon)))
+                .map(List::of)
+                .orElse(List.of());
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+}
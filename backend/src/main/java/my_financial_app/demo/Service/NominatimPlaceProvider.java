@@ -0,0 +1,130 @@
+package my_financial_app.demo.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// OpenStreetMap Nominatim (https://operations.osmfoundation.org/policies/nominatim/)
+// - ทั้ง process ยิงไม่ถี่กว่า min-interval และส่ง User-Agent ของแอป
+//   ตัวจำกัดอยู่ใน pod นี้เท่านั้น: นโยบาย Nominatim (1 request/วินาที ต่อแอป) ต้องตั้ง min-interval = จำนวน replica x 1 วินาที
+// - คิวรอช่องยิงนานเกิน max-wait -> RejectedExecutionException (controller ตอบ 429) ไม่ปล่อย thread ค้าง
+@Component
+@ConditionalOnProperty(name = "app.places.provider", havingValue = "nominatim", matchIfMissing = true)
+public class NominatimPlaceProvider implements PlaceProvider {
+
+    private final ObjectMapper json;
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String userAgent;
+    private final Duration timeout;
+    private final long minIntervalNanos;
+    private final long maxWaitNanos;
+
+    // เวลา (nanoTime) ที่ request ถัดไปยิงได้
+    private long nextSlot = System.nanoTime();
+
+    public NominatimPlaceProvider(ObjectMapper json,
+                                  @Value("${app.places.nominatim.base-url:https://nominatim.openstreetmap.org}") String baseUrl,
+                                  @Value("${app.places.nominatim.user-agent:save-money-app}") String userAgent,
+                                  @Value("${app.places.nominatim.timeout:PT5S}") Duration timeout,
+                                  @Value("${app.places.nominatim.min-interval:PT1S}") Duration minInterval,
+                                  @Value("${app.places.nominatim.max-wait:PT5S}") Duration maxWait) {
+        this.json = json;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.userAgent = userAgent;
+        this.timeout = timeout;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public List<Place> search(String query, int limit) throws IOException {
+        JsonNode rows = get("/search?format=jsonv2&limit=" + limit + "&q=" + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        List<Place> places = new ArrayList<>();
+        if (rows.isArray()) {
+            for (JsonNode r : rows) {
+                Place p = toPlace(r);
+                if (p != null) places.add(p);
+            }
+        }
+        return places;
+    }
+
+    @Override
+    public List<Place> reverse(double lat, double lon) throws IOException {
+        JsonNode r = get(String.format(Locale.ROOT, "/reverse?format=jsonv2&lat=%s&lon=%s", lat, lon));
+        Place p = r.has("error") ? null : toPlace(r);
+        return p == null ? List.of() : List.of(p);
+    }
+
+    private JsonNode get(String pathAndQuery) throws IOException {
+        awaitSlot();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Language", "th")
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200)
+                throw new IOException("nominatim returned HTTP " + response.statusCode());
+            return json.readTree(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    // จองช่องยิงถัดไปแล้วรอนอก lock
+    private void awaitSlot() throws IOException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlot);
+            wait = slot - now;
+            if (wait > maxWaitNanos)
+                throw new RejectedExecutionException("nominatim rate limit queue is full");
+            nextSlot = slot + minIntervalNanos;
+        }
+        if (wait <= 0) return;
+        try {
+            Thread.sleep(Duration.ofNanos(wait));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    private static Place toPlace(JsonNode r) {
+        JsonNode label = r.get("display_name");
+        JsonNode lat = r.get("lat");
+        JsonNode lon = r.get("lon");
+        if (label == null || lat == null || lon == null) return null;
+        try {
+            return new Place(label.asText(), Double.parseDouble(lat.asText()), Double.parseDouble(lon.asText()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package my_financial_app.demo.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// OFX 1.x (SGML, ไม่มี tag ปิด) และ OFX 2.x (XML) อ่านแบบ token ทีละ tag
+// สนใจเฉพาะ <STMTTRN>: DTPOSTED, TRNAMT, NAME, MEMO (ไม่ต้องรู้โครงสร้างทั้งไฟล์)
+class OfxStatementReader implements StatementReader {
+
+    private static final DateTimeFormatter OFX_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final int MAX_TOKEN_CHARS = 8 * 1024;
+
+    private final BufferedReader in;
+    private final StringBuilder token = new StringBuilder();
+    private long rowNo;
+
+    OfxStatementReader(Reader in) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) return readTransaction();
+        }
+        return null;
+    }
+
+    private StatementRow readTransaction() throws IOException {
+        rowNo++;
+        String posted = null, amount = null, name = null, memo = null;
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            switch (tag) {
+                case "DTPOSTED" -> posted = text();
+                case "TRNAMT" -> amount = text();
+                case "NAME" -> name = text();
+                case "MEMO" -> memo = text();
+                default -> { }
+            }
+        }
+        try {
+            return new StatementRow(parseOfxDate(posted), StatementRow.parseAmount(amount),
+                    null, null, memo != null ? memo : name, name, null);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Transaction " + rowNo + ": " + ex.getMessage());
+        }
+    }
+
+    // "20250105", "20250105120000", "20250105120000.000[+7:ICT]"
+    private static LocalDateTime parseOfxDate(String raw) {
+        if (raw == null || raw.length() < 8) throw new IllegalArgumentException("bad DTPOSTED: " + raw);
+        String digits = raw.length() >= 14 && raw.substring(8, 14).chars().allMatch(Character::isDigit)
+                ? raw.substring(0, 14) : raw.substring(0, 8) + "000000";
+        try {
+            return LocalDateTime.parse(digits, OFX_DATE_TIME);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("bad DTPOSTED: " + raw);
+        }
+    }
+
+    // ชื่อ tag ถัดไป (ตัวใหญ่, tag ปิดขึ้นต้นด้วย "/"); null = EOF
+    private String nextTag() throws IOException {
+        int ch;
+        while ((ch = in.read()) != -1 && ch != '<') { /* ข้าม text นอก tag */ }
+        if (ch == -1) return null;
+        token.setLength(0);
+        while ((ch = in.read()) != -1 && ch != '>') append(ch);
+        return token.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // ข้อความหลัง tag จนถึง '<' ถัดไป (ไม่กิน '<')
+    private String text() throws IOException {
+        token.setLength(0);
+        while (true) {
+            in.mark(1);
+            int ch = in.read();
+            if (ch == -1) break;
+            if (ch == '<') {
+                in.reset();
+                break;
+            }
+            append(ch);
+        }
+        String s = token.toString().trim()
+                .replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+        return s.isEmpty() ? null : s;
+    }
+
+    private void append(int ch) {
+        if (token.length() >= MAX_TOKEN_CHARS) throw new IllegalStateException("OFX token too long");
+        token.append((char) ch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
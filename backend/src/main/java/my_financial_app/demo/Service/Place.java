@@ -0,0 +1,5 @@
+package my_financial_app.demo.Service;
+
+// สถานที่จากการค้นหา / reverse geocode (label = ชื่อเต็มที่แสดงให้ผู้ใช้เลือก)
+public record Place(String label, double lat, double lon) {
+}
@@ -0,0 +1,15 @@
+package my_financial_app.demo.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+// แหล่งข้อมูลสถานที่ (เลือกด้วย app.places.provider) ถูกเรียกจาก PlaceService เฉพาะตอน cache ไม่มีเท่านั้น
+//   nominatim = OpenStreetMap Nominatim (ค่าเริ่มต้น)
+//   local     = ข้อมูลตัวอย่างในเครื่อง ไม่ออก network (test / dev ที่ไม่มีเน็ต)
+public interface PlaceProvider {
+
+    List<Place> search(String query, int limit) throws IOException;
+
+    // ว่าง = ไม่พบ
+    List<Place> reverse(double lat, double lon) throws IOException;
+}
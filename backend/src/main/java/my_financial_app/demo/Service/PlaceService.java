@@ -0,0 +1,256 @@
+package my_financial_app.demo.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Metrics;
+
+// ค้นหาสถานที่ / reverse geocode ผ่าน PlaceProvider พร้อม cache สองชั้น
+// - key: "search:<query ที่ normalize แล้ว>" | "reverse:<lat>,<lon> ปัดตาม reverse-precision"
+//   (reverse ส่งพิกัดที่ปัดแล้วให้ provider ด้วย: พิกัดใกล้กันได้คำตอบเดียวกันทุกครั้ง)
+// - memory: LRU ไม่เกิน cache.max-entries -> disk: ไฟล์ JSON ต่อ key ใน cache.dir (อยู่ข้ามการ restart, หมดอายุตาม cache.ttl)
+// - lookup key เดียวกันที่กำลังวิ่งอยู่ -> รอผลเดียวกัน (ยิง provider ครั้งเดียว)
+// - ผลว่างก็ cache (ค้นไม่เจอซ้ำ ๆ ไม่ไปกวน upstream)
+// ที่มาของผลนับใน places.lookup{kind=search|reverse, source=memory|disk|coalesced|provider}
+@Service
+public class PlaceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceService.class);
+
+    public static final String LOOKUP_METRIC = "places.lookup";
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    record DiskEntry(String key, List<Place> places) {
+    }
+
+    private final PlaceProvider provider;
+    private final ObjectMapper json;
+    private final int searchLimit;
+    private final int reversePrecision;
+    private final Path diskDir;
+    private final Duration diskTtl;
+
+    private final Map<String, List<Place>> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<List<Place>>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PlaceService(PlaceProvider provider,
+                        ObjectMapper json,
+                        @Value("${app.places.search-limit:12}") int searchLimit,
+                        @Value("${app.places.reverse-precision:4}") int reversePrecision,
+                        @Value("${app.places.cache.max-entries:5000}") int maxEntries,
+                        @Value("${app.places.cache.dir:}") String diskDir,
+                        @Value("${app.places.cache.ttl:P30D}") Duration diskTtl) {
+        this(provider, json, searchLimit, reversePrecision, maxEntries,
+                diskDir == null || diskDir.isBlank() ? null : Path.of(diskDir), diskTtl);
+    }
+
+    // diskDir = null -> ไม่เก็บลงดิสก์
+    public PlaceService(PlaceProvider provider, ObjectMapper json, int searchLimit, int reversePrecision,
+                        int maxEntries, Path diskDir, Duration diskTtl) {
+        this.provider = provider;
+        this.json = json;
+        this.searchLimit = searchLimit;
+        this.reversePrecision = reversePrecision;
+        this.diskDir = diskDir;
+        this.diskTtl = diskTtl;
+        // accessOrder = true: get() ย้ายไปท้าย -> ตัวแรกคือตัวที่ไม่ได้ใช้นานสุด
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Place>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (diskDir != null) {
+            try {
+                Files.createDirectories(diskDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot create place cache dir " + diskDir, e);
+            }
+        }
+    }
+
+    // query ว่าง / ยาวเกิน -> IllegalArgumentException; provider ล่ม -> UncheckedIOException
+    public List<Place> search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty() || q.length() > MAX_QUERY_LENGTH)
+            throw new IllegalArgumentException("Invalid query");
+        return lookup("search", "search:" + q, () -> provider.search(q, searchLimit));
+    }
+
+    public List<Place> reverse(double lat, double lon) {
+        if (!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180))
+            throw new IllegalArgumentException("Invalid coordinates");
+        BigDecimal rLat = round(lat);
+        BigDecimal rLon = round(lon);
+        return lookup("reverse", "reverse:" + rLat.toPlainString() + "," + rLon.toPlainString(),
+                () -> provider.reverse(rLat.doubleValue(), rLon.doubleValue()));
+    }
+
+    static String normalize(String query) {
+        if (query == null) return "";
+        return Normalizer.normalize(query, Normalizer.Form.NFKC)
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private BigDecimal round(double v) {
+        return BigDecimal.valueOf(v).setScale(reversePrecision, RoundingMode.HALF_UP);
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        List<Place> load() throws IOException;
+    }
+
+    private List<Place> lookup(String kind, String key, Loader loader) {
+        List<Place> hit = fromMemory(key);
+        if (hit != null) return counted(kind, "memory", hit);
+
+        CompletableFuture<List<Place>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Place>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return counted(kind, "coalesced", running.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            // อาจมีคนใส่ memory ไปแล้วระหว่างที่เราเช็ค
+            List<Place> places = fromMemory(key);
+            String source = "memory";
+            if (places == null) {
+                places = fromDisk(key);
+                source = "disk";
+            }
+            if (places == null) {
+                places = List.copyOf(loader.load());
+                source = "provider";
+                toDisk(key, places);
+            }
+            synchronized (memory) {
+                memory.put(key, places);
+            }
+            mine.complete(places);
+            return counted(kind, source, places);
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException("place lookup failed: " + e.getMessage(), e);
+            mine.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private List<Place> fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private static List<Place> counted(String kind, String source, List<Place> places) {
+        Metrics.counter(LOOKUP_METRIC, "kind", kind, "source", source).increment();
+        return places;
+    }
+
+    // ---------- disk ----------
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return diskDir.resolve(HexFormat.of().formatHex(digest) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ไฟล์เสีย / หมดอายุ / key ไม่ตรง = ไม่มี (ไปถาม provider ใหม่แล้วเขียนทับ)
+    private List<Place> fromDisk(String key) {
+        if (diskDir == null) return null;
+        Path file = fileFor(key);
+        try {
+            if (!Files.isRegularFile(file) || expired(file)) return null;
+            DiskEntry entry = json.readValue(file.toFile(), DiskEntry.class);
+            return key.equals(entry.key()) && entry.places() != null ? List.copyOf(entry.places()) : null;
+        } catch (IOException e) {
+            log.debug("ignore unreadable place cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // เขียนไฟล์ชั่วคราวแล้ว move ทับ: คนอ่านไม่เห็นไฟล์ครึ่ง ๆ; เขียนไม่ได้ก็แค่ไม่มี cache บนดิสก์
+    private void toDisk(String key, List<Place> places) {
+        if (diskDir == null) return;
+        Path file = fileFor(key);
+        try {
+            Path tmp = Files.createTempFile(diskDir, "place", ".tmp");
+            try {
+                json.writeValue(tmp.toFile(), new DiskEntry(key, places));
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.warn("cannot write place cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean expired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(diskTtl));
+    }
+
+    // ลบไฟล์ที่หมดอายุ (ดิสก์ไม่โตเกิน lookup ที่ต่างกันภายในหนึ่ง ttl)
+    @Scheduled(fixedDelayString = "${app.places.cache.purge-interval:PT1H}",
+               initialDelayString = "${app.places.cache.purge-interval:PT1H}")
+    public int purgeExpired() {
+        if (diskDir == null) return 0;
+        int removed = 0;
+        try (Stream<Path> files = Files.list(diskDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try {
+                    if (expired(file) && Files.deleteIfExists(file)) removed++;
+                } catch (IOException e) {
+                    log.debug("cannot purge place cache file {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("cannot list place cache dir {}: {}", diskDir, e.getMessage());
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,195 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import my_financial_app.demo.Config.WorkerThreads;
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.RepeatedTransaction;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.RepeatedTransactionRepository;
+
+// สร้าง expense จริงจากรายการซ้ำ (repeated_transactions) ที่ถึงกำหนด ครั้งเดียวบน server
+// - ดึงกฎที่ถึงกำหนดเป็น batch ตาม id แล้วกระจายให้ worker หลายตัว (ตามจำนวน core)
+//   pool ถูกสร้างเมื่อ app.recurrence.enabled=true เท่านั้น; ปิดอยู่แล้วเรียก materializeDue ตรง ๆ = ทำทีละกฎบน thread ผู้เรียก
+// - กฎแต่ละอันทำใน transaction ของตัวเอง: insert expenses + ปรับยอดบัญชี + เลื่อน watermark
+// - watermark เลื่อนแบบ compare-and-set ถ้าชนกับ worker/instance อื่น transaction จะ rollback ไม่สร้างซ้ำ
+@Service
+public class RecurrenceMaterializer {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceMaterializer.class);
+
+    private final RepeatedTransactionRepository rules;
+    private final ExpenseRepository expenses;
+    private final AccountLedger ledger;
+    private final TransactionTemplate tx;
+    private final ExecutorService workers; // null = ปิดอยู่
+    private final ApplicationEventPublisher events;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxOccurrencesPerRun;
+
+    public RecurrenceMaterializer(RepeatedTransactionRepository rules,
+                                  ExpenseRepository expenses,
+                                  AccountLedger ledger,
+                                  PlatformTransactionManager txManager,
+                                  ApplicationEventPublisher events,
+                                  @Value("${app.recurrence.enabled:false}") boolean enabled,
+                                  @Value("${app.recurrence.batch-size:200}") int batchSize,
+                                  @Value("${app.recurrence.max-occurrences-per-run:400}") int maxOccurrencesPerRun,
+                                  @Value("${app.recurrence.workers:0}") int workers,
+                                  @Value(WorkerThreads.VIRTUAL_ENABLED) boolean virtualThreads) {
+        this.rules = rules;
+        this.expenses = expenses;
+        this.ledger = ledger;
+        this.tx = new TransactionTemplate(txManager);
+        this.events = events;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxOccurrencesPerRun = maxOccurrencesPerRun;
+
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.workers = enabled
+                ? Executors.newFixedThreadPool(threads, WorkerThreads.factory("recurrence", virtualThreads))
+                : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.recurrence.interval:PT15M}",
+               initialDelayString = "${app.recurrence.initial-delay:PT1M}")
+    public void scheduledRun() {
+        if (!enabled) return;
+        int created = materializeDue(LocalDate.now());
+        if (created > 0) log.info("Recurrence: materialized {} expenses", created);
+    }
+
+    // คืนจำนวน expense ที่สร้าง
+    public int materializeDue(LocalDate today) {
+        int total = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = rules.findDueIds(today, afterId, PageRequest.ofSize(batchSize));
+            if (ids.isEmpty()) break;
+
+            List<Callable<Integer>> jobs = new ArrayList<>(ids.size());
+            for (Long id : ids) jobs.add(() -> materializeRule(id, today));
+            try {
+                for (Future<Integer> f : runAll(jobs)) {
+                    try {
+                        total += f.get();
+                    } catch (ExecutionException ex) {
+                        log.warn("Recurrence: rule failed", ex.getCause());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        return total;
+    }
+
+    private List<Future<Integer>> runAll(List<Callable<Integer>> jobs) throws InterruptedException {
+        if (workers != null) return workers.invokeAll(jobs);
+        List<Future<Integer>> done = new ArrayList<>(jobs.size());
+        for (Callable<Integer> job : jobs) {
+            FutureTask<Integer> f = new FutureTask<>(job);
+            f.run();
+            done.add(f);
+        }
+        return done;
+    }
+
+    int materializeRule(Long ruleId, LocalDate today) {
+        Integer created = tx.execute(status -> {
+            RepeatedTransaction rule = rules.findById(ruleId).orElse(null);
+            if (rule == null || rule.getNextRunDate() == null || rule.getNextRunDate().isAfter(today)) return 0;
+            if (rule.getAmount() == null || rule.getFrequencyUnit() == null || rule.getStartDate() == null) return 0;
+
+            Long userId = rule.getUser().getId();
+            Account account = ledger.resolveAccount(userId, null, rule.getAccount());
+            LocalDate expected = rule.getNextRunDate();
+
+            List<Expense> batch = new ArrayList<>();
+            LocalDate due = expected;
+            while (!due.isAfter(today) && batch.size() < maxOccurrencesPerRun) {
+                batch.add(toExpense(rule, account, due));
+                due = rule.getFrequencyUnit().firstOnOrAfter(rule.getStartDate(), due.plusDays(1));
+            }
+
+            expenses.saveAll(batch);
+            if (account != null) {
+                Map<Long, BigDecimal> deltas = new HashMap<>();
+                for (Expense e : batch) {
+                    deltas.merge(account.getId(), AccountLedger.signed(e.getType(), e.getAmount()), BigDecimal::add);
+                }
+                ledger.post(deltas);
+            }
+
+            if (rules.advanceWatermark(ruleId, expected, due) == 0) {
+                // worker อื่นทำกฎนี้ไปแล้ว -> ยกเลิกของเราทั้งหมด
+                status.setRollbackOnly();
+                return 0;
+            }
+            events.publishEvent(ExpensesChangedEvent.of(batch));
+            return batch.size();
+        });
+        return created == null ? 0 : created;
+    }
+
+    private static Expense toExpense(RepeatedTransaction rule, Account account, LocalDate day) {
+        Expense e = new Expense();
+        e.setUser(rule.getUser());
+        e.setType(Expense.EntryType.EXPENSE);
+        e.setCategory(rule.getName() != null ? rule.getName() : "รายการซ้ำ");
+        e.setAmount(rule.getAmount().abs());
+        e.setNote("(ซ้ำ: " + rule.getFrequency() + ")");
+        e.setPlace("");
+        e.setPaymentMethod(rule.getAccount() != null ? rule.getAccount() : "");
+        e.setIconKey("RefreshCw");
+        e.setOccurredAt(day.atStartOfDay());
+        e.setAccount(account);
+        return e;
+    }
+
+    // แถวเก่าที่มีแต่ date/frequency แบบข้อความ -> เติมค่า typed ตอนเริ่มระบบ
+    // อ่านเฉพาะแถวที่ยังไม่เคยเติม (ครั้งถัดไปเหลือแค่แถวที่ parse ไม่ได้) ไม่ใช่ทั้งตาราง
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLegacyRules() {
+        tx.executeWithoutResult(status -> {
+            for (RepeatedTransaction rule : rules.findUnscheduledLegacy()) {
+                rule.reschedule(rule.getDate(), rule.getFrequency());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) workers.shutdownNow();
+    }
+}
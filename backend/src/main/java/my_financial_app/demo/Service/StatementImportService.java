@@ -0,0 +1,237 @@
+package my_financial_app.demo.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+import my_financial_app.demo.Config.WorkerThreads;
+import my_financial_app.demo.Controller.CreateExpenseRequest;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.ImportJob;
+import my_financial_app.demo.Repository.ImportJobRepository;
+
+// นำเข้า statement (CSV/OFX) แบบ stream:
+// - ไฟล์ที่อัปโหลดถูกย้ายไปเป็นไฟล์ชั่วคราวก่อน แล้ว worker อ่านทีละแถว
+// - สะสมเป็น chunk ละ chunk-size แถว แล้วส่งให้ ExpenseBatchService (1 transaction ต่อ chunk)
+// - สถานะงานอยู่ในตาราง import_jobs (ImportJob) บันทึกใน transaction เดียวกับ chunk:
+//   poll ผ่าน replica ไหนก็ได้ และงานที่ล้มกลางไฟล์รู้ว่า commit ถึงแถวไหน (lastCommittedRow)
+// - reader อ่านต่อเมื่อ chunk ก่อนหน้าเขียนเสร็จ -> ใช้ memory ไม่เกินหนึ่ง chunk ไม่ว่าไฟล์ใหญ่แค่ไหน
+// - คิวงานจำกัดขนาด: เต็มแล้ว submit จะโยน RejectedExecutionException (controller ตอบ 429)
+@Service
+public class StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportService.class);
+
+    private static final int MAX_SHORT = 100;
+    private static final int MAX_TEXT = 255;
+    private static final String DEFAULT_CATEGORY = "นำเข้า";
+
+    private final ExpenseBatchService batch;
+    private final ImportJobRepository jobs;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor workers;
+    private final int chunkSize;
+    private final Duration jobTtl;
+
+    public StatementImportService(ExpenseBatchService batch,
+                                  ImportJobRepository jobs,
+                                  PlatformTransactionManager txManager,
+                                  @Value("${app.import.workers:2}") int workers,
+                                  @Value("${app.import.queue-capacity:8}") int queueCapacity,
+                                  @Value("${app.import.chunk-size:500}") int chunkSize,
+                                  @Value("${app.import.job-ttl:PT1H}") Duration jobTtl,
+                                  @Value(WorkerThreads.VIRTUAL_ENABLED) boolean virtualThreads) {
+        this.batch = batch;
+        this.jobs = jobs;
+        this.tx = new TransactionTemplate(txManager);
+        this.chunkSize = chunkSize;
+        this.jobTtl = jobTtl;
+
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.factory("import", virtualThreads));
+    }
+
+    // paymentMethod / accountId ใช้กับทุกแถวที่ไฟล์ไม่ได้ระบุช่องทางเอง
+    public ImportJob submit(Long userId, MultipartFile file, String format, String charset,
+                            Long accountId, String paymentMethod) throws IOException {
+        evictExpired();
+
+        StatementReader.Format fmt = StatementReader.Format.of(format, file.getOriginalFilename());
+        Charset cs = (charset == null || charset.isBlank()) ? StandardCharsets.UTF_8 : Charset.forName(charset);
+
+        Path tmp = Files.createTempFile("statement-", ".import");
+        try {
+            file.transferTo(tmp);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+
+        ImportJob job;
+        try {
+            job = jobs.save(new ImportJob(userId, file.getOriginalFilename(), Files.size(tmp)));
+        } catch (RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        try {
+            workers.execute(() -> run(job, tmp, fmt, cs, accountId, paymentMethod));
+        } catch (RejectedExecutionException ex) {
+            jobs.delete(job);
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        return job;
+    }
+
+    // null = ไม่พบ หรือไม่ใช่ของ user นี้
+    public ImportJob find(Long userId, String jobId) {
+        return jobs.findByIdAndUserId(jobId, userId).orElse(null);
+    }
+
+    private void run(ImportJob job, Path file, StatementReader.Format format, Charset charset,
+                     Long accountId, String paymentMethod) {
+        AtomicLong bytesRead = new AtomicLong();
+        try (InputStream raw = new CountingInputStream(Files.newInputStream(file), bytesRead);
+             StatementReader reader = StatementReader.open(format, new InputStreamReader(raw, charset))) {
+
+            job.start();
+            jobs.save(job);
+
+            List<CreateExpenseRequest> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                StatementRow row;
+                try {
+                    row = reader.next();
+                } catch (IllegalArgumentException ex) {
+                    job.rowRead();
+                    job.skipped(ex.getMessage());
+                    continue;
+                }
+                if (row == null) break;
+                job.rowRead();
+
+                if (row.amount().signum() == 0) {
+                    job.skipped("Row " + job.getRowsRead() + ": zero amount");
+                    continue;
+                }
+                chunk.add(toRequest(row, accountId, paymentMethod));
+                if (chunk.size() >= chunkSize) flush(job, chunk, bytesRead);
+            }
+            flush(job, chunk, bytesRead);
+            job.finish(bytesRead.get());
+            jobs.save(job);
+        } catch (Exception ex) {
+            log.warn("Import {} failed after row {}", job.getId(), job.getLastCommittedRow(), ex);
+            job.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+            try {
+                jobs.save(job);
+            } catch (RuntimeException saveFailed) {
+                log.warn("Import {}: cannot record failure", job.getId(), saveFailed);
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    // chunk กับความคืบหน้าของงาน commit พร้อมกัน: lastCommittedRow ใน DB ตรงกับแถวที่อยู่ใน expenses จริงเสมอ
+    private void flush(ImportJob job, List<CreateExpenseRequest> chunk, AtomicLong bytesRead) {
+        if (chunk.isEmpty()) return;
+        long imported = job.getRowsImported();
+        long lastCommitted = job.getLastCommittedRow();
+        try {
+            tx.executeWithoutResult(status -> {
+                batch.createAll(job.getUserId(), chunk);
+                job.committed(chunk.size(), bytesRead.get());
+                jobs.save(job);
+            });
+        } catch (RuntimeException ex) {
+            job.uncommitted(imported, lastCommitted);
+            throw ex;
+        }
+        chunk.clear();
+    }
+
+    private static CreateExpenseRequest toRequest(StatementRow row, Long accountId, String paymentMethod) {
+        CreateExpenseRequest req = new CreateExpenseRequest();
+        Expense.EntryType type = row.type() != null
+                ? Expense.EntryType.normalize(row.type())
+                : (row.amount().signum() < 0 ? Expense.EntryType.EXPENSE : Expense.EntryType.INCOME);
+        req.type = type.name();
+        req.amount = row.amount().abs().setScale(2, RoundingMode.HALF_UP).doubleValue();
+        req.occurredAt = row.occurredAt();
+        req.category = cut(row.category() != null ? row.category() : DEFAULT_CATEGORY, MAX_SHORT);
+        req.note = row.note() != null ? cut(row.note(), MAX_TEXT) : null;
+        req.place = cut(row.place() != null ? row.place() : "", MAX_TEXT);
+        String method = row.paymentMethod() != null ? row.paymentMethod() : paymentMethod;
+        req.paymentMethod = cut(method != null ? method : "", MAX_SHORT);
+        req.accountId = row.paymentMethod() != null ? null : accountId;
+        return req;
+    }
+
+    private static String cut(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+
+    private void evictExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(jobTtl);
+        jobs.deleteFinishedBefore(cutoff);
+        jobs.failAbandoned(cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // นับ byte ที่อ่านแล้วสำหรับ progress
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) counter.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) counter.addAndGet(n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package my_financial_app.demo.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+// อ่าน statement ทีละรายการ (ไม่โหลดทั้งไฟล์เข้า memory)
+public interface StatementReader extends Closeable {
+
+    // null = หมดไฟล์; แถวที่อ่านไม่ได้ -> IllegalArgumentException (ผู้เรียกนับเป็น skipped แล้วอ่านต่อได้)
+    // ทั้งไฟล์ใช้ไม่ได้ (header ผิด, quote ไม่ปิด) -> IllegalStateException
+    StatementRow next() throws IOException;
+
+    enum Format {
+        CSV, OFX;
+
+        // ไม่ระบุ format -> เดาจากนามสกุลไฟล์
+        public static Format of(String raw, String filename) {
+            String s = raw != null && !raw.isBlank() ? raw : filename;
+            if (s == null) return CSV;
+            s = s.trim().toLowerCase(Locale.ROOT);
+            return (s.equals("ofx") || s.equals("qfx") || s.endsWith(".ofx") || s.endsWith(".qfx")) ? OFX : CSV;
+        }
+    }
+
+    static StatementReader open(Format format, Reader in) {
+        return format == Format.OFX ? new OfxStatementReader(in) : new CsvStatementReader(in);
+    }
+}
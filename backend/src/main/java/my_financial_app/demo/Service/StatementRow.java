@@ -0,0 +1,54 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// หนึ่งรายการจาก statement (CSV/OFX) ก่อนแปลงเป็น Expense
+// amount มีเครื่องหมาย: ติดลบ = จ่ายออก, บวก = รับเข้า (ใช้เมื่อไม่มีคอลัมน์ type)
+public record StatementRow(
+        LocalDateTime occurredAt,
+        BigDecimal amount,
+        String type,
+        String category,
+        String note,
+        String place,
+        String paymentMethod
+) {
+
+    private static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter SLASH_DATE_TIME = DateTimeFormatter.ofPattern("d/M/yyyy H:mm[:ss]");
+
+    // ISO, "d/M/yyyy [H:mm]"; ปี พ.ศ. (> 2400) แปลงเป็น ค.ศ.
+    public static LocalDateTime parseDateTime(String raw) {
+        if (raw == null || raw.isBlank()) throw new IllegalArgumentException("missing date");
+        String s = raw.trim();
+        try {
+            LocalDateTime t;
+            if (s.contains("/")) {
+                t = s.contains(":") ? LocalDateTime.parse(s, SLASH_DATE_TIME) : LocalDate.parse(s, SLASH_DATE).atStartOfDay();
+            } else {
+                t = s.length() > 10 ? LocalDateTime.parse(s.replace(' ', 'T')) : LocalDate.parse(s).atStartOfDay();
+            }
+            return t.getYear() > 2400 ? t.minusYears(543) : t;
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("bad date: " + s);
+        }
+    }
+
+    // "1,234.50", "฿-20", "(20.00)" -> BigDecimal
+    public static BigDecimal parseAmount(String raw) {
+        if (raw == null || raw.isBlank()) throw new IllegalArgumentException("missing amount");
+        String s = raw.trim().replace(",", "").replace("฿", "").replace("THB", "").replace(" ", "");
+        boolean negative = s.startsWith("(") && s.endsWith(")");
+        if (negative) s = s.substring(1, s.length() - 1);
+        try {
+            BigDecimal v = new BigDecimal(s);
+            return negative ? v.negate() : v;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("bad amount: " + raw.trim());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import my_financial_app.demo.Repository.UserRepository;
+
+// ตัวเลขหน้า dashboard จาก expenses/users จริง
+// - daily_stats = rollup รายวันของ expenses (V4 migration) คำนวณใหม่เฉพาะวันที่ถูกแก้ (ExpensesChangedEvent)
+// - ทุก refresh-interval: คำนวณวันที่ dirty -> รวม daily_stats + นับ users -> เก็บเป็น Snapshot ใน memory
+//   (active users วันนี้มาจาก ActivityTracker ใน memory ไม่ query)
+// - request อ่านแค่ snapshot() ไม่แตะ DB (ค่าช้ากว่าจริงได้ไม่เกิน refresh-interval)
+// - rebuild-cron สร้าง rollup ใหม่ทั้งตาราง กันกรณี event หาย (เช่น process ตายก่อน refresh)
+// - ทุก replica รัน cron / refresh ของตัวเอง: เขียน daily_stats ภายใต้ lock แถว 'daily_stats' ใน app_locks (V9)
+//   synchronized กันได้แค่ใน JVM เดียว; rebuild สองเครื่องพร้อมกันจะ INSERT วันเดียวกันชน primary key
+@Service
+public class StatsEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsEngine.class);
+
+    public record Snapshot(long totalUsers, long activeUsers,
+                           long newUsers, double userGrowth,
+                           long transactions, BigDecimal income, BigDecimal expense,
+                           long periodTransactions, BigDecimal periodVolume, double volumeGrowth,
+                           int periodDays, Instant refreshedAt) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0.0, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                0, BigDecimal.ZERO, 0.0, 0, null);
+
+        // ยอดรวมทั้งรายรับและรายจ่าย
+        public BigDecimal volume() {
+            return income.add(expense);
+        }
+    }
+
+    private record Totals(long count, BigDecimal income, BigDecimal expense) {
+        BigDecimal volume() {
+            return income.add(expense);
+        }
+    }
+
+    private static final String RECOMPUTE_COLUMNS = """
+            COALESCE(SUM(CASE WHEN type = 'EXPENSE' THEN 1 ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN type = 'EXPENSE' THEN amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN type = 'INCOME' THEN 1 ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN type = 'INCOME' THEN amount ELSE 0 END), 0),
+            COUNT(DISTINCT user_id),
+            CURRENT_TIMESTAMP
+            """;
+
+    // ถือจน transaction จบ: rebuild / recompute จาก replica อื่นรอคิว
+    private static final String LOCK = "SELECT name FROM app_locks WHERE name = 'daily_stats' FOR UPDATE";
+
+    private static final String INSERT_INTO = """
+            INSERT INTO daily_stats (stat_date, expense_count, expense_total, income_count, income_total, active_users, refreshed_at)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final UserRepository users;
+    private final ActivityTracker activity;
+    private final TransactionTemplate tx;
+    private final int periodDays;
+
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public StatsEngine(JdbcTemplate jdbc,
+                       UserRepository users,
+                       ActivityTracker activity,
+                       PlatformTransactionManager txManager,
+                       @Value("${app.stats.period-days:30}") int periodDays) {
+        this.jdbc = jdbc;
+        this.users = users;
+        this.activity = activity;
+        this.tx = new TransactionTemplate(txManager);
+        this.periodDays = periodDays;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    // หลัง commit เท่านั้น: refresh ที่วิ่งระหว่าง transaction จะได้ไม่อ่านค่าเก่าแล้วล้าง dirty ทิ้ง
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        dirtyDays.addAll(event.days());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM daily_stats", Long.class);
+        if (rows != null && rows == 0) rebuild();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.refresh-interval:PT1M}",
+               initialDelayString = "${app.stats.refresh-interval:PT1M}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+        refresh();
+    }
+
+    public void refresh() {
+        refresh(LocalDate.now());
+    }
+
+    public synchronized void refresh(LocalDate today) {
+        List<LocalDate> days = new ArrayList<>(dirtyDays);
+        for (LocalDate day : days) {
+            dirtyDays.remove(day);
+            try {
+                tx.executeWithoutResult(s -> recompute(day));
+            } catch (RuntimeException ex) {
+                dirtyDays.add(day);   // ลองใหม่รอบหน้า
+                log.warn("Stats: recompute of {} failed", day, ex);
+            }
+        }
+        snapshot = buildSnapshot(today);
+    }
+
+    // สร้าง daily_stats ใหม่ทั้งหมดจาก expenses (GROUP BY วัน ครั้งเดียว)
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Integer days = tx.execute(s -> {
+            lock();
+            jdbc.update("DELETE FROM daily_stats");
+            return jdbc.update(INSERT_INTO + "SELECT CAST(occurred_at AS DATE), " + RECOMPUTE_COLUMNS
+                    + " FROM expenses GROUP BY CAST(occurred_at AS DATE)");
+        });
+        log.info("Stats: rebuilt {} days in {} ms", days, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void recompute(LocalDate day) {
+        lock();
+        jdbc.update("DELETE FROM daily_stats WHERE stat_date = ?", Date.valueOf(day));
+        jdbc.update(INSERT_INTO + "SELECT CAST(? AS DATE), " + RECOMPUTE_COLUMNS
+                        + " FROM expenses WHERE occurred_at >= ? AND occurred_at < ? HAVING COUNT(*) > 0",
+                Date.valueOf(day),
+                Timestamp.valueOf(day.atStartOfDay()),
+                Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+
+    private void lock() {
+        jdbc.queryForList(LOCK, String.class);
+    }
+
+    private Snapshot buildSnapshot(LocalDate today) {
+        // ช่วงปัจจุบัน = periodDays วันล่าสุดรวมวันนี้, ช่วงก่อนหน้า = periodDays วันก่อนนั้น
+        LocalDate currentFrom = today.minusDays(periodDays - 1L);
+        LocalDate previousFrom = currentFrom.minusDays(periodDays);
+        LocalDate tomorrow = today.plusDays(1);
+
+        Totals all = totals(LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31));
+        Totals current = totals(currentFrom, tomorrow);
+        Totals previous = totals(previousFrom, currentFrom);
+
+        long newUsers = users.countCreatedBetween(currentFrom.atStartOfDay(), tomorrow.atStartOfDay());
+        long previousNewUsers = users.countCreatedBetween(previousFrom.atStartOfDay(), currentFrom.atStartOfDay());
+
+        return new Snapshot(
+                users.countTotalUsers(),
+                activity.activeUsersToday(),
+                newUsers,
+                growth(BigDecimal.valueOf(newUsers), BigDecimal.valueOf(previousNewUsers)),
+                all.count(), all.income(), all.expense(),
+                current.count(), current.volume(),
+                growth(current.volume(), previous.volume()),
+                periodDays,
+                Instant.now());
+    }
+
+    private Totals totals(LocalDate from, LocalDate to) {
+        return jdbc.queryForObject("""
+                        SELECT COALESCE(SUM(expense_count + income_count), 0),
+                               COALESCE(SUM(income_total), 0),
+                               COALESCE(SUM(expense_total), 0)
+                        FROM daily_stats WHERE stat_date >= ? AND stat_date < ?""",
+                (rs, i) -> new Totals(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3)),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // % เทียบช่วงก่อนหน้า (ทศนิยม 2 ตำแหน่ง); ช่วงก่อนเป็น 0 -> 100% ถ้ามีค่า, 0% ถ้าไม่มี
+    static double growth(BigDecimal current, BigDecimal previous) {
+        if (previous.signum() == 0) return current.signum() == 0 ? 0.0 : 100.0;
+        return current.subtract(previous)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(previous, 2, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+}
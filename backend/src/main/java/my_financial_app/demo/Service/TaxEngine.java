@@ -0,0 +1,223 @@
+package my_financial_app.demo.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import my_financial_app.demo.Controller.TaxRequest;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseTotal;
+import my_financial_app.demo.Service.ExpensesChangedEvent.IncomeYear;
+
+// ภาษีเงินได้บุคคลธรรมดาทั้งปี (กติกาเดียวกับ TaxWizardModal.handleCalculate ของ frontend + ลดหย่อนส่วนตัว 60,000)
+// - yearIncome(): รวมรายการ INCOME ของปีนั้นแยกหมวด (query เดียว) เก็บ cache ต่อ user/ปี
+//   ล้างเมื่อรายการ INCOME ของ user/ปีนั้นถูกสร้าง/แก้/ลบ (ExpensesChangedEvent หลัง commit) บน pod นี้
+//   การแก้ผ่าน replica อื่นไม่ส่ง event มาถึง: ทุกค่าหมดอายุเองภายใน app.tax.cache-ttl (ค่าเก่าค้างได้ไม่เกินนั้น)
+// - compute(): เลขล้วน ไม่แตะ DB (ลดหย่อนมาจาก request ทุกครั้ง จึง cache แค่ส่วนรายได้)
+// เงินเป็น BigDecimal ทศนิยม 2 ตำแหน่ง
+@Service
+public class TaxEngine {
+
+    // upTo = เพดานของขั้น (null = ไม่มีเพดาน)
+    public record Bracket(BigDecimal upTo, BigDecimal rate) {
+    }
+
+    public static final List<Bracket> BRACKETS = List.of(
+            new Bracket(baht(150_000), new BigDecimal("0.00")),
+            new Bracket(baht(300_000), new BigDecimal("0.05")),
+            new Bracket(baht(500_000), new BigDecimal("0.10")),
+            new Bracket(baht(750_000), new BigDecimal("0.15")),
+            new Bracket(baht(1_000_000), new BigDecimal("0.20")),
+            new Bracket(baht(2_000_000), new BigDecimal("0.25")),
+            new Bracket(baht(5_000_000), new BigDecimal("0.30")),
+            new Bracket(null, new BigDecimal("0.35")));
+
+    static final BigDecimal PERSONAL_ALLOWANCE = baht(60_000);
+    static final BigDecimal EXPENSE_RATE = new BigDecimal("0.50");
+    static final BigDecimal EXPENSE_CAP = baht(100_000);
+
+    private static final BigDecimal TEN_PERCENT = new BigDecimal("0.10");
+    private static final BigDecimal FIFTEEN_PERCENT = new BigDecimal("0.15");
+
+    // total = รายได้ทั้งปี, byCategory เรียงจากมากไปน้อย
+    public record YearIncome(int year, BigDecimal total, long entries, Map<String, BigDecimal> byCategory) {
+    }
+
+    // ภาษีในแต่ละขั้น (เฉพาะขั้นที่มีรายได้ตกถึง)
+    public record BracketTax(BigDecimal from, BigDecimal upTo, BigDecimal rate, BigDecimal taxable, BigDecimal tax) {
+    }
+
+    // field ชุดแรกตรงกับ Summary ของหน้า 08-Summary; netTax < 0 = ได้คืน
+    public record TaxSummary(int year,
+                             BigDecimal incomePerYear,
+                             BigDecimal expense50pct,
+                             BigDecimal totalDeductions,
+                             BigDecimal taxableIncome,
+                             BigDecimal taxWithheld,
+                             BigDecimal taxByBracket,
+                             BigDecimal netTax,
+                             String incomeSource,
+                             List<BracketTax> brackets) {
+    }
+
+    private record Cached(YearIncome income, long loadedAtNanos) {
+    }
+
+    private final ExpenseRepository expenses;
+    private final int maxCachedYears;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<IncomeYear, Cached> incomeCache = new ConcurrentHashMap<>();
+    // เพิ่มทุกครั้งที่ล้าง: ผลที่โหลดมาก่อนการล้างจะไม่ถูกใส่ cache (กันค่าเก่าค้าง)
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TaxEngine(ExpenseRepository expenses,
+                     @Value("${app.tax.cache-max-entries:10000}") int maxCachedYears,
+                     @Value("${app.tax.cache-ttl:PT30S}") Duration ttl) {
+        this.expenses = expenses;
+        this.maxCachedYears = maxCachedYears;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public YearIncome yearIncome(Long userId, int year) {
+        IncomeYear key = new IncomeYear(userId, year);
+        Cached cached = incomeCache.get(key);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < ttlNanos) return cached.income();
+
+        long generation = invalidations.get();
+        long loadedAt = System.nanoTime();
+        YearIncome loaded = loadYearIncome(userId, year);
+        if (invalidations.get() == generation) {
+            if (incomeCache.size() >= maxCachedYears) incomeCache.clear();
+            incomeCache.put(key, new Cached(loaded, loadedAt));
+        }
+        return loaded;
+    }
+
+    private YearIncome loadYearIncome(Long userId, int year) {
+        List<ExpenseTotal> rows = expenses.sumByCategory(userId,
+                LocalDate.of(year, 1, 1).atStartOfDay(),
+                LocalDate.of(year, 12, 31).atTime(LocalTime.MAX));
+        Map<String, BigDecimal> byCategory = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        long entries = 0;
+        for (ExpenseTotal row : rows) {
+            if (row.type() != Expense.EntryType.INCOME) continue;
+            BigDecimal amount = money(row.total());
+            byCategory.merge(row.key() == null ? "" : row.key(), amount, BigDecimal::add);
+            total = total.add(amount);
+            entries += row.count() == null ? 0 : row.count();
+        }
+        return new YearIncome(year, money(total), entries, byCategory);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        if (event.incomeYears().isEmpty()) return;
+        invalidations.incrementAndGet();
+        incomeCache.keySet().removeAll(event.incomeYears());
+    }
+
+    public TaxSummary summarize(Long userId, int year, TaxRequest req) {
+        if (req != null && req.hasIncomeOverride()) {
+            BigDecimal income = n(req.salaryPerMonth).multiply(BigDecimal.valueOf(12))
+                    .add(n(req.bonusPerYear))
+                    .add(n(req.otherIncomePerYear));
+            return compute(year, income, "request", req);
+        }
+        return compute(year, yearIncome(userId, year).total(), "entries", req == null ? new TaxRequest() : req);
+    }
+
+    public static TaxSummary compute(int year, BigDecimal incomePerYear, String incomeSource, TaxRequest req) {
+        BigDecimal income = money(incomePerYear.max(BigDecimal.ZERO));
+
+        // ค่าใช้จ่ายเหมา 50% ไม่เกิน 100,000
+        BigDecimal expenseStd = money(income.multiply(EXPENSE_RATE).min(EXPENSE_CAP));
+
+        BigDecimal fifteenPercentCap = income.multiply(FIFTEEN_PERCENT);
+        BigDecimal pvd = cap(req.pvdPerYear, fifteenPercentCap.min(baht(500_000)));
+        BigDecimal gpf = cap(req.gpfPerYear, fifteenPercentCap.min(baht(500_000)));
+        BigDecimal teacher = cap(req.teacherFundPerYear, fifteenPercentCap.min(baht(500_000)));
+        BigDecimal annuity = cap(req.annuityLifeIns, fifteenPercentCap.min(baht(200_000)));
+        // PVD + กบข. + กองทุนครู + ประกันบำนาญ รวมกันไม่เกิน 500,000 (ลดตามสัดส่วน)
+        List<BigDecimal> retirement = capGroup(List.of(pvd, gpf, teacher, annuity), baht(500_000));
+
+        BigDecimal baseDeduct = PERSONAL_ALLOWANCE
+                .add(n(req.family))
+                .add(cap(req.socialSecurityPerYear, baht(9_000)))
+                .add(cap(req.mortgageInterestPerYear, baht(100_000)))
+                .add(cap(req.nsoPerYear, baht(13_200)))
+                .add(cap(req.lifeIns, baht(100_000)))
+                .add(cap(req.healthIns, baht(25_000)))
+                .add(cap(req.parentHealthIns, baht(15_000)));
+        for (BigDecimal r : retirement) baseDeduct = baseDeduct.add(r);
+
+        // บริจาค: ทั่วไป / การศึกษา (x2) ไม่เกิน 10% ของเงินได้หลังหักค่าใช้จ่ายและลดหย่อน, พรรคการเมือง 10,000
+        BigDecimal donationBase = income.subtract(expenseStd).subtract(baseDeduct).max(BigDecimal.ZERO);
+        BigDecimal donationCap = donationBase.multiply(TEN_PERCENT);
+        BigDecimal donations = cap(req.donationGeneral, donationCap)
+                .add(cap(n(req.donationEducation).multiply(BigDecimal.valueOf(2)), donationCap))
+                .add(cap(req.donationPolitical, baht(10_000)));
+
+        BigDecimal totalDeductions = money(baseDeduct.add(donations));
+        BigDecimal taxableIncome = money(income.subtract(expenseStd).subtract(totalDeductions).max(BigDecimal.ZERO));
+
+        List<BracketTax> brackets = new ArrayList<>();
+        BigDecimal taxByBracket = BigDecimal.ZERO;
+        BigDecimal from = BigDecimal.ZERO;
+        for (Bracket b : BRACKETS) {
+            if (taxableIncome.compareTo(from) <= 0) break;
+            BigDecimal top = b.upTo() == null ? taxableIncome : taxableIncome.min(b.upTo());
+            BigDecimal inBracket = top.subtract(from);
+            BigDecimal tax = money(inBracket.multiply(b.rate()));
+            brackets.add(new BracketTax(from, b.upTo(), b.rate(), inBracket, tax));
+            taxByBracket = taxByBracket.add(tax);
+            if (b.upTo() == null) break;
+            from = b.upTo();
+        }
+
+        BigDecimal withheld = money(n(req.withheldSalaryPerYear).add(n(req.advancedTaxPaid)));
+        return new TaxSummary(year, income, expenseStd, totalDeductions, taxableIncome, withheld,
+                money(taxByBracket), money(taxByBracket.subtract(withheld)), incomeSource, brackets);
+    }
+
+    // ค่าติดลบนับเป็น 0
+    private static BigDecimal cap(BigDecimal value, BigDecimal max) {
+        return money(n(value).max(BigDecimal.ZERO).min(max));
+    }
+
+    private static List<BigDecimal> capGroup(List<BigDecimal> values, BigDecimal max) {
+        BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (sum.compareTo(max) <= 0) return values;
+        List<BigDecimal> scaled = new ArrayList<>(values.size());
+        for (BigDecimal v : values) {
+            scaled.add(v.multiply(max).divide(sum, 0, RoundingMode.FLOOR).setScale(2));
+        }
+        return scaled;
+    }
+
+    private static BigDecimal n(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+
+    private static BigDecimal money(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal baht(long v) {
+        return BigDecimal.valueOf(v).setScale(2);
+    }
+}
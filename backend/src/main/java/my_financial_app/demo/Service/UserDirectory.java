@@ -0,0 +1,127 @@
+package my_financial_app.demo.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import my_financial_app.demo.Entity.Role;
+import my_financial_app.demo.Repository.UserSummary;
+
+// รายการผู้ใช้ของหน้า admin: filter / sort / page ทำใน DB ทั้งหมด
+// - select เป็น UserSummary (ไม่มี password, ไม่สร้าง entity)
+// - WHERE มีเฉพาะเงื่อนไขที่ส่งมา -> ใช้ index ได้ (idx_users_role_created, idx_users_created_at, idx_users_last_login)
+// - sort ได้เฉพาะคอลัมน์ใน SORTABLE (+ id เป็นตัวตัดสินให้ลำดับคงที่ข้ามหน้า)
+// - COUNT(*) แพงเมื่อผู้ใช้หลักล้าน -> cache ตาม filter ไว้ count-ttl
+@Service
+public class UserDirectory {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CACHED_COUNTS = 256;
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "u.id",
+            "username", "u.username",
+            "email", "u.email",
+            "role", "u.role",
+            "createdAt", "u.createdAt",
+            "lastLogin", "u.lastLogin"
+    );
+
+    // null = ไม่กรอง; ช่วงเวลาเป็น [from, to)
+    public record Filter(Role role,
+                         LocalDateTime lastLoginFrom, LocalDateTime lastLoginTo,
+                         LocalDateTime createdFrom, LocalDateTime createdTo) {
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+
+    private final EntityManager em;
+    private final long countTtlNanos;
+    private final Map<Filter, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public UserDirectory(EntityManager em,
+                         @Value("${app.admin.users.count-ttl:PT30S}") Duration countTtl) {
+        this.em = em;
+        this.countTtlNanos = countTtl.toNanos();
+    }
+
+    // sort = "createdAt,desc" | "username" (ค่าเริ่มต้น asc); ผิดรูปแบบ -> IllegalArgumentException
+    @Transactional(readOnly = true)
+    public Page<UserSummary> list(Filter filter, int page, int size, String sort) {
+        if (page < 0) throw new IllegalArgumentException("page must be >= 0");
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException("size must be 1-" + MAX_PAGE_SIZE);
+        if ((long) page * size > Integer.MAX_VALUE) throw new IllegalArgumentException("page too large");
+        String orderBy = orderBy(sort);
+
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.role() != null) where.append(" AND u.role = :role");
+        if (filter.lastLoginFrom() != null) where.append(" AND u.lastLogin >= :lastLoginFrom");
+        if (filter.lastLoginTo() != null) where.append(" AND u.lastLogin < :lastLoginTo");
+        if (filter.createdFrom() != null) where.append(" AND u.createdAt >= :createdFrom");
+        if (filter.createdTo() != null) where.append(" AND u.createdAt < :createdTo");
+
+        TypedQuery<UserSummary> q = em.createQuery("""
+                SELECT new my_financial_app.demo.Repository.UserSummary(
+                    u.id, u.username, u.email, u.role, u.createdAt, u.lastLogin)
+                FROM User u""" + where + orderBy, UserSummary.class);
+        bind(q, filter);
+        List<UserSummary> rows = q.setFirstResult(page * size).setMaxResults(size).getResultList();
+
+        // หน้าแรกที่ไม่เต็มหน้า = รู้ total แล้วไม่ต้อง count
+        long total = (page == 0 && rows.size() < size) ? rows.size() : count(filter, where.toString());
+        return new PageImpl<>(rows, PageRequest.of(page, size), total);
+    }
+
+    private long count(Filter filter, String where) {
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(filter);
+        if (cached != null && now - cached.expiresAt() < 0) return cached.value();
+
+        TypedQuery<Long> q = em.createQuery("SELECT COUNT(u) FROM User u" + where, Long.class);
+        bind(q, filter);
+        long value = q.getSingleResult();
+
+        if (counts.size() >= MAX_CACHED_COUNTS) counts.clear();
+        counts.put(filter, new CachedCount(value, now + countTtlNanos));
+        return value;
+    }
+
+    private static void bind(TypedQuery<?> q, Filter filter) {
+        if (filter.role() != null) q.setParameter("role", filter.role());
+        if (filter.lastLoginFrom() != null) q.setParameter("lastLoginFrom", filter.lastLoginFrom());
+        if (filter.lastLoginTo() != null) q.setParameter("lastLoginTo", filter.lastLoginTo());
+        if (filter.createdFrom() != null) q.setParameter("createdFrom", filter.createdFrom());
+        if (filter.createdTo() != null) q.setParameter("createdTo", filter.createdTo());
+    }
+
+    private static String orderBy(String sort) {
+        String property = "createdAt";
+        String direction = "DESC";
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", -1);
+            property = parts[0].trim();
+            direction = parts.length > 1 ? parts[1].trim().toUpperCase(Locale.ROOT) : "ASC";
+            if (parts.length > 2 || !(direction.equals("ASC") || direction.equals("DESC"))) {
+                throw new IllegalArgumentException("sort must be <property>[,asc|desc]");
+            }
+        }
+        String column = SORTABLE.get(property);
+        if (column == null) throw new IllegalArgumentException("Cannot sort by " + property);
+        return column.equals("u.id")
+                ? " ORDER BY u.id " + direction
+                : " ORDER BY " + column + " " + direction + ", u.id " + direction;
+    }
+}
@@ -0,0 +1,30 @@
+-- คอลัมน์ / sequence / index ที่ entity ได้มาหลัง tree เดิม แต่ก่อนมี Flyway (V1 = schema ของ tree เดิมเท่านั้น)
+-- DB ที่ถูก baseline ที่ V1 จะได้ของพวกนี้จากไฟล์นี้; IF NOT EXISTS เผื่อ DB dev ที่ ddl-auto: update เติมไว้แล้วบางส่วน
+-- ต้องมาก่อน V2 (V2 แก้ชนิด repeated_transactions.frequency_unit) จึงใช้เลข 1.1
+-- SQL ชุดนี้ใช้ได้ทั้ง H2 2.x และ PostgreSQL
+
+-- ยอดคงเหลือของบัญชี (AccountLedger); NULL = ยังไม่เคยคำนวณ ใช้ amount แทน
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS balance NUMERIC(14, 2);
+
+-- id ของ expenses มาจาก sequence (Expense.ID_SEQUENCE) จองทีละ 50 = Expense.ID_ALLOCATION
+-- คอลัมน์ id เดิมเป็น IDENTITY แบบ BY DEFAULT รับค่าที่ส่งมาได้อยู่แล้ว; DataInitializer เลื่อน sequence ให้เกิน MAX(id) ตอนเริ่ม
+CREATE SEQUENCE IF NOT EXISTS expenses_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS account_id BIGINT;
+-- DB ที่ ddl-auto: update เพิ่ม FK นี้ไว้แล้วใช้ชื่อที่ Hibernate สร้าง (hash ของ expenses/accounts/account_id)
+-- ไม่มี ADD CONSTRAINT IF NOT EXISTS ใน PostgreSQL: ลบทั้งสองชื่อ (ถ้ามี) แล้วเพิ่มใหม่ = มี FK ตัวเดียวเสมอ
+ALTER TABLE expenses DROP CONSTRAINT IF EXISTS FKn24s4d0wvf06dfuslsbcjy8po;
+ALTER TABLE expenses DROP CONSTRAINT IF EXISTS fk_expenses_account;
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_account FOREIGN KEY (account_id) REFERENCES accounts (id);
+
+-- recurrence (RecurrenceMaterializer)
+ALTER TABLE repeated_transactions ADD COLUMN IF NOT EXISTS frequency_unit VARCHAR(10);
+ALTER TABLE repeated_transactions ADD COLUMN IF NOT EXISTS start_date DATE;
+ALTER TABLE repeated_transactions ADD COLUMN IF NOT EXISTS next_run_date DATE;
+
+CREATE INDEX IF NOT EXISTS idx_users_last_login ON users (last_login);
+CREATE INDEX IF NOT EXISTS idx_accounts_user_id ON accounts (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_expenses_user_occurred ON expenses (user_id, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_expenses_account ON expenses (account_id);
+CREATE INDEX IF NOT EXISTS idx_repeated_user_id ON repeated_transactions (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_repeated_next_run ON repeated_transactions (next_run_date, id);
@@ -0,0 +1,53 @@
+-- schema เริ่มต้น = สิ่งที่ Hibernate (ddl-auto: update) สร้างจาก entity ของ tree เดิม (ก่อนมี Flyway) ตรงตามนั้นทุกคอลัมน์
+-- ของที่เพิ่มทีหลัง (balance, account_id, expenses_seq, คอลัมน์ recurrence, index) อยู่ใน V1_1 เป็นต้นไป
+-- SQL ชุดนี้ใช้ได้ทั้ง H2 2.x และ PostgreSQL
+-- DB เดิมที่มีตารางอยู่แล้วจะถูก baseline ที่ version 1 (ข้ามไฟล์นี้) ดู spring.flyway ใน application.yml
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    email       VARCHAR(150) NOT NULL,
+    role        VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    last_login  TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT         NOT NULL,
+    name        VARCHAR(120)   NOT NULL,
+    type        VARCHAR(30)    NOT NULL,
+    amount      NUMERIC(14, 2) NOT NULL,
+    icon_key    VARCHAR(60),
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type            VARCHAR(20)    NOT NULL,
+    category        VARCHAR(100)   NOT NULL,
+    amount          NUMERIC(14, 2) NOT NULL,
+    note            VARCHAR(255),
+    place           VARCHAR(255)   NOT NULL,
+    payment_method  VARCHAR(100)   NOT NULL,
+    icon_key        VARCHAR(60),
+    user_id         BIGINT         NOT NULL,
+    occurred_at     TIMESTAMP(6)   NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS repeated_transactions (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT NOT NULL,
+    name            VARCHAR(255),
+    account         VARCHAR(255),
+    amount          NUMERIC(38, 2),
+    date            VARCHAR(255),
+    frequency       VARCHAR(255),
+    CONSTRAINT fk_repeated_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
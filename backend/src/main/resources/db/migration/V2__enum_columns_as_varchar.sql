@@ -0,0 +1,8 @@
+-- DB ที่ baseline มาจาก ddl-auto: update บน H2 มีคอลัมน์ enum เป็นชนิด ENUM(...)
+-- เปลี่ยนเป็น VARCHAR ให้ตรงกับ entity (@JdbcTypeCode(VARCHAR)) เพิ่มค่า enum ใหม่ได้โดยไม่ต้องแก้ schema
+-- DB ที่สร้างจาก V1 เป็น VARCHAR อยู่แล้ว คำสั่งชุดนี้ไม่เปลี่ยนอะไร
+
+ALTER TABLE users ALTER COLUMN role SET DATA TYPE VARCHAR(20);
+ALTER TABLE accounts ALTER COLUMN type SET DATA TYPE VARCHAR(30);
+ALTER TABLE expenses ALTER COLUMN type SET DATA TYPE VARCHAR(20);
+ALTER TABLE repeated_transactions ALTER COLUMN frequency_unit SET DATA TYPE VARCHAR(10);
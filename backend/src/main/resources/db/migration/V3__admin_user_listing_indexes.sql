@@ -0,0 +1,3 @@
+-- รายการผู้ใช้หน้า admin (UserDirectory) เรียงตาม created_at และกรองตาม role
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_role_created ON users (role, created_at, id);
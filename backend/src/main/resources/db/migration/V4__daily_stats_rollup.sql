@@ -0,0 +1,14 @@
+-- rollup รายวันของ expenses สำหรับหน้า dashboard (StatsEngine)
+-- 1 แถวต่อวัน (stat_date = วันของ occurred_at) ที่มีรายการ; วันที่มีการเขียนจะถูกคำนวณใหม่ทั้งแถวจาก expenses
+CREATE TABLE IF NOT EXISTS daily_stats (
+    stat_date       DATE           NOT NULL PRIMARY KEY,
+    expense_count   BIGINT         NOT NULL,
+    expense_total   NUMERIC(18, 2) NOT NULL,
+    income_count    BIGINT         NOT NULL,
+    income_total    NUMERIC(18, 2) NOT NULL,
+    active_users    BIGINT         NOT NULL,
+    refreshed_at    TIMESTAMP(6)   NOT NULL
+);
+
+-- คำนวณวันเดียวข้ามทุก user: WHERE occurred_at >= ? AND occurred_at < ?
+CREATE INDEX IF NOT EXISTS idx_expenses_occurred ON expenses (occurred_at);
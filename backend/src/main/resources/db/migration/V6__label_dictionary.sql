@@ -0,0 +1,45 @@
+-- หมวดหมู่ / ช่องทางจ่ายย้ายจากข้อความใน expenses ไปเป็นพจนานุกรม labels (entity Label, LabelDictionary)
+-- expenses เก็บแค่ id (INTEGER) -> แถว / index เล็กลง และ GROUP BY หมวดหมู่เทียบ int แทนข้อความ
+-- ชื่อเดิมที่ต่างกันแค่ช่องว่างหัวท้ายรวมเป็นชื่อเดียว (TRIM เหมือน LabelDictionary.normalize)
+-- SQL ชุดนี้ใช้ได้ทั้ง H2 2.x และ PostgreSQL
+
+CREATE TABLE IF NOT EXISTS labels (
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    kind    VARCHAR(20)  NOT NULL,
+    name    VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_labels_kind_name UNIQUE (kind, name)
+);
+
+INSERT INTO labels (kind, name)
+SELECT DISTINCT 'CATEGORY', TRIM(category) FROM expenses;
+
+INSERT INTO labels (kind, name)
+SELECT DISTINCT 'PAYMENT_METHOD', TRIM(payment_method) FROM expenses;
+
+ALTER TABLE expenses ADD COLUMN category_id INTEGER;
+ALTER TABLE expenses ADD COLUMN payment_method_id INTEGER;
+
+UPDATE expenses SET
+    category_id = (SELECT l.id FROM labels l WHERE l.kind = 'CATEGORY' AND l.name = TRIM(expenses.category)),
+    payment_method_id = (SELECT l.id FROM labels l WHERE l.kind = 'PAYMENT_METHOD' AND l.name = TRIM(expenses.payment_method));
+
+ALTER TABLE expenses ALTER COLUMN category_id SET NOT NULL;
+ALTER TABLE expenses ALTER COLUMN payment_method_id SET NOT NULL;
+ALTER TABLE expenses DROP COLUMN category;
+ALTER TABLE expenses DROP COLUMN payment_method;
+
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES labels (id);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_payment_method FOREIGN KEY (payment_method_id) REFERENCES labels (id);
+
+-- หมวดหมู่ที่ผู้ใช้สร้างเอง; listMine: WHERE user_id = ? AND type = ? ใช้ prefix ของ uk_user_categories
+CREATE TABLE IF NOT EXISTS user_categories (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    type         VARCHAR(20)  NOT NULL,
+    category_id  INTEGER      NOT NULL,
+    icon_key     VARCHAR(60),
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_user_categories UNIQUE (user_id, type, category_id),
+    CONSTRAINT fk_user_categories_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_categories_category FOREIGN KEY (category_id) REFERENCES labels (id)
+);
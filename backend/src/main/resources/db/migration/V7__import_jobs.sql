@@ -0,0 +1,22 @@
+-- สถานะงาน import (entity ImportJob) ย้ายจาก memory ของ pod ที่รับไฟล์มาไว้ใน DB: poll ผ่าน replica ไหนก็ได้
+-- last_committed_row = แถวสุดท้ายที่ commit แล้ว (บันทึกใน transaction เดียวกับ chunk) ใช้ต่อยอดงานที่ล้มกลางไฟล์
+-- ไม่มี FK ไป users: แถวอยู่แค่ job-ttl แล้วถูกลบ (StatementImportService.evictExpired)
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id                  VARCHAR(36)   NOT NULL PRIMARY KEY,
+    user_id             BIGINT        NOT NULL,
+    filename            VARCHAR(255),
+    status              VARCHAR(20)   NOT NULL,
+    created_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at         TIMESTAMP(6) WITH TIME ZONE,
+    total_bytes         BIGINT        NOT NULL,
+    bytes_read          BIGINT        NOT NULL,
+    rows_read           BIGINT        NOT NULL,
+    rows_imported       BIGINT        NOT NULL,
+    rows_skipped        BIGINT        NOT NULL,
+    last_committed_row  BIGINT        NOT NULL,
+    errors              VARCHAR(4000)
+);
+
+-- หมดอายุ: finished_at < ?, ค้าง: finished_at IS NULL AND updated_at < ?
+CREATE INDEX IF NOT EXISTS idx_import_jobs_finished ON import_jobs (finished_at, updated_at);
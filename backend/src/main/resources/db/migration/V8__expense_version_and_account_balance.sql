@@ -0,0 +1,19 @@
+-- expenses.version = optimistic lock ของ Expense (@Version): PUT/DELETE พร้อมกันบนรายการเดียวกัน
+-- ฝั่งที่มาทีหลังล้ม แทนที่จะย้อนยอด "ก่อนแก้" ชุดเดียวกันซ้ำสองครั้ง
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- รายการเก่าที่ยังไม่ผูกบัญชี: จับคู่ช่องทางจ่ายกับชื่อบัญชีของ user เดียวกัน (เหมือน AccountLedger.resolveAccount
+-- ชื่อซ้ำ = บัญชี id น้อยสุด)
+UPDATE expenses SET account_id = (
+    SELECT MIN(a.id) FROM accounts a JOIN labels l ON TRIM(a.name) = l.name
+    WHERE l.id = expenses.payment_method_id AND a.user_id = expenses.user_id)
+WHERE account_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM accounts a JOIN labels l ON TRIM(a.name) = l.name
+    WHERE l.id = expenses.payment_method_id AND a.user_id = expenses.user_id);
+
+-- คำนวณยอดคงเหลือใหม่ทุกบัญชีจากประวัติ: ยอดตั้งต้น + รายรับ - รายจ่ายที่ผูกอยู่
+-- (บัญชีที่ AccountLedger ดูแลมาแล้วได้ค่าเดิม ส่วนแถวเก่าได้ยอดที่รวมรายการย้อนหลัง ไม่ใช่แค่ยอดตั้งต้น)
+UPDATE accounts SET balance = amount + COALESCE((
+    SELECT SUM(CASE WHEN e.type = 'INCOME' THEN e.amount ELSE -e.amount END)
+    FROM expenses e WHERE e.account_id = accounts.id), 0);
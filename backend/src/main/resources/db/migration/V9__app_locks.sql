@@ -0,0 +1,8 @@
+-- แถวละหนึ่ง lock ข้าม replica: transaction ที่ SELECT ... FOR UPDATE แถวนี้ได้ก่อนทำงาน ที่เหลือรอจน commit
+-- ใช้ได้ทั้ง H2 และ PostgreSQL (pg_advisory_xact_lock ไม่มีใน H2)
+CREATE TABLE IF NOT EXISTS app_locks (
+    name    VARCHAR(64)  NOT NULL PRIMARY KEY
+);
+
+-- StatsEngine: rebuild / recompute ของ daily_stats
+INSERT INTO app_locks (name) VALUES ('daily_stats');
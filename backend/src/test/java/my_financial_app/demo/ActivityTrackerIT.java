@@ -0,0 +1,107 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.ActivityTracker;
+import my_financial_app.demo.Service.StatsEngine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ActivityTrackerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ActivityTracker activity;
+    @Autowired private StatsEngine stats;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+
+    private User john;
+
+    @BeforeEach
+    void setup() {
+        userRepo.deleteAll();
+        john = userRepo.save(new User("john", "pass123", "john@mail.com"));
+    }
+
+    @Test
+    void requests_areCoalesced_andFlushedInOneBatch() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", "john");
+
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(get("/api/expenses").session(session)).andExpect(status().isOk());
+        }
+
+        // ยังไม่เขียน DB แต่นับ active จาก memory ได้แล้ว
+        assertThat(activity.pendingCount()).isEqualTo(1);
+        assertThat(activity.activeUsersToday()).isEqualTo(1);
+        assertThat(lastLogin(john.getId())).isNull();
+
+        assertThat(activity.flush()).isEqualTo(1);
+        assertThat(lastLogin(john.getId())).isNotNull();
+        assertThat(activity.pendingCount()).isZero();
+        assertThat(activity.flush()).isZero();
+    }
+
+    @Test
+    void resync_picksUpOtherReplicas_andDropsYesterday() {
+        User jane = userRepo.save(new User("jane", "pass123", "jane@mail.com"));
+
+        // jane ใช้งานผ่าน replica อื่น (เขียนลง DB ตรง ๆ)
+        jdbc.update("UPDATE users SET last_login = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), jane.getId());
+        // john: เมื่อวานเท่านั้น ไม่นับเป็น active วันนี้
+        activity.record(john.getId(), LocalDate.now().minusDays(1).atTime(12, 0));
+
+        assertThat(activity.activeUsersToday()).isZero();
+
+        activity.resync();
+        assertThat(activity.activeUsersToday()).isEqualTo(1);
+
+        // dashboard อ่านค่าเดียวกันจาก snapshot
+        stats.refresh();
+        assertThat(stats.snapshot().activeUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void olderTimestamp_doesNotOverwriteNewerValueInDb() {
+        LocalDateTime newer = LocalDateTime.now().withNano(0);
+        jdbc.update("UPDATE users SET last_login = ? WHERE id = ?", Timestamp.valueOf(newer), john.getId());
+
+        activity.record(john.getId(), newer.minusHours(1));
+        activity.flush();
+
+        assertThat(lastLogin(john.getId())).isEqualTo(newer);
+    }
+
+    private LocalDateTime lastLogin(Long id) {
+        Timestamp ts = jdbc.queryForObject("SELECT last_login FROM users WHERE id = ?", Timestamp.class, id);
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+}
@@ -1,6 +1,7 @@
 package my_financial_app.demo;
 
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.ActivityTracker;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +37,9 @@ class AuthControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActivityTracker activityTracker;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll(); // ลบได้แล้ว เพราะ schema ใหม่ทุกครั้ง
@@ -85,6 +90,35 @@ class AuthControllerIT {
         assertThat(user.keySet()).doesNotContain("password");
     }
 
+    @Test
+    void login_lastLogin_isWrittenBehind_inBatch() {
+        rest.exchange("/api/auth/register", HttpMethod.POST, json(Map.of(
+                "username", "carol",
+                "password", "123456",
+                "email", "carol@example.com"
+        )), Map.class);
+
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<Map> res = rest.exchange("/api/auth/login", HttpMethod.POST,
+                    json(Map.of("username", "carol", "password", "123456")), Map.class);
+            assertThat(res.getStatusCode().is2xxSuccessful()).isTrue();
+        }
+
+        // ยังไม่ flush (test profile ตั้ง flush-interval ยาว) และ login ซ้ำรวมเป็นแถวเดียว
+        assertThat(userRepository.findByUsername("carol").orElseThrow().getLastLogin()).isNull();
+        assertThat(activityTracker.pendingCount()).isEqualTo(1);
+
+        assertThat(activityTracker.flush()).isEqualTo(1);
+        LocalDateTime written = userRepository.findByUsername("carol").orElseThrow().getLastLogin();
+        assertThat(written).isNotNull();
+
+        // ค่าที่เก่ากว่าไม่ทับค่าที่อยู่ใน DB
+        Long id = userRepository.findByUsername("carol").orElseThrow().getId();
+        activityTracker.record(id, written.minusDays(1));
+        activityTracker.flush();
+        assertThat(userRepository.findByUsername("carol").orElseThrow().getLastLogin()).isEqualTo(written);
+    }
+
     @Test
     void login_fail_when_wrong_password() {
         // สมัครก่อนผ่าน API เพื่อจำลอง flow จริง
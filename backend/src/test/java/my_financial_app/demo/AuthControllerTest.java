@@ -4,32 +4,42 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import my_financial_app.demo.Controller.AuthController;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Security.LoginRateLimiter;
+import my_financial_app.demo.Security.PasswordHasher;
+import my_financial_app.demo.Service.ActivityTracker;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @AutoConfigureMockMvc(addFilters = false)
-@WebMvcTest(AuthController.class)
+@WebMvcTest(value = AuthController.class, properties = "app.security.bcrypt.strength=4")
+@Import({PasswordHasher.class, LoginRateLimiter.class})
 class  AuthControllerTest {
 
     @Autowired MockMvc mvc;
     @Autowired ObjectMapper om;
+    @Autowired PasswordHasher hasher;
 
     @MockBean UserRepository userRepository;
+    @MockBean ActivityTracker activityTracker;
 
     private String toJson(Object o) throws Exception { return om.writeValueAsString(o); }
 
@@ -53,7 +63,6 @@ class  AuthControllerTest {
         User user = mkUser(1L, "ken", "ken@example.com", "pass123");
 
         Mockito.when(userRepository.findByUsernameOrEmail("ken","ken")).thenReturn(Optional.of(user));
-        Mockito.when(userRepository.save(ArgumentMatchers.any(User.class))).thenReturn(user);
 
         mvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -62,6 +71,50 @@ class  AuthControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.user.username").value("ken"))
                 .andExpect(request().sessionAttribute("username", "ken"));
+
+        // lastLogin ไปทาง write-behind ไม่ save ทั้ง entity
+        Mockito.verify(activityTracker).record(ArgumentMatchers.eq(1L), ArgumentMatchers.any(LocalDateTime.class));
+        Mockito.verify(userRepository, Mockito.never()).save(ArgumentMatchers.any(User.class));
+    }
+
+    @Test
+    void login_legacyPlaintextPassword_isRehashedWithBcrypt() throws Exception {
+        User user = mkUser(1L, "ken", "ken@example.com", "pass123");
+
+        Mockito.when(userRepository.findByUsernameOrEmail("ken","ken")).thenReturn(Optional.of(user));
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(Map.of("username","ken","password","pass123"))))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(userRepository).updatePassword(ArgumentMatchers.eq(1L), rehashed.capture());
+        assertThat(rehashed.getValue()).startsWith("$2a$04$");
+        assertThat(hasher.verify("pass123", rehashed.getValue())).isTrue();
+        Mockito.verify(activityTracker).record(ArgumentMatchers.eq(1L), ArgumentMatchers.any(LocalDateTime.class));
+    }
+
+    @Test
+    void login_bcryptPassword_success_withoutRehash() throws Exception {
+        String stored = hasher.hash("pass123");
+        User user = mkUser(1L, "ken", "ken@example.com", stored);
+
+        Mockito.when(userRepository.findByUsernameOrEmail("ken","ken")).thenReturn(Optional.of(user));
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(Map.of("username","ken","password","pass123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        assertThat(user.getPassword()).isEqualTo(stored);
+        Mockito.verify(userRepository, Mockito.never()).updatePassword(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString());
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(Map.of("username","ken","password","wrong"))))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -101,6 +154,29 @@ class  AuthControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void login_tooManyAttempts_returns429_withoutTouchingDb() throws Exception {
+        Mockito.when(userRepository.findByUsernameOrEmail("mallory","mallory")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 10; i++) {
+            mvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(Map.of("username","mallory","password","guess" + i))))
+                    .andExpect(status().isBadRequest());
+        }
+
+        // ตัวพิมพ์ต่างกันนับเป็น identifier เดียวกัน
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(Map.of("username","Mallory","password","guess"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.success").value(false));
+
+        Mockito.verify(userRepository, Mockito.times(10)).findByUsernameOrEmail("mallory","mallory");
+        Mockito.verify(userRepository, Mockito.never()).findByUsernameOrEmail("Mallory","Mallory");
+    }
+
     // ---------- /api/auth/register ----------
     @Test
     void register_success() throws Exception {
@@ -116,6 +192,12 @@ class  AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.user.id").value(10));
+
+        // เก็บเป็น hash ไม่ใช่ plaintext
+        ArgumentCaptor<User> toSave = ArgumentCaptor.forClass(User.class);
+        Mockito.verify(userRepository).save(toSave.capture());
+        assertThat(toSave.getValue().getPassword()).isNotEqualTo("pass123");
+        assertThat(hasher.verify("pass123", toSave.getValue().getPassword())).isTrue();
     }
 
     @Test
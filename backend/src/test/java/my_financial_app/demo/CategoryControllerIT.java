@@ -0,0 +1,182 @@
+package my_financial_app.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.Label;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Entity.UserCategory;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserCategoryRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.LabelDictionary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CategoryControllerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper om;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private UserCategoryRepository categoryRepo;
+    @Autowired private LabelDictionary labels;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager txManager;
+
+    private MockHttpSession session;
+    private User john;
+
+    @BeforeEach
+    void setup() {
+        cleanup();
+        john = userRepo.save(new User("john", "pass123", "john@mail.com"));
+        userRepo.save(new User("jane", "pass123", "jane@mail.com"));
+
+        session = new MockHttpSession();
+        session.setAttribute("username", "john");
+    }
+
+    // IT อื่นลบ users ก่อนเริ่ม: ไม่ทิ้ง user_categories ที่อ้าง user ไว้
+    @AfterEach
+    void cleanup() {
+        categoryRepo.deleteAll();
+        expenseRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    private String category(String name, String type, String iconKey) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", name);
+        body.put("type", type);
+        body.put("iconKey", iconKey);
+        return om.writeValueAsString(body);
+    }
+
+    @Test
+    void withoutSession_is401() throws Exception {
+        mvc.perform(get("/api/categories"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void create_list_upsert_delete() throws Exception {
+        String json = mvc.perform(post("/api/categories").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(category(" ขายของออนไลน์ ", "income", "Store")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("ขายของออนไลน์"))
+                .andExpect(jsonPath("$.type").value("INCOME"))
+                .andReturn().getResponse().getContentAsString();
+        long id = om.readTree(json).get("id").asLong();
+
+        // ชื่อเดิม = แก้ไอคอนของอันเดิม
+        mvc.perform(post("/api/categories").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(category("ขายของออนไลน์", "รายได้", "Package")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.iconKey").value("Package"));
+
+        mvc.perform(post("/api/categories").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(category("ขายของออนไลน์", "expense", "Store")))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/categories").param("type", "income").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(id));
+
+        // ของคนอื่นลบไม่ได้
+        MockHttpSession jane = new MockHttpSession();
+        jane.setAttribute("username", "jane");
+        mvc.perform(delete("/api/categories/" + id).session(jane))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(delete("/api/categories/" + id).session(session))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/api/categories").param("type", "income").session(session))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void expenses_storeLabelIds_andGroupByTrimmedName() throws Exception {
+        for (String cat : new String[]{"อาหาร", " อาหาร ", "เดินทาง"}) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("type", "EXPENSE");
+            body.put("category", cat);
+            body.put("amount", 100);
+            body.put("place", "ร้าน");
+            body.put("occurredAt", "2025-05-01T12:00:00");
+            body.put("paymentMethod", "เงินสด");
+            mvc.perform(post("/api/expenses").session(session)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(body)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.category").value(cat.trim()))
+                    .andExpect(jsonPath("$.paymentMethod").value("เงินสด"));
+        }
+
+        int food = labels.idOf(Label.Kind.CATEGORY, "อาหาร");
+        assertThat(labels.nameOf(food)).isEqualTo("อาหาร");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM expenses WHERE category_id = ?", Long.class, food))
+                .isEqualTo(2);
+
+        mvc.perform(get("/api/expenses/summary").param("groupBy", "category")
+                        .param("start", "2025-05-01").param("end", "2025-05-31").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets.length()").value(2))
+                .andExpect(jsonPath("$.buckets[0].key").value("อาหาร"))
+                .andExpect(jsonPath("$.buckets[0].total").value(200.0));
+    }
+
+    @Test
+    void readOnlyLookup_doesNotInsertLabel_andRolledBackLabel_isNotCached() {
+        long before = jdbc.queryForObject("SELECT COUNT(*) FROM labels", Long.class);
+
+        // ชื่อที่ไม่มีในตาราง ใช้ค้นหาใน readOnly ได้ (ไม่ตรงกับอะไร) แต่ไม่เพิ่มแถว
+        TransactionTemplate readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        Optional<UserCategory> missing = readOnly.execute(status ->
+                categoryRepo.findByUserIdAndTypeAndName(john.getId(), Expense.EntryType.INCOME, "ยังไม่มีชื่อนี้"));
+        assertThat(missing).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM labels", Long.class)).isEqualTo(before);
+
+        // INSERT อยู่ใน transaction ของผู้เรียก: rollback แล้วทั้งแถวและ id ใน cache ต้องหาย
+        new TransactionTemplate(txManager).executeWithoutResult(status -> {
+            int id = labels.idOf(Label.Kind.CATEGORY, "ชั่วคราว");
+            assertThat(labels.nameOf(id)).isEqualTo("ชั่วคราว");
+            status.setRollbackOnly();
+        });
+        assertThat(labels.find(Label.Kind.CATEGORY, "ชั่วคราว")).isNull();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM labels", Long.class)).isEqualTo(before);
+    }
+}
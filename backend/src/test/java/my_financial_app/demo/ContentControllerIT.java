@@ -3,6 +3,7 @@ package my_financial_app.demo;
 import my_financial_app.demo.Entity.Role;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.StatsEngine;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +40,9 @@ class ContentControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StatsEngine statsEngine;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -78,6 +82,7 @@ class ContentControllerIT {
     void getDashboardStats_ok_returnsStats() throws Exception {
         mkUser("bob", "bob@ex.com");
         mkUser("cate", "cate@ex.com");
+        statsEngine.refresh();   // ค่าใน snapshot อัปเดตตามรอบ refresh ไม่ใช่ทุก request
 
         mvc.perform(get("/api/dashboard/stats").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -85,8 +90,11 @@ class ContentControllerIT {
                 .andExpect(jsonPath("$.totalUsers").value(2))
                 .andExpect(jsonPath("$.activeUsers").exists())
                 .andExpect(jsonPath("$.totalOrders").exists())
-                .andExpect(jsonPath("$.revenue").exists())
-                .andExpect(jsonPath("$.userGrowth").exists());
+                .andExpect(jsonPath("$.totalOrders").value(0))
+                .andExpect(jsonPath("$.revenue").value(0))
+                .andExpect(jsonPath("$.newUsers").value(2))
+                .andExpect(jsonPath("$.userGrowth").value(100.0))
+                .andExpect(jsonPath("$.refreshedAt").exists());
     }
 
     // ---------- /api/users/list ----------
@@ -95,7 +103,7 @@ class ContentControllerIT {
         mkUser("bob", "bob@ex.com");
         mkUser("cate", "cate@ex.com");
 
-        mvc.perform(get("/api/users/list").param("page", "1").param("size", "5"))
+        mvc.perform(get("/api/users/list").param("page", "0").param("size", "5").param("sort", "username,asc"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.total").value(2))
@@ -104,6 +112,46 @@ class ContentControllerIT {
                 .andExpect(jsonPath("$.users[0].password").doesNotExist());
     }
 
+    @Test
+    void getUsersList_pagesFiltersAndSortsInDatabase() throws Exception {
+        for (int i = 0; i < 7; i++) mkUser("user" + i, "user" + i + "@ex.com");
+        User admin = mkUser("root", "root@ex.com");
+        admin.setRole(Role.ADMIN);
+        userRepository.save(admin);
+
+        // หน้าที่สอง ขนาด 3 เรียงตาม username จากมากไปน้อย: user6, user5, user4 | user3, user2, user1 | user0, root
+        mvc.perform(get("/api/users/list").param("page", "1").param("size", "3").param("sort", "username,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(8))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.users.length()").value(3))
+                .andExpect(jsonPath("$.users[0].username").value("user3"))
+                .andExpect(jsonPath("$.users[2].username").value("user1"));
+
+        mvc.perform(get("/api/users/list").param("role", "admin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.users[0].username").value("root"))
+                .andExpect(jsonPath("$.users[0].role").value("ADMIN"));
+
+        mvc.perform(get("/api/users/list").param("createdFrom", "2000-01-01").param("lastLoginFrom", "2000-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0)); // ยังไม่มีใคร login
+    }
+
+    @Test
+    void getUsersList_unknownSortOrRole_returns400() throws Exception {
+        mvc.perform(get("/api/users/list").param("sort", "password,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        mvc.perform(get("/api/users/list").param("role", "ROOT"))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/api/users/list").param("size", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getUsersList_empty_returnsZeroAndEmptyArray() throws Exception {
         mvc.perform(get("/api/users/list").param("page", "0").param("size", "10"))
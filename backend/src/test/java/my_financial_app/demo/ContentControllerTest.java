@@ -5,16 +5,25 @@ import my_financial_app.demo.Controller.ContentController;
 import my_financial_app.demo.Entity.Role;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Repository.UserSummary;
+import my_financial_app.demo.Service.ActivityTracker;
+import my_financial_app.demo.Service.StatsEngine;
+import my_financial_app.demo.Service.UserDirectory;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +39,9 @@ class ContentControllerTest {
     @Autowired ObjectMapper om;
 
     @MockBean UserRepository userRepository;
+    @MockBean UserDirectory userDirectory;
+    @MockBean StatsEngine statsEngine;
+    @MockBean ActivityTracker activityTracker;
 
     // -------- helper: set field via reflection (id / role) --------
     private User mkUser(Long id, String username, String email) {
@@ -84,30 +96,34 @@ class ContentControllerTest {
 
     // ---------- GET /api/dashboard/stats ----------
     @Test
-    void getDashboardStats_ok_includesKeyNumbers() throws Exception {
-        when(userRepository.count()).thenReturn(100L);
-        when(userRepository.countActiveUsersToday()).thenReturn(7L);
+    void getDashboardStats_ok_servedFromSnapshot() throws Exception {
+        when(statsEngine.snapshot()).thenReturn(new StatsEngine.Snapshot(
+                100, 7, 12, 20.0,
+                340, new BigDecimal("5000.00"), new BigDecimal("3200.50"),
+                40, new BigDecimal("900.00"), -12.5,
+                30, Instant.parse("2025-03-31T00:00:00Z")));
 
         mvc.perform(get("/api/dashboard/stats"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.totalUsers").value(100))
                 .andExpect(jsonPath("$.activeUsers").value(7))
-                .andExpect(jsonPath("$.totalOrders").exists())
-                .andExpect(jsonPath("$.revenue").exists())
-                .andExpect(jsonPath("$.userGrowth").exists());
+                .andExpect(jsonPath("$.totalOrders").value(340))
+                .andExpect(jsonPath("$.revenue").value(8200.50))
+                .andExpect(jsonPath("$.userGrowth").value(20.0))
+                .andExpect(jsonPath("$.volumeGrowth").value(-12.5))
+                .andExpect(jsonPath("$.periodDays").value(30));
 
-        verify(userRepository).count();
-        verify(userRepository).countActiveUsersToday();
-        verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(userRepository);
     }
 
     // ---------- GET /api/users/list ----------
     @Test
     void getUsersList_ok_returnsUsersAndPagingEcho() throws Exception {
-        var u1 = mkUser(1L, "bob", "bob@ex.com");
-        var u2 = mkUser(2L, "cate", "cate@ex.com");
-        when(userRepository.findAll()).thenReturn(List.of(u1, u2));
+        var u1 = new UserSummary(1L, "bob", "bob@ex.com", Role.USER, null, null);
+        var u2 = new UserSummary(2L, "cate", "cate@ex.com", Role.USER, null, null);
+        when(userDirectory.list(any(), eq(2), eq(5), eq("createdAt,desc")))
+                .thenReturn(new PageImpl<>(List.of(u1, u2), PageRequest.of(2, 5), 12));
 
         mvc.perform(get("/api/users/list")
                         .param("page", "2")
@@ -115,7 +131,8 @@ class ContentControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.total").value(12))
+                .andExpect(jsonPath("$.totalPages").value(3))
                 .andExpect(jsonPath("$.page").value(2))
                 .andExpect(jsonPath("$.size").value(5))
                 .andExpect(jsonPath("$.users[0].id").value(1))
@@ -123,8 +140,25 @@ class ContentControllerTest {
                 .andExpect(jsonPath("$.users[1].id").value(2))
                 .andExpect(jsonPath("$.users[1].username").value("cate"));
 
-        verify(userRepository).findAll();
-        verifyNoMoreInteractions(userRepository);
+        verify(userDirectory).list(any(), eq(2), eq(5), eq("createdAt,desc"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUsersList_passesFiltersAsHalfOpenRanges() throws Exception {
+        when(userDirectory.list(any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        mvc.perform(get("/api/users/list")
+                        .param("role", "admin")
+                        .param("createdFrom", "2025-01-01")
+                        .param("createdTo", "2025-01-31")
+                        .param("sort", "lastLogin,asc"))
+                .andExpect(status().isOk());
+
+        verify(userDirectory).list(eq(new UserDirectory.Filter(Role.ADMIN, null, null,
+                        LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0))),
+                eq(0), eq(10), eq("lastLogin,asc"));
     }
 
     // ---------- GET /api/public/health ----------
@@ -1,8 +1,10 @@
 package my_financial_app.demo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Entity.Account;
 import my_financial_app.demo.Entity.Expense;
 import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.AccountRepository;
 import my_financial_app.demo.Repository.ExpenseRepository;
 import my_financial_app.demo.Repository.UserRepository;
 
@@ -25,6 +27,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +49,7 @@ class ExpenseControllerIT {
     @Autowired private ObjectMapper om;
     @Autowired private UserRepository userRepo;
     @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private AccountRepository accountRepo;
 
     private MockHttpSession session;
     private User user;
@@ -58,11 +65,13 @@ class ExpenseControllerIT {
         public String paymentMethod;
         public String iconKey;
         public OffsetDateTime createdAt; // จำเป็นต้องมี
+        public Long accountId;
     }
 
     @BeforeEach
     void setup() {
         expenseRepo.deleteAll();
+        accountRepo.deleteAll();
         userRepo.deleteAll();
 
         user = new User("john", "pass123", "john@mail.com");
@@ -103,6 +112,72 @@ class ExpenseControllerIT {
         assertThat(expenseRepo.findAll()).hasSize(1);
     }
 
+    @Test
+    void list_returnsProjectedRows_withAndWithoutAccount() throws Exception {
+        Account acc = new Account();
+        acc.setUser(user);
+        acc.setName("กระเป๋าเงิน");
+        acc.setType(Account.AccountType.CASH);
+        acc.setAmount(new BigDecimal("1000.00"));
+        accountRepo.save(acc);
+
+        var withAccount = req();
+        withAccount.accountId = acc.getId();
+        withAccount.occurredAt = withAccount.occurredAt.plusHours(1);
+        for (var body : List.of(req(), withAccount)) {
+            mvc.perform(post("/api/expenses").session(session)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(body)))
+                    .andExpect(status().isOk());
+        }
+
+        // แถวที่ไม่ผูกบัญชีต้องยังอยู่ (accountId อ่านจาก FK ไม่ใช่ inner join) และไม่มีฟิลด์ที่ frontend ไม่ใช้
+        mvc.perform(get("/api/expenses").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].accountId").value(acc.getId()))
+                .andExpect(jsonPath("$[0].userId").value(user.getId()))
+                .andExpect(jsonPath("$[0].category").value("อาหาร"))
+                .andExpect(jsonPath("$[1].accountId").doesNotExist())
+                .andExpect(jsonPath("$[1].createdAt").doesNotExist());
+    }
+
+    @Test
+    void listByRange_withoutLimit_returnsBoundedPages() throws Exception {
+        List<Expense> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Expense e = new Expense();
+            e.setUser(user);
+            e.setType(Expense.EntryType.EXPENSE);
+            e.setCategory("อาหาร");
+            e.setAmount(new BigDecimal("10.00"));
+            e.setPlace("ร้าน " + i);
+            e.setPaymentMethod("CASH");
+            e.setOccurredAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            rows.add(e);
+        }
+        expenseRepo.saveAll(rows);
+
+        // ช่วงกว้างแค่ไหนก็ได้หน้าแรก 100 แถว + cursor ไม่ใช่ทั้งช่วง
+        String next = mvc.perform(get("/api/expenses/range").session(session)
+                        .param("start", "2000-01-01").param("end", "2099-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(100))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mvc.perform(get("/api/expenses/range").session(session)
+                        .param("start", "2000-01-01").param("end", "2099-12-31").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mvc.perform(get("/api/expenses/range").session(session)
+                        .param("start", "2000-01-01").param("end", "2099-12-31").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(120));
+    }
+
     @Test
     void create_unauthorized() throws Exception {
         mvc.perform(post("/api/expenses")
@@ -111,6 +186,69 @@ class ExpenseControllerIT {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void create_withAccount_updatesBalance_andDeleteRestoresIt() throws Exception {
+        Account acc = new Account();
+        acc.setUser(user);
+        acc.setName("กระเป๋าเงิน");
+        acc.setType(Account.AccountType.CASH);
+        acc.setAmount(new BigDecimal("1000.00"));
+        acc.setBalance(new BigDecimal("1000.00"));
+        accountRepo.save(acc);
+
+        var body = req();
+        body.accountId = acc.getId();
+
+        String json = mvc.perform(post("/api/expenses")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(acc.getId()))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("900.00");
+
+        long expenseId = om.readTree(json).get("id").asLong();
+        mvc.perform(delete("/api/expenses/" + expenseId).session(session))
+                .andExpect(status().isNoContent());
+
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void updateAccountAmount_returnsBalanceIncludingLinkedExpenses() throws Exception {
+        Account acc = new Account();
+        acc.setUser(user);
+        acc.setName("กระเป๋าเงิน");
+        acc.setType(Account.AccountType.CASH);
+        acc.setAmount(new BigDecimal("1000.00"));
+        acc.setBalance(new BigDecimal("1000.00"));
+        accountRepo.save(acc);
+
+        var body = req();
+        body.accountId = acc.getId();
+        mvc.perform(post("/api/expenses")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(body)))
+                .andExpect(status().isOk());
+
+        // ยอดตั้งต้น +500 -> ยอดคงเหลือ 900 + 500 (อ่านกลับจาก DB ไม่ใช่คำนวณจาก entity ในมือ)
+        Map<String, Object> update = Map.of("name", "กระเป๋าเงิน", "type", "cash", "amount", 1500.0);
+        mvc.perform(put("/api/accounts/" + acc.getId())
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1400.0));
+
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("1400.00");
+    }
+
     // ---------------- INCOME ----------------
 
     @Test
@@ -189,6 +327,81 @@ class ExpenseControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+    // ---------------- BATCH ----------------
+
+    @Test
+    void batch_createUpdateDelete_keepsBalanceInSync() throws Exception {
+        Account acc = new Account();
+        acc.setUser(user);
+        acc.setName("CASH");
+        acc.setType(Account.AccountType.CASH);
+        acc.setAmount(new BigDecimal("1000.00"));
+        acc.setBalance(new BigDecimal("1000.00"));
+        accountRepo.save(acc);
+
+        List<CreateExpenseRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) rows.add(req()); // paymentMethod "CASH" -> ผูกบัญชีตามชื่อ
+
+        String json = mvc.perform(post("/api/expenses/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(rows)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(120))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(expenseRepo.count()).isEqualTo(120);
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("-11000.00");
+
+        List<Long> ids = new ArrayList<>();
+        om.readTree(json).forEach(n -> ids.add(n.get("id").asLong()));
+        assertThat(ids).doesNotHaveDuplicates();
+
+        List<Map<String, Object>> updates = new ArrayList<>();
+        for (Long id : ids.subList(0, 10)) {
+            Map<String, Object> row = new LinkedHashMap<>(om.convertValue(req(), Map.class));
+            row.put("id", id);
+            row.put("type", "INCOME");
+            updates.add(row);
+        }
+        mvc.perform(put("/api/expenses/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(updates)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("INCOME"));
+
+        // 10 แถวเปลี่ยนจาก -100 เป็น +100
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("-9000.00");
+
+        mvc.perform(delete("/api/expenses/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(120));
+
+        assertThat(expenseRepo.count()).isZero();
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void batch_create_invalidRow_rollsBackEverything() throws Exception {
+        var bad = req();
+        bad.occurredAt = null;
+
+        mvc.perform(post("/api/expenses/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(List.of(req(), bad))))
+                .andExpect(status().isBadRequest());
+
+        assertThat(expenseRepo.count()).isZero();
+    }
+
     // ---------------- SESSION USER NOT FOUND ----------------
 
     @Test
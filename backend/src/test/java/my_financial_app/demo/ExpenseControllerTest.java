@@ -2,11 +2,17 @@ package my_financial_app.demo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import my_financial_app.demo.Controller.ExpenseController;
+import my_financial_app.demo.Controller.ExpenseCursor;
 import my_financial_app.demo.Entity.Expense;
 import my_financial_app.demo.Entity.Role;
 import my_financial_app.demo.Entity.User;
 import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseTotal;
+import my_financial_app.demo.Repository.ExpenseView;
 import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.AccountLedger;
+import my_financial_app.demo.Service.ActivityTracker;
+import my_financial_app.demo.Service.ExpenseBatchService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
@@ -14,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +45,9 @@ class ExpenseControllerTest {
 
     @MockBean ExpenseRepository expenseRepository;
     @MockBean UserRepository userRepository;
+    @MockBean AccountLedger accountLedger;
+    @MockBean ExpenseBatchService expenseBatchService;
+    @MockBean ActivityTracker activityTracker;
 
     private String toJson(Object o) throws Exception { return om.writeValueAsString(o); }
 
@@ -74,6 +84,11 @@ class ExpenseControllerTest {
         return e;
     }
 
+    // แถวที่ repository คืนให้หน้ารายการ
+    private ExpenseView mkView(Long id, User owner, Expense.EntryType type, String category, double amount, LocalDateTime occurredAt) {
+        return ExpenseView.of(mkExpense(id, owner, type, category, amount, occurredAt));
+    }
+
     private MockHttpSession sessionAs(String username) {
         MockHttpSession s = new MockHttpSession();
         s.setAttribute("username", username);
@@ -187,15 +202,87 @@ class ExpenseControllerTest {
         var user = mkUser(1L, "ken");
         Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
 
-        var e1 = mkExpense(1L, user, Expense.EntryType.EXPENSE, "อาหาร", 10, LocalDateTime.parse("2025-01-02T10:00:00"));
-        var e2 = mkExpense(2L, user, Expense.EntryType.EXPENSE, "เดินทาง", 20, LocalDateTime.parse("2025-01-03T11:00:00"));
+        var e1 = mkView(2L, user, Expense.EntryType.EXPENSE, "เดินทาง", 20, LocalDateTime.parse("2025-01-03T11:00:00"));
+        var e2 = mkView(1L, user, Expense.EntryType.EXPENSE, "อาหาร", 10, LocalDateTime.parse("2025-01-02T10:00:00"));
 
-        Mockito.when(expenseRepository.findByUserIdOrderByOccurredAtDesc(1L))
+        Mockito.when(expenseRepository.findByUserIdOrderByOccurredAtDescIdDesc(Mockito.eq(1L), ArgumentMatchers.any()))
                 .thenReturn(List.of(e1, e2));
 
         mvc.perform(get("/api/expenses").session(sessionAs("ken")))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        // ไม่ส่ง limit = หน้าละ 100 (+1 ไว้ดูว่ามีหน้าถัดไป) ไม่ใช่ทั้งหมด
+        Mockito.verify(expenseRepository).findByUserIdOrderByOccurredAtDescIdDesc(1L, PageRequest.ofSize(101));
+        Mockito.verify(expenseRepository, Mockito.never()).findByUserIdOrderByOccurredAtDesc(Mockito.anyLong());
+    }
+
+    @Test
+    void listMine_all_returnsEverythingInOneResponse() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        var e1 = mkView(2L, user, Expense.EntryType.EXPENSE, "เดินทาง", 20, LocalDateTime.parse("2025-01-03T11:00:00"));
+        var e2 = mkView(1L, user, Expense.EntryType.EXPENSE, "อาหาร", 10, LocalDateTime.parse("2025-01-02T10:00:00"));
+        Mockito.when(expenseRepository.findByUserIdOrderByOccurredAtDesc(1L)).thenReturn(List.of(e1, e2));
+
+        mvc.perform(get("/api/expenses").param("all", "true").session(sessionAs("ken")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void listMine_withLimit_returnsPageAndNextCursor() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        var e1 = mkView(3L, user, Expense.EntryType.EXPENSE, "อาหาร", 10, LocalDateTime.parse("2025-01-03T10:00:00"));
+        var e2 = mkView(2L, user, Expense.EntryType.EXPENSE, "เดินทาง", 20, LocalDateTime.parse("2025-01-02T11:00:00"));
+        var e3 = mkView(1L, user, Expense.EntryType.EXPENSE, "อื่น ๆ", 30, LocalDateTime.parse("2025-01-01T12:00:00"));
+
+        Mockito.when(expenseRepository.findByUserIdOrderByOccurredAtDescIdDesc(Mockito.eq(1L), ArgumentMatchers.any()))
+                .thenReturn(List.of(e1, e2, e3));
+
+        String next = new ExpenseCursor(LocalDateTime.parse("2025-01-02T11:00:00"), 2L).encode();
+
+        mvc.perform(get("/api/expenses").param("limit", "2").session(sessionAs("ken")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Next-Cursor", next));
+
+        Mockito.when(expenseRepository.findPageAfter(
+                        Mockito.eq(1L), Mockito.eq(LocalDateTime.parse("2025-01-02T11:00:00")), Mockito.eq(2L), ArgumentMatchers.any()))
+                .thenReturn(List.of(e3));
+
+        mvc.perform(get("/api/expenses").param("limit", "2").param("cursor", next).session(sessionAs("ken")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void listMine_invalidCursor_returns400() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        mvc.perform(get("/api/expenses").param("cursor", "not-a-cursor").session(sessionAs("ken")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listMine_cachesSessionUser_singleLookupPerSession() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+        Mockito.when(expenseRepository.findByUserIdOrderByOccurredAtDescIdDesc(Mockito.eq(1L), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+
+        MockHttpSession session = sessionAs("ken");
+        mvc.perform(get("/api/expenses").session(session)).andExpect(status().isOk());
+        mvc.perform(get("/api/expenses").session(session)).andExpect(status().isOk());
+
+        Mockito.verify(userRepository, Mockito.times(1)).findByUsername("ken");
     }
 
     @Test
@@ -210,14 +297,15 @@ class ExpenseControllerTest {
         var user = mkUser(1L, "ken");
         Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
 
-        var e = mkExpense(
+        var e = mkView(
                 3L, user, Expense.EntryType.EXPENSE,
                 "อื่น ๆ", 33, LocalDateTime.parse("2025-01-03T13:00:00")
         );
 
-        Mockito.when(expenseRepository.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(
+        Mockito.when(expenseRepository.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDescIdDesc(
                 Mockito.eq(1L),
                 ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
                 ArgumentMatchers.any()
         )).thenReturn(List.of(e));
 
@@ -226,7 +314,86 @@ class ExpenseControllerTest {
                         .param("end", "2025-01-31")
                         .session(sessionAs("ken")))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        // เหมือน listMine: ไม่ส่ง limit = หน้าละ 100 ไม่ใช่ทั้งช่วง
+        Mockito.verify(expenseRepository).findByUserIdAndOccurredAtBetweenOrderByOccurredAtDescIdDesc(
+                Mockito.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any(), Mockito.eq(PageRequest.ofSize(101)));
+        Mockito.verify(expenseRepository, Mockito.never()).findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(
+                Mockito.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void listByRange_all_returnsWholeRangeInOneResponse() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        var e = mkView(3L, user, Expense.EntryType.EXPENSE, "อื่น ๆ", 33, LocalDateTime.parse("2025-01-03T13:00:00"));
+        Mockito.when(expenseRepository.findByUserIdAndOccurredAtBetweenOrderByOccurredAtDesc(
+                Mockito.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(List.of(e));
+
+        mvc.perform(get("/api/expenses/range")
+                        .param("start", "2025-01-01")
+                        .param("end", "2025-01-31")
+                        .param("all", "true")
+                        .session(sessionAs("ken")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    // SUMMARY
+    @Test
+    void summary_byMonth_returnsBucketsAndTotals() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        Mockito.when(expenseRepository.sumByMonth(Mockito.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(
+                        new ExpenseTotal(2025, 1, Expense.EntryType.EXPENSE, new BigDecimal("150.00"), 3L),
+                        new ExpenseTotal(2025, 1, Expense.EntryType.INCOME, new BigDecimal("1000.00"), 1L)
+                ));
+
+        mvc.perform(get("/api/expenses/summary")
+                        .param("groupBy", "month")
+                        .param("start", "2025-01-01")
+                        .param("end", "2025-01-31")
+                        .session(sessionAs("ken")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets", hasSize(2)))
+                .andExpect(jsonPath("$.buckets[0].key").value("2025-01"))
+                .andExpect(jsonPath("$.totals.EXPENSE").value(150.00))
+                .andExpect(jsonPath("$.net").value(850.00));
+    }
+
+    @Test
+    void summary_invalidGroupBy_returns400() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        mvc.perform(get("/api/expenses/summary")
+                        .param("groupBy", "weekday")
+                        .session(sessionAs("ken")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void summaryAndRange_malformedDate_returns400() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+
+        mvc.perform(get("/api/expenses/summary")
+                        .param("start", "2025-13-01")
+                        .session(sessionAs("ken")))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid date: 2025-13-01"));
+
+        mvc.perform(get("/api/expenses/range")
+                        .param("start", "2025-01-01")
+                        .param("end", "31/01/2025")
+                        .session(sessionAs("ken")))
+                .andExpect(status().isBadRequest());
     }
 
     // UPDATE — not found
@@ -327,4 +494,34 @@ class ExpenseControllerTest {
         mvc.perform(delete("/api/expenses/7").session(sessionAs("ken")))
                 .andExpect(status().isNoContent());
     }
+
+    // BATCH
+    @Test
+    void createBatch_invalidRow_returns400WithMessage() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+        Mockito.when(expenseBatchService.createAll(ArgumentMatchers.eq(1L), ArgumentMatchers.anyList()))
+                .thenThrow(new IllegalArgumentException("Row 1: occurredAt is required"));
+
+        mvc.perform(post("/api/expenses/batch")
+                        .session(sessionAs("ken"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"category\":\"อาหาร\",\"amount\":1},{\"category\":\"อาหาร\",\"amount\":2}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Row 1: occurredAt is required"));
+    }
+
+    @Test
+    void deleteBatch_returnsDeletedCount() throws Exception {
+        var user = mkUser(1L, "ken");
+        Mockito.when(userRepository.findByUsername("ken")).thenReturn(Optional.of(user));
+        Mockito.when(expenseBatchService.deleteAll(1L, List.of(7L, 8L))).thenReturn(2);
+
+        mvc.perform(delete("/api/expenses/batch")
+                        .session(sessionAs("ken"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[7,8]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
 }
@@ -0,0 +1,136 @@
+package my_financial_app.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ใช้ context เดียวกับ ExpenseControllerIT
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ExportControllerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper om;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private AccountRepository accountRepo;
+
+    private MockHttpSession session;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        accountRepo.deleteAll();
+        userRepo.deleteAll();
+
+        user = userRepo.save(new User("john", "pass123", "john@mail.com"));
+        User other = userRepo.save(new User("mary", "pass123", "mary@mail.com"));
+
+        List<Expense> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) rows.add(expense(user, LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i), "อาหาร"));
+        rows.add(expense(user, LocalDateTime.of(2025, 6, 1, 8, 0), "=SUM(A1)"));
+        rows.add(expense(other, LocalDateTime.of(2025, 1, 1, 8, 0), "ของคนอื่น"));
+        expenseRepo.saveAll(rows);
+
+        session = new MockHttpSession();
+        session.setAttribute("username", user.getUsername());
+    }
+
+    private static Expense expense(User owner, LocalDateTime at, String category) {
+        Expense e = new Expense();
+        e.setUser(owner);
+        e.setType(Expense.EntryType.EXPENSE);
+        e.setCategory(category);
+        e.setAmount(new BigDecimal("12.50"));
+        e.setNote("note, with comma");
+        e.setPlace("");
+        e.setPaymentMethod("CASH");
+        e.setOccurredAt(at);
+        return e;
+    }
+
+    private MvcResult export(String query) throws Exception {
+        MvcResult started = mvc.perform(get("/api/expenses/export" + query).session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @Test
+    void exportCsv_streamsAllOwnRows_newestFirst() throws Exception {
+        MvcResult res = export("?format=csv");
+
+        assertThat(res.getResponse().getHeader("Content-Disposition")).contains(".csv\"");
+        String[] lines = res.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines[0]).startsWith("\uFEFFid,occurredAt,type,category,amount");
+        assertThat(lines).hasSize(1 + 2501);
+        assertThat(lines[1]).contains("2025-06-01T08:00", "'=SUM(A1)", "\"note, with comma\"", "12.50");
+        assertThat(String.join("\n", lines)).doesNotContain("ของคนอื่น");
+    }
+
+    @Test
+    void exportNdjson_gzip_withRange() throws Exception {
+        MvcResult res = export("?format=ndjson&gzip=true&start=2025-01-01&end=2025-01-01");
+
+        assertThat(res.getResponse().getContentType()).isEqualTo("application/gzip");
+        byte[] raw;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(res.getResponse().getContentAsByteArray()))) {
+            raw = in.readAllBytes();
+        }
+        String[] lines = new String(raw, StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize(24);
+        assertThat(om.readTree(lines[0]).get("category").asText()).isEqualTo("อาหาร");
+        assertThat(om.readTree(lines[0]).get("occurredAt").asText()).startsWith("2025-01-01T23:00");
+    }
+
+    @Test
+    void export_malformedDate_returns400() throws Exception {
+        mvc.perform(get("/api/expenses/export?format=csv&start=2025-13-01").session(session))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid date: 2025-13-01"));
+    }
+
+    @Test
+    void export_invalidFormat_returns400() throws Exception {
+        MvcResult started = mvc.perform(get("/api/expenses/export?format=xlsx").session(session))
+                .andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest());
+    }
+}
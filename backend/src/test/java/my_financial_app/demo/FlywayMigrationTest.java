@@ -0,0 +1,200 @@
+package my_financial_app.demo;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// migration ใน db/migration (+ db/vendor/h2) บน H2 ว่าง ๆ และบน DB เดิมที่ Hibernate (ddl-auto: update) สร้างไว้
+class FlywayMigrationTest {
+
+    @Test
+    void emptyDatabase_appliesAllMigrations() throws SQLException {
+        String url = newUrl();
+        Flyway flyway = flyway(url);
+        MigrateResult result = flyway.migrate();
+
+        assertThat(result.migrationsExecuted).isEqualTo(flyway.info().all().length);
+        try (Connection c = DriverManager.getConnection(url, "sa", "")) {
+            assertThat(columnType(c, "EXPENSES", "TYPE")).isEqualTo("CHARACTER VARYING");
+            assertThat(count(c, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EXPENSES_SEQ'"))
+                    .isEqualTo(1);
+            assertThat(columnType(c, "SPRING_SESSION_ATTRIBUTES", "ATTRIBUTE_BYTES")).isEqualTo("BINARY LARGE OBJECT");
+            assertThat(columnType(c, "EXPENSES", "CATEGORY_ID")).isEqualTo("INTEGER");
+            assertThat(columnType(c, "EXPENSES", "CATEGORY")).isNull();
+            assertThat(columnType(c, "USER_CATEGORIES", "CATEGORY_ID")).isEqualTo("INTEGER");
+            assertThat(columnType(c, "IMPORT_JOBS", "LAST_COMMITTED_ROW")).isEqualTo("BIGINT");
+        }
+    }
+
+    @Test
+    void legacyHibernateSchema_isBaselinedAndEnumColumnsConverted() throws SQLException {
+        String url = newUrl();
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement()) {
+            // DDL ที่ Hibernate (ddl-auto: update) สร้างบน H2 จาก entity ของ tree เดิม: enum เป็นชนิด ENUM, id เป็น IDENTITY
+            // ยังไม่มี accounts.balance, expenses.account_id, expenses_seq และคอลัมน์ recurrence
+            st.execute("""
+                    create table users (id bigint generated by default as identity, created_at timestamp(6) not null,
+                        email varchar(150) not null unique, last_login timestamp(6), password varchar(255) not null,
+                        role enum ('ADMIN','USER') not null, username varchar(100) not null unique, primary key (id))""");
+            st.execute("""
+                    create table accounts (amount numeric(14,2) not null,
+                        created_at timestamp(6) with time zone not null, id bigint generated by default as identity,
+                        user_id bigint not null, icon_key varchar(60), name varchar(120) not null,
+                        type enum ('BANK','CASH','CREDIT_CARD') not null, primary key (id))""");
+            st.execute("""
+                    create table expenses (amount numeric(14,2) not null,
+                        created_at timestamp(6) with time zone not null, id bigint generated by default as identity,
+                        occurred_at timestamp(6) not null, user_id bigint not null, icon_key varchar(60),
+                        category varchar(100) not null, note varchar(255), payment_method varchar(100) not null,
+                        place varchar(255) not null, type enum ('EXPENSE','INCOME') not null, primary key (id))""");
+            st.execute("""
+                    create table repeated_transactions (amount numeric(38,2), id bigint generated by default as identity,
+                        user_id bigint not null, account varchar(255), date varchar(255), frequency varchar(255),
+                        name varchar(255), primary key (id))""");
+            st.execute("alter table if exists accounts add constraint FKnjuop33mo69pd79ctplkck40n foreign key (user_id) references users");
+            st.execute("alter table if exists expenses add constraint FKhpk1m6mh6ob7u6ymvu4d0ncay foreign key (user_id) references users");
+            st.execute("alter table if exists repeated_transactions add constraint FK8vbf3ht2ypp3lyq5hsq0cq7y3 foreign key (user_id) references users");
+            st.execute("insert into users (created_at, email, password, role, username) values (current_timestamp, 'a@b.c', 'x', 'ADMIN', 'admin')");
+            // ชื่อเดียวกันที่ต่างแค่ช่องว่างหัวท้าย -> V6 รวมเป็น label เดียว
+            st.execute("""
+                    insert into expenses (type, category, amount, place, payment_method, user_id, occurred_at, created_at)
+                    values ('EXPENSE', 'อาหาร', 50, 'ร้าน', 'เงินสด', 1, current_timestamp, current_timestamp),
+                           ('EXPENSE', ' อาหาร ', 70, 'ร้าน', 'เงินสด ', 1, current_timestamp, current_timestamp),
+                           ('INCOME', 'เงินเดือน', 900, 'บริษัท', 'เงินสด', 1, current_timestamp, current_timestamp)""");
+            st.execute("insert into accounts (amount, created_at, user_id, name, type) values (100, current_timestamp, 1, 'กระเป๋า', 'CASH')");
+            // ชื่อตรงกับช่องทางจ่าย -> V8 ผูกรายการเก่าทั้งสามแถวเข้าบัญชีนี้
+            st.execute("insert into accounts (amount, created_at, user_id, name, type) values (1000, current_timestamp, 1, 'เงินสด', 'CASH')");
+            st.execute("insert into repeated_transactions (amount, user_id, name, frequency) values (10, 1, 'ค่าเน็ต', 'ทุกเดือน')");
+        }
+
+        MigrateResult result = flyway(url).migrate();
+
+        // V1 ถูก baseline (ไม่รัน) ส่วน V1.1 เป็นต้นไปรันตามปกติ
+        assertThat(result.migrations).extracting(m -> m.version).doesNotContain("1").contains("1.1", "2");
+        try (Connection c = DriverManager.getConnection(url, "sa", "")) {
+            assertThat(columnType(c, "USERS", "ROLE")).isEqualTo("CHARACTER VARYING");
+            assertThat(columnType(c, "ACCOUNTS", "TYPE")).isEqualTo("CHARACTER VARYING");
+            assertThat(columnType(c, "EXPENSES", "TYPE")).isEqualTo("CHARACTER VARYING");
+            assertThat(columnType(c, "REPEATED_TRANSACTIONS", "FREQUENCY_UNIT")).isEqualTo("CHARACTER VARYING");
+            assertThat(count(c, "SELECT COUNT(*) FROM users WHERE role = 'ADMIN'")).isEqualTo(1);
+            assertThat(count(c, "SELECT COUNT(*) FROM labels WHERE kind = 'CATEGORY'")).isEqualTo(2);
+            assertThat(count(c, "SELECT COUNT(*) FROM labels WHERE kind = 'PAYMENT_METHOD'")).isEqualTo(1);
+            assertThat(count(c, """
+                    SELECT COUNT(DISTINCT e.category_id) FROM expenses e JOIN labels l ON l.id = e.category_id
+                    WHERE l.name = 'อาหาร'""")).isEqualTo(1);
+            assertThat(count(c, "SELECT COUNT(*) FROM expenses WHERE payment_method_id IS NULL")).isZero();
+
+            // ของที่ entity ปัจจุบันต้องมี (ddl-auto: validate) แต่ tree เดิมไม่มี มาจาก V1.1
+            assertThat(columnType(c, "ACCOUNTS", "BALANCE")).isEqualTo("NUMERIC");
+            assertThat(columnType(c, "EXPENSES", "ACCOUNT_ID")).isEqualTo("BIGINT");
+            assertThat(columnType(c, "REPEATED_TRANSACTIONS", "NEXT_RUN_DATE")).isEqualTo("DATE");
+            assertThat(count(c, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EXPENSES_SEQ'"))
+                    .isEqualTo(1);
+            // V10: id เดิมมาจาก IDENTITY -> block แรกของ pooled optimizer (ค่า - 49 .. ค่า) ต้องเลย MAX(id) ไปแล้ว
+            assertThat(count(c, "SELECT NEXT VALUE FOR expenses_seq") - 49)
+                    .isGreaterThan(count(c, "SELECT MAX(id) FROM expenses"));
+            assertThat(count(c, "SELECT COUNT(*) FROM accounts WHERE name = 'กระเป๋า'")).isEqualTo(1);
+            assertThat(count(c, "SELECT COUNT(*) FROM repeated_transactions WHERE frequency_unit IS NULL")).isEqualTo(1);
+
+            // V8: รายการเก่าผูกบัญชีตามชื่อช่องทางจ่าย และยอดคงเหลือรวมประวัติ (1000 - 50 - 70 + 900)
+            assertThat(columnType(c, "EXPENSES", "VERSION")).isEqualTo("BIGINT");
+            assertThat(count(c, """
+                    SELECT COUNT(*) FROM expenses e JOIN accounts a ON a.id = e.account_id WHERE a.name = 'เงินสด'""")).isEqualTo(3);
+            assertThat(count(c, "SELECT balance FROM accounts WHERE name = 'เงินสด'")).isEqualTo(1780);
+            assertThat(count(c, "SELECT balance FROM accounts WHERE name = 'กระเป๋า'")).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void hibernateSchemaWithAccountLink_keepsSingleAccountForeignKey() throws SQLException {
+        String url = newUrl();
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement()) {
+            // DB dev ที่ ddl-auto: update เติมของหลัง tree เดิมไว้แล้ว (ก่อนมี Flyway): balance, account_id + FK ชื่อที่
+            // Hibernate สร้าง, expenses_seq, คอลัมน์ recurrence, index จาก @Index
+            st.execute("""
+                    create table users (id bigint generated by default as identity, created_at timestamp(6) not null,
+                        email varchar(150) not null unique, last_login timestamp(6), password varchar(255) not null,
+                        role enum ('ADMIN','USER') not null, username varchar(100) not null unique, primary key (id))""");
+            st.execute("""
+                    create table accounts (amount numeric(14,2) not null, balance numeric(14,2),
+                        created_at timestamp(6) with time zone not null, id bigint generated by default as identity,
+                        user_id bigint not null, icon_key varchar(60), name varchar(120) not null,
+                        type enum ('BANK','CASH','CREDIT_CARD') not null, primary key (id))""");
+            st.execute("""
+                    create table expenses (amount numeric(14,2) not null, account_id bigint,
+                        created_at timestamp(6) with time zone not null, id bigint generated by default as identity,
+                        occurred_at timestamp(6) not null, user_id bigint not null, icon_key varchar(60),
+                        category varchar(100) not null, note varchar(255), payment_method varchar(100) not null,
+                        place varchar(255) not null, type enum ('EXPENSE','INCOME') not null, primary key (id))""");
+            st.execute("""
+                    create table repeated_transactions (amount numeric(38,2), next_run_date date, start_date date,
+                        id bigint generated by default as identity, user_id bigint not null, account varchar(255),
+                        date varchar(255), frequency varchar(255), name varchar(255),
+                        frequency_unit enum ('DAILY','WEEKLY','MONTHLY','YEARLY'), primary key (id))""");
+            // sequence ที่ pod เดิมจองไปไกลกว่า MAX(id) แล้ว
+            st.execute("create sequence expenses_seq start with 1001 increment by 50");
+            st.execute("create index idx_expenses_user_occurred on expenses (user_id, occurred_at desc, id desc)");
+            st.execute("alter table if exists accounts add constraint FKnjuop33mo69pd79ctplkck40n foreign key (user_id) references users");
+            st.execute("alter table if exists expenses add constraint FKn24s4d0wvf06dfuslsbcjy8po foreign key (account_id) references accounts");
+            st.execute("alter table if exists expenses add constraint FKhpk0n2cbnfiuu5nrgl0ika3hq foreign key (user_id) references users");
+            st.execute("alter table if exists repeated_transactions add constraint FKd08e5flepcj2ik5f68wuq29pd foreign key (user_id) references users");
+        }
+
+        MigrateResult result = flyway(url).migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrations).extracting(m -> m.version).contains("1.1");
+        try (Connection c = DriverManager.getConnection(url, "sa", "")) {
+            // FK เดิมของ Hibernate ถูกแทนด้วย fk_expenses_account ตัวเดียว ไม่ซ้อนกันสองตัว
+            assertThat(count(c, """
+                    SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+                    JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+                    WHERE tc.CONSTRAINT_TYPE = 'FOREIGN KEY' AND tc.TABLE_NAME = 'EXPENSES' AND k.COLUMN_NAME = 'ACCOUNT_ID'"""))
+                    .isEqualTo(1);
+            assertThat(count(c, """
+                    SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS
+                    WHERE TABLE_NAME = 'EXPENSES' AND CONSTRAINT_NAME = 'FK_EXPENSES_ACCOUNT'""")).isEqualTo(1);
+            // V10 ไม่ถอย sequence กลับ
+            assertThat(count(c, "SELECT NEXT VALUE FOR expenses_seq")).isEqualTo(1001);
+        }
+    }
+
+    private static Flyway flyway(String url) {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static String newUrl() {
+        return "jdbc:h2:mem:flyway-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private static String columnType(Connection c, String table, String column) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = '"
+                     + table + "' AND COLUMN_NAME = '" + column + "'")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static long count(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package my_financial_app.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.ImportJob;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ImportJobRepository;
+import my_financial_app.demo.Repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ใช้ context เดียวกับ ExpenseControllerIT
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ImportControllerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper om;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private AccountRepository accountRepo;
+    @Autowired private ImportJobRepository jobRepo;
+
+    private MockHttpSession session;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        accountRepo.deleteAll();
+        userRepo.deleteAll();
+
+        user = userRepo.save(new User("john", "pass123", "john@mail.com"));
+
+        session = new MockHttpSession();
+        session.setAttribute("username", user.getUsername());
+    }
+
+    private JsonNode awaitFinished(String jobId) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String json = mvc.perform(get("/api/expenses/import/" + jobId).session(session))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = om.readTree(json);
+            if (job.get("finished").asBoolean()) return job;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("import job did not finish");
+    }
+
+    @Test
+    void importCsv_insertsRowsInChunks_andReportsSkippedRows() throws Exception {
+        Account acc = new Account();
+        acc.setUser(user);
+        acc.setName("KBank");
+        acc.setType(Account.AccountType.BANK);
+        acc.setAmount(new BigDecimal("5000.00"));
+        acc.setBalance(new BigDecimal("5000.00"));
+        accountRepo.save(acc);
+
+        StringBuilder csv = new StringBuilder("date,description,amount\n");
+        for (int i = 1; i <= 1200; i++) csv.append(String.format("2025-01-%02d,item %d,-1\n", 1 + i % 28, i));
+        csv.append("oops,broken,-1\n");
+        csv.append("2025-02-01,salary,300\n");
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "statement.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        String json = mvc.perform(multipart("/api/expenses/import")
+                        .file(file)
+                        .param("accountId", String.valueOf(acc.getId()))
+                        .session(session))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode job = awaitFinished(om.readTree(json).get("id").asText());
+
+        assertThat(job.get("status").asText()).isEqualTo("DONE");
+        assertThat(job.get("rowsRead").asLong()).isEqualTo(1202);
+        assertThat(job.get("rowsImported").asLong()).isEqualTo(1201);
+        assertThat(job.get("rowsSkipped").asLong()).isEqualTo(1);
+        assertThat(job.get("progress").asInt()).isEqualTo(100);
+        assertThat(job.get("lastCommittedRow").asLong()).isEqualTo(1202);
+
+        // สถานะอยู่ใน import_jobs: pod อื่นอ่านแถวเดียวกันได้
+        ImportJob stored = jobRepo.findById(job.get("id").asText()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(ImportJob.Status.DONE);
+        assertThat(stored.getRowsImported()).isEqualTo(1201);
+        assertThat(stored.getErrors()).hasSize(1);
+
+        assertThat(expenseRepo.count()).isEqualTo(1201);
+        // 5000 - 1200 + 300
+        assertThat(accountRepo.findById(acc.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("4100.00");
+    }
+
+    @Test
+    void importStatus_ofOtherUsersJob_isNotFound() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "s.csv", "text/csv", "date,amount\n2025-01-01,-10\n".getBytes(StandardCharsets.UTF_8));
+
+        String json = mvc.perform(multipart("/api/expenses/import").file(file).session(session))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = om.readTree(json).get("id").asText();
+        awaitFinished(jobId);
+
+        User other = userRepo.save(new User("mary", "pass123", "mary@mail.com"));
+        MockHttpSession otherSession = new MockHttpSession();
+        otherSession.setAttribute("username", other.getUsername());
+
+        mvc.perform(get("/api/expenses/import/" + jobId).session(otherSession))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void import_unauthorized() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "s.csv", "text/csv", new byte[]{1});
+        mvc.perform(multipart("/api/expenses/import").file(file))
+                .andExpect(status().isUnauthorized());
+    }
+}
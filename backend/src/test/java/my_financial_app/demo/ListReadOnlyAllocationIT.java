@@ -0,0 +1,162 @@
+package my_financial_app.demo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.Label;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.LabelDictionary;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// heap ต่อ request ของ list endpoint บน user ที่มี 50k รายการ
+// วัดด้วยตัวนับ allocation ของ JVM ต่อ thread (com.sun.management.ThreadMXBean) แทน profiler ภายนอก
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class ListReadOnlyAllocationIT {
+
+    private static final int ROWS = 50_000;
+    private static final long FIRST_ID = 10_000_000L;   // ไกลจาก expenses_seq ของ IT อื่น
+
+    @Autowired private MockMvc mvc;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private LabelDictionary labels;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager txManager;
+
+    @PersistenceContext private EntityManager em;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        cleanup();
+        user = userRepo.save(new User("heavy", "pass123", "heavy@mail.com"));
+
+        int category = labels.idOf(Label.Kind.CATEGORY, "อาหาร");
+        int method = labels.idOf(Label.Kind.PAYMENT_METHOD, "เงินสด");
+        jdbc.update("""
+                INSERT INTO expenses (id, type, category_id, amount, note, place, payment_method_id, icon_key,
+                                      user_id, occurred_at, created_at, version)
+                SELECT ? + X, 'EXPENSE', ?, CAST(MOD(X, 1000) + 0.5 AS DECIMAL(14, 2)), 'note ' || X, 'place', ?,
+                       'food', ?, DATEADD('MINUTE', -X, CAST(? AS TIMESTAMP)), CURRENT_TIMESTAMP, 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, FIRST_ID, category, method, user.getId(), LocalDateTime.of(2025, 6, 1, 0, 0), ROWS);
+    }
+
+    @AfterEach
+    void cleanup() {
+        expenseRepo.deleteAllInBatch();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransaction_usesManualFlush_andSkipsSnapshots() {
+        TransactionTemplate readOnly = tx(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = em.unwrap(Session.class);
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(session.isDefaultReadOnly()).isTrue();
+
+            Expense e = em.createQuery("select e from Expense e where e.user.id = :u", Expense.class)
+                    .setParameter("u", user.getId()).setMaxResults(1).getSingleResult();
+            assertThat(session.isReadOnly(e)).isTrue();
+        });
+    }
+
+    @Test
+    void readOnlyList_allocatesLessPerRequest_thanEntitiesInReadWriteTransaction() throws Exception {
+        assumeTrue(allocationCounter().isThreadAllocatedMemorySupported());
+
+        // แบบเดิม: entity ทั้งชุดใน transaction ปกติ (Hibernate เก็บ snapshot ไว้ dirty check ทุกแถว)
+        long entitiesReadWrite = minAllocated(() -> tx(false).execute(status -> loadEntities().size()));
+        // entity ชุดเดียวกันใน readOnly -> ไม่มี snapshot
+        long entitiesReadOnly = minAllocated(() -> tx(true).execute(status -> loadEntities().size()));
+        // path ของ GET /api/expenses: projection (ExpenseView) ใน readOnly
+        long viewsReadOnly = minAllocated(() -> tx(true).execute(status ->
+                expenseRepo.findByUserIdOrderByOccurredAtDesc(user.getId()).size()));
+
+        System.out.printf("[alloc] %d rows: entities rw=%,d B  entities ro=%,d B  views ro=%,d B%n",
+                ROWS, entitiesReadWrite, entitiesReadOnly, viewsReadOnly);
+
+        assertThat(entitiesReadOnly).isLessThan(entitiesReadWrite);
+        assertThat(viewsReadOnly).isLessThan(entitiesReadOnly);
+
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", "heavy");
+        mvc.perform(get("/api/expenses").param("all", "true").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROWS));
+        // ไม่ส่ง all = หน้าแรกหน้าเดียว ไม่ใช่ 50k แถว
+        mvc.perform(get("/api/expenses").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(100))
+                .andExpect(header().exists("X-Next-Cursor"));
+    }
+
+    private List<Expense> loadEntities() {
+        List<Expense> rows = em.createQuery(
+                        "select e from Expense e where e.user.id = :u order by e.occurredAt desc", Expense.class)
+                .setParameter("u", user.getId())
+                .getResultList();
+        assertThat(rows).hasSize(ROWS);
+        return rows;
+    }
+
+    private TransactionTemplate tx(boolean readOnly) {
+        TransactionTemplate t = new TransactionTemplate(txManager);
+        t.setReadOnly(readOnly);
+        return t;
+    }
+
+    // รอบแรก warm-up (plan cache / class loading), เอาค่าน้อยสุดของ 3 รอบกัน noise จาก JIT
+    private static long minAllocated(Supplier<Integer> run) {
+        com.sun.management.ThreadMXBean mx = allocationCounter();
+        run.get();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long before = mx.getCurrentThreadAllocatedBytes();
+            run.get();
+            min = Math.min(min, mx.getCurrentThreadAllocatedBytes() - before);
+        }
+        return min;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
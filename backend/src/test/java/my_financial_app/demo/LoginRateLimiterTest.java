@@ -0,0 +1,86 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Security.LoginRateLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final LoginRateLimiter limiter = new LoginRateLimiter(3, Duration.ofMinutes(1), now::get);
+
+    @Test
+    void blocksAfterMaxAttempts_perIdentifier() {
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+        assertThat(limiter.tryAcquire(" KEN ")).isTrue();
+        assertThat(limiter.tryAcquire("ken")).isFalse();
+
+        // identifier อื่นไม่เกี่ยว
+        assertThat(limiter.tryAcquire("bob")).isTrue();
+    }
+
+    @Test
+    void previousWindow_isWeightedBySlidingOverlap() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("ken");
+
+        // ต้นช่องถัดไป: ช่องก่อนหน้ายังถ่วงเต็ม
+        now.set(MINUTE);
+        assertThat(limiter.tryAcquire("ken")).isFalse();
+
+        // ผ่านไปครึ่งช่อง: 3 * 0.5 = 1.5 -> ลองได้อีก 2 ครั้ง (1.5 + 2 >= 3)
+        now.set(MINUTE + MINUTE / 2);
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+        assertThat(limiter.tryAcquire("ken")).isFalse();
+
+        // เงียบไปเกินหนึ่งช่อง: เริ่มนับใหม่หมด
+        now.set(4 * MINUTE);
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+    }
+
+    @Test
+    void reset_clearsIdentifier() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("ken");
+        limiter.reset("Ken");
+        assertThat(limiter.tryAcquire("ken")).isTrue();
+    }
+
+    @Test
+    void evictIdle_dropsQuietKeys() {
+        limiter.tryAcquire("a");
+        now.set(MINUTE);
+        limiter.tryAcquire("b");
+
+        now.set(2 * MINUTE);
+        limiter.evictIdle();
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAttempts_neverExceedLimit() throws Exception {
+        LoginRateLimiter shared = new LoginRateLimiter(50, Duration.ofMinutes(1), now::get);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) results.add(pool.submit(() -> shared.tryAcquire("ken")));
+            int allowed = 0;
+            for (Future<Boolean> f : results) if (f.get()) allowed++;
+            assertThat(allowed).isEqualTo(50);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Entity.Role;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ต้องเปิด export เอง (Boot ปิด metrics exporter ใน test) -> context แยกจาก IT อื่น
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class MetricsIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private AccountRepository accountRepo;
+
+    private MockHttpSession session;
+    private MockHttpSession admin;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        accountRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User user = userRepo.save(new User("john", "pass123", "john@mail.com"));
+        session = new MockHttpSession();
+        session.setAttribute("username", user.getUsername());
+
+        User boss = new User("boss", "pass123", "boss@mail.com");
+        boss.setRole(Role.ADMIN);
+        userRepo.save(boss);
+        admin = new MockHttpSession();
+        admin.setAttribute("username", boss.getUsername());
+    }
+
+    @Test
+    void actuator_exceptHealth_requiresAdminSession() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mvc.perform(get("/actuator/metrics").session(session)).andExpect(status().isForbidden());
+        mvc.perform(get("/actuator/metrics").session(admin)).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_exposesTimersPerHandlerRepositoryAndSerialization() throws Exception {
+        mvc.perform(get("/api/expenses").session(session)).andExpect(status().isOk());
+        mvc.perform(get("/api/expenses")).andExpect(status().isUnauthorized());
+
+        String body = mvc.perform(get("/actuator/prometheus").session(admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // controller method + outcome + histogram bucket
+        assertThat(body).containsPattern(
+                "http_server_requests_seconds_bucket\\{[^}]*handler=\"ExpenseController.listMine\"[^}]*outcome=\"SUCCESS\"");
+        assertThat(body).containsPattern(
+                "http_server_requests_seconds_count\\{[^}]*handler=\"ExpenseController.listMine\"[^}]*outcome=\"CLIENT_ERROR\"");
+        // repository method
+        assertThat(body).containsPattern(
+                "spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findByUserIdOrderByOccurredAtDescIdDesc\"");
+        // session -> user และ Jackson แยกจากกัน
+        assertThat(body).containsPattern("auth_session_resolve_seconds_count\\{[^}]*outcome=\"loaded\"");
+        assertThat(body).containsPattern("auth_session_resolve_seconds_count\\{[^}]*outcome=\"anonymous\"");
+        assertThat(body).containsPattern("http_server_serialization_seconds_count\\{[^}]*outcome=\"SUCCESS\"");
+    }
+}
@@ -0,0 +1,51 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Security.PasswordHasher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(5, 1, 4, Duration.ofSeconds(5));
+
+    @AfterEach
+    void shutdown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hash_isSaltedBcrypt_andVerifies() {
+        String a = hasher.hash("secret");
+        String b = hasher.hash("secret");
+
+        assertThat(a).startsWith("$2a$05$").isNotEqualTo(b);
+        assertThat(hasher.verify("secret", a)).isTrue();
+        assertThat(hasher.verify("Secret", a)).isFalse();
+        assertThat(hasher.needsRehash(a)).isFalse();
+    }
+
+    @Test
+    void legacyPlaintext_verifies_andNeedsRehash() {
+        assertThat(hasher.verify("secret", "secret")).isTrue();
+        assertThat(hasher.verify("secret", "other")).isFalse();
+        assertThat(hasher.verify(null, "secret")).isFalse();
+        assertThat(hasher.needsRehash("secret")).isTrue();
+    }
+
+    @Test
+    void lowerCostHash_needsRehash() {
+        PasswordHasher weak = new PasswordHasher(4, 1, 4, Duration.ofSeconds(5));
+        try {
+            String old = weak.hash("secret");
+            assertThat(hasher.verify("secret", old)).isTrue();
+            assertThat(hasher.needsRehash(old)).isTrue();
+        } finally {
+            weak.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.LocalPlaceProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PlaceControllerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private UserRepository userRepo;
+    @Autowired private LocalPlaceProvider provider;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setup() {
+        userRepo.deleteAll();
+        userRepo.save(new User("john", "pass123", "john@mail.com"));
+
+        session = new MockHttpSession();
+        session.setAttribute("username", "john");
+    }
+
+    @Test
+    void search_withoutSession_is401() throws Exception {
+        mvc.perform(get("/api/places/search").param("q", "สยาม"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void search_repeatedQuery_isServedFromCache() throws Exception {
+        mvc.perform(get("/api/places/search").param("q", "จตุจักร").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].label").value(containsString("จตุจักร")))
+                .andExpect(jsonPath("$[0].lat").isNumber());
+        int calls = provider.calls();
+
+        mvc.perform(get("/api/places/search").param("q", "  จตุจักร ").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        assertThat(provider.calls()).isEqualTo(calls);
+    }
+
+    @Test
+    void search_blankQuery_is400() throws Exception {
+        mvc.perform(get("/api/places/search").param("q", "   ").session(session))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reverse_returnsNearestPlace_orEmpty() throws Exception {
+        mvc.perform(get("/api/places/reverse").param("lat", "13.74625").param("lon", "100.53468").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].label").value(containsString("สยามพารากอน")));
+
+        mvc.perform(get("/api/places/reverse").param("lat", "0").param("lon", "0").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mvc.perform(get("/api/places/reverse").param("lat", "120").param("lon", "0").session(session))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,153 @@
+package my_financial_app.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Service.Place;
+import my_financial_app.demo.Service.PlaceProvider;
+import my_financial_app.demo.Service.PlaceService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlaceServiceTest {
+
+    // provider ปลอม: นับครั้งที่ถูกเรียก และหน่วงได้จนกว่าจะปล่อย latch
+    static class CountingProvider implements PlaceProvider {
+        final AtomicInteger searches = new AtomicInteger();
+        final AtomicInteger reverses = new AtomicInteger();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean failing;
+
+        @Override
+        public List<Place> search(String query, int limit) throws IOException {
+            searches.incrementAndGet();
+            await();
+            if (failing) throw new IOException("upstream down");
+            return List.of(new Place("ผล " + query, 13.7, 100.5));
+        }
+
+        @Override
+        public List<Place> reverse(double lat, double lon) {
+            reverses.incrementAndGet();
+            return List.of(new Place(lat + "," + lon, lat, lon));
+        }
+
+        private void await() {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final CountingProvider provider = new CountingProvider();
+
+    private PlaceService service(int maxEntries, Path dir) {
+        return new PlaceService(provider, json, 12, 4, maxEntries, dir, Duration.ofDays(30));
+    }
+
+    @Test
+    void repeatedAndEquivalentQueries_hitProviderOnce() {
+        PlaceService places = service(100, null);
+
+        assertThat(places.search("Siam Paragon")).extracting(Place::label).containsExactly("ผล siam paragon");
+        places.search("  siam   PARAGON ");
+        places.search("ｓｉａｍ paragon");   // ตัวอักษรเต็มความกว้าง (NFKC)
+
+        assertThat(provider.searches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void reverse_nearbyCoordinates_shareOneKey() {
+        PlaceService places = service(100, null);
+
+        List<Place> a = places.reverse(13.746212, 100.534711);
+        List<Place> b = places.reverse(13.74618, 100.53474);
+
+        assertThat(b).isEqualTo(a);
+        assertThat(a.get(0).lat()).isEqualTo(13.7462);
+        assertThat(provider.reverses.get()).isEqualTo(1);
+
+        assertThatThrownBy(() -> places.reverse(91, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentIdenticalLookups_areCoalesced() throws Exception {
+        PlaceService places = service(100, null);
+        provider.gate = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Place>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) results.add(pool.submit(() -> places.search("ตลาด")));
+            Thread.sleep(200);
+            provider.gate.countDown();
+            for (Future<List<Place>> f : results) assertThat(f.get()).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(provider.searches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void lru_evictsLeastRecentlyUsed() {
+        PlaceService places = service(2, null);
+
+        places.search("a");
+        places.search("b");
+        places.search("a");      // a ใหม่กว่า b
+        places.search("c");      // b ถูกไล่ออก
+        assertThat(provider.searches.get()).isEqualTo(3);
+
+        places.search("a");
+        assertThat(provider.searches.get()).isEqualTo(3);
+        places.search("b");
+        assertThat(provider.searches.get()).isEqualTo(4);
+    }
+
+    @Test
+    void diskCache_survivesRestart(@TempDir Path dir) throws Exception {
+        service(100, dir).search("เซ็นทรัล");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+
+        // instance ใหม่ (เหมือน restart) อ่านจากดิสก์ ไม่ถาม provider
+        PlaceService restarted = service(100, dir);
+        assertThat(restarted.search("เซ็นทรัล")).extracting(Place::label).containsExactly("ผล เซ็นทรัล");
+        assertThat(provider.searches.get()).isEqualTo(1);
+
+        // หมดอายุแล้วถูกลบ
+        PlaceService expiring = new PlaceService(provider, json, 12, 4, 100, dir, Duration.ZERO);
+        assertThat(expiring.purgeExpired()).isEqualTo(1);
+    }
+
+    @Test
+    void providerFailure_isNotCached() {
+        PlaceService places = service(100, null);
+        provider.failing = true;
+        assertThatThrownBy(() -> places.search("x")).isInstanceOf(java.io.UncheckedIOException.class);
+
+        provider.failing = false;
+        assertThat(places.search("x")).hasSize(1);
+        assertThat(provider.searches.get()).isEqualTo(2);
+    }
+}
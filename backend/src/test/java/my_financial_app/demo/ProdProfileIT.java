@@ -0,0 +1,40 @@
+package my_financial_app.demo;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// profile prod: ค่า Hikari ถูก bind จริง และไม่มี SQL log บน hot path
+// (DB_URL ชี้ไป in-memory แทนไฟล์ ./data ของเครื่อง)
+@SpringBootTest(properties = "DB_URL=jdbc:h2:mem:prodprofile;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("prod")
+class ProdProfileIT {
+
+    @Autowired private DataSource dataSource;
+    @Autowired private JpaProperties jpa;
+    @Autowired private Environment env;
+
+    @Test
+    void hikariTuned_andSqlLoggingOff() {
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        assertThat(hikari.getJdbcUrl()).doesNotContain("AUTO_SERVER");
+        assertThat(hikari.getPoolName()).isEqualTo("finapp");
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(10);
+        assertThat(hikari.getLeakDetectionThreshold()).isEqualTo(120_000);
+
+        assertThat(jpa.isShowSql()).isFalse();
+        assertThat(jpa.getProperties()).containsEntry("hibernate.format_sql", "false");
+        assertThat(env.getProperty("spring.h2.console.enabled", Boolean.class)).isFalse();
+    }
+}
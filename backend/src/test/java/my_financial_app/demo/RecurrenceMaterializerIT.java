@@ -0,0 +1,149 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Entity.Account;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.RepeatedTransaction;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseView;
+import my_financial_app.demo.Repository.RepeatedTransactionRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.RecurrenceMaterializer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ใช้ context เดียวกับ ExpenseControllerIT (DB ไฟล์เดียวกัน ไม่ drop schema ซ้อนกัน)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class RecurrenceMaterializerIT {
+
+    @Autowired private RecurrenceMaterializer materializer;
+    @Autowired private RepeatedTransactionRepository ruleRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private AccountRepository accountRepo;
+    @Autowired private UserRepository userRepo;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        ruleRepo.deleteAll();
+        accountRepo.deleteAll();
+        userRepo.deleteAll();
+
+        user = userRepo.save(new User("john", "pass123", "john@mail.com"));
+    }
+
+    // IT อื่นที่ใช้ context นี้ลบ users ตรง ๆ -> ต้องไม่เหลือ rule ที่อ้าง user ค้างไว้
+    @AfterEach
+    void cleanup() {
+        expenseRepo.deleteAll();
+        ruleRepo.deleteAll();
+    }
+
+    @Test
+    void materializeDue_createsEachOccurrenceOnce_andAdvancesWatermark() {
+        Account wallet = new Account();
+        wallet.setName("กระเป๋าเงิน");
+        wallet.setType(Account.AccountType.CASH);
+        wallet.setAmount(new BigDecimal("1000.00"));
+        wallet.setBalance(new BigDecimal("1000.00"));
+        wallet.setIconKey("Wallet");
+        wallet.setUser(user);
+        accountRepo.save(wallet);
+
+        RepeatedTransaction rule = new RepeatedTransaction();
+        rule.setUser(user);
+        rule.setName("ค่าเน็ต");
+        rule.setAccount("กระเป๋าเงิน");
+        rule.setAmount(new BigDecimal("100.00"));
+        rule.reschedule("31/01/2025", "ทุกเดือน");
+        rule = ruleRepo.save(rule);
+
+        LocalDate today = LocalDate.of(2025, 4, 15);
+        assertThat(materializer.materializeDue(today)).isEqualTo(3);
+        // รันซ้ำวันเดียวกัน -> ไม่สร้างเพิ่ม
+        assertThat(materializer.materializeDue(today)).isZero();
+
+        List<ExpenseView> created = expenseRepo.findByUserIdOrderByOccurredAtDesc(user.getId());
+        assertThat(created).extracting(e -> e.occurredAt().toLocalDate())
+                .containsExactly(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 2, 28), LocalDate.of(2025, 1, 31));
+        assertThat(created).allMatch(e -> e.type() == Expense.EntryType.EXPENSE);
+
+        assertThat(ruleRepo.findById(rule.getId()).orElseThrow().getNextRunDate())
+                .isEqualTo(LocalDate.of(2025, 4, 30));
+        assertThat(accountRepo.findById(wallet.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo("700.00");
+    }
+
+    @Test
+    void reschedule_keepsWatermark_soPastOccurrencesAreNotRecreated() {
+        RepeatedTransaction rule = new RepeatedTransaction();
+        rule.setUser(user);
+        rule.setName("ค่าน้ำ");
+        rule.setAmount(new BigDecimal("50.00"));
+        rule.reschedule("2025-01-01", "ทุกวัน");
+        rule = ruleRepo.save(rule);
+
+        assertThat(materializer.materializeDue(LocalDate.of(2025, 1, 5))).isEqualTo(5);
+
+        rule = ruleRepo.findById(rule.getId()).orElseThrow();
+        rule.reschedule("2025-01-01", "ทุกวัน");
+        ruleRepo.save(rule);
+
+        assertThat(materializer.materializeDue(LocalDate.of(2025, 1, 5))).isZero();
+        assertThat(expenseRepo.count()).isEqualTo(5);
+    }
+
+    @Test
+    void backfillLegacyRules_fillsOnlyRulesWithoutTypedSchedule() {
+        // แถวเก่า: มีแต่ข้อความ date/frequency
+        RepeatedTransaction legacy = new RepeatedTransaction();
+        legacy.setUser(user);
+        legacy.setName("ค่าไฟ");
+        legacy.setAmount(new BigDecimal("80.00"));
+        legacy.setDate("15/03/2025");
+        legacy.setFrequency("ทุกเดือน");
+        legacy = ruleRepo.save(legacy);
+
+        RepeatedTransaction scheduled = new RepeatedTransaction();
+        scheduled.setUser(user);
+        scheduled.setName("ค่าน้ำ");
+        scheduled.setAmount(new BigDecimal("50.00"));
+        scheduled.reschedule("2025-01-01", "ทุกวัน");
+        scheduled.setNextRunDate(LocalDate.of(2025, 2, 1));
+        scheduled = ruleRepo.save(scheduled);
+
+        assertThat(ruleRepo.findUnscheduledLegacy()).extracting(RepeatedTransaction::getId)
+                .containsExactly(legacy.getId());
+
+        materializer.backfillLegacyRules();
+
+        assertThat(ruleRepo.findById(legacy.getId()).orElseThrow().getNextRunDate())
+                .isEqualTo(LocalDate.of(2025, 3, 15));
+        // แถวที่มีค่า typed แล้วไม่ถูกคำนวณใหม่ (watermark เดิมคงอยู่)
+        assertThat(ruleRepo.findById(scheduled.getId()).orElseThrow().getNextRunDate())
+                .isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(ruleRepo.findUnscheduledLegacy()).isEmpty();
+    }
+}
@@ -0,0 +1,170 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Repository.AccountRepository;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ImportJobRepository;
+import my_financial_app.demo.Repository.RepeatedTransactionRepository;
+import my_financial_app.demo.Repository.UserCategoryRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.LabelDictionary;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// เรียกทุก query method ที่ประกาศใน repository แล้วรัน EXPLAIN กับ SQL ที่ Hibernate สร้างจริง
+// ถ้ามี query ไหนทำ full table scan (H2: "tableScan") -> test fail
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "my_financial_app.demo.RepositoryQueryPlanTest$CapturingInspector"
+})
+@Import(LabelDictionary.class) // converter ของ Expense.category / paymentMethod
+class RepositoryQueryPlanTest {
+
+    // query ที่ต้อง scan ทั้งตารางโดยธรรมชาติ (นับทั้งตาราง / OR ข้ามสอง unique key)
+    private static final Set<String> ALLOWED_SCANS = Set.of(
+            "UserRepository.countTotalUsers",
+            "UserRepository.findByUsernameOrEmail"
+    );
+
+    @Autowired DataSource dataSource;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired RepeatedTransactionRepository repeatedTransactionRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired UserCategoryRepository userCategoryRepository;
+    @Autowired ImportJobRepository importJobRepository;
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.add(sql);
+            return sql;
+        }
+    }
+
+    @Test
+    void expenseRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(ExpenseRepository.class, expenseRepository);
+    }
+
+    @Test
+    void accountRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(AccountRepository.class, accountRepository);
+    }
+
+    @Test
+    void repeatedTransactionRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(RepeatedTransactionRepository.class, repeatedTransactionRepository);
+    }
+
+    @Test
+    void userRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(UserRepository.class, userRepository);
+    }
+
+    @Test
+    void userCategoryRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(UserCategoryRepository.class, userCategoryRepository);
+    }
+
+    @Test
+    void importJobRepository_queriesUseIndexes() throws Exception {
+        assertNoTableScans(ImportJobRepository.class, importJobRepository);
+    }
+
+    private void assertNoTableScans(Class<?> repoType, Object repo) throws Exception {
+        List<String> failures = new ArrayList<>();
+        int explained = 0;
+
+        for (Method m : repoType.getDeclaredMethods()) {
+            if (m.isDefault() || m.isSynthetic()) continue;
+            String name = repoType.getSimpleName() + "." + m.getName();
+
+            CapturingInspector.CAPTURED.clear();
+            Object result = m.invoke(repo, sampleArgs(m));
+            if (result instanceof Stream<?> stream) stream.close();
+
+            for (String sql : List.copyOf(CapturingInspector.CAPTURED)) {
+                String plan = explain(sql);
+                explained++;
+                if (plan.contains(".tableScan") && !ALLOWED_SCANS.contains(name)) {
+                    failures.add(name + " -> " + plan);
+                }
+            }
+        }
+
+        assertThat(explained).as("no SQL captured for " + repoType.getSimpleName()).isPositive();
+        assertThat(failures).as("full table scans").isEmpty();
+    }
+
+    private String explain(String sql) throws Exception {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData meta = ps.getParameterMetaData();
+            for (int i = 1; i <= meta.getParameterCount(); i++) {
+                switch (meta.getParameterType(i)) {
+                    case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT,
+                         Types.NUMERIC, Types.DECIMAL -> ps.setLong(i, 1L);
+                    default -> ps.setObject(i, null);
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                return plan.toString();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    // ค่า dummy ตามชนิด parameter ของ query method
+    private static Object[] sampleArgs(Method m) {
+        Class<?>[] types = m.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) args[i] = sample(types[i], m);
+        return args;
+    }
+
+    private static Object sample(Class<?> type, Method m) {
+        if (type == Long.class || type == long.class) return 1L;
+        if (type == Integer.class || type == int.class) return 1;
+        if (type == String.class) return "sample";
+        if (type == BigDecimal.class) return BigDecimal.ONE;
+        if (type == LocalDateTime.class) return LocalDateTime.of(2025, 1, 1, 0, 0);
+        if (type == LocalDate.class) return LocalDate.of(2025, 1, 1);
+        if (type == OffsetDateTime.class) return OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        if (type == Pageable.class) return PageRequest.ofSize(10);
+        if (Collection.class.isAssignableFrom(type)) return List.of(1L);
+        if (type.isEnum()) return type.getEnumConstants()[0];
+        throw new IllegalArgumentException("No sample value for " + type.getName() + " in " + m);
+    }
+}
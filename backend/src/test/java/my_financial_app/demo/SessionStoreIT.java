@@ -0,0 +1,106 @@
+package my_financial_app.demo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.*;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// app.session.store=jdbc: สอง instance ใช้ DB เดียวกัน (เหมือนสอง replica หลัง load balancer ที่ไม่ sticky)
+// login ที่ node A แล้วใช้ cookie เดียวกันที่ node B ได้ และ logout ที่ B มีผลที่ A ด้วย
+class SessionStoreIT {
+
+    private static final String[] ARGS = {
+            "--spring.profiles.active=test",
+            "--spring.datasource.url=jdbc:h2:mem:session-store-it;DB_CLOSE_DELAY=-1",
+            "--server.port=0",
+            "--app.session.store=jdbc"
+    };
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static TestRestTemplate a;
+    private static TestRestTemplate b;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = new SpringApplicationBuilder(DemoApplication.class).run(ARGS);
+        nodeB = new SpringApplicationBuilder(DemoApplication.class).run(ARGS);
+        a = client(nodeA);
+        b = client(nodeB);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    @Test
+    void loginOnOneNode_isVisibleOnTheOther_andLogoutEverywhere() {
+        a.exchange("/api/auth/register", HttpMethod.POST, json(Map.of(
+                "username", "nodeuser",
+                "password", "123456",
+                "email", "nodeuser@example.com"
+        ), null), Map.class);
+
+        ResponseEntity<Map> login = a.exchange("/api/auth/login", HttpMethod.POST,
+                json(Map.of("username", "nodeuser", "password", "123456"), null), Map.class);
+        assertThat(login.getStatusCode().is2xxSuccessful()).isTrue();
+
+        String setCookie = login.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).startsWith("SESSION=");
+        String cookie = setCookie.split(";", 2)[0];
+
+        // ไม่มี cookie = ไม่ได้ login ทั้งสอง node
+        assertThat(b.getForEntity("/api/expenses", String.class).getStatusCode().value()).isEqualTo(401);
+
+        ResponseEntity<String> onB = b.exchange("/api/expenses", HttpMethod.GET, withCookie(cookie), String.class);
+        assertThat(onB.getStatusCode().value()).isEqualTo(200);
+        assertThat(onB.getBody()).isEqualTo("[]");
+
+        // สร้างรายการที่ B แล้วอ่านที่ A
+        ResponseEntity<String> created = b.exchange("/api/expenses", HttpMethod.POST, json(Map.of(
+                "type", "EXPENSE",
+                "category", "อาหาร",
+                "amount", 120.0,
+                "place", "ตลาด",
+                "occurredAt", "2025-03-01T12:00:00",
+                "paymentMethod", "เงินสด"
+        ), cookie), String.class);
+        assertThat(created.getStatusCode().value()).isEqualTo(200);
+        assertThat(a.exchange("/api/expenses", HttpMethod.GET, withCookie(cookie), String.class).getBody())
+                .contains("ตลาด");
+
+        b.exchange("/api/auth/logout", HttpMethod.POST, withCookie(cookie), Map.class);
+        assertThat(a.exchange("/api/expenses", HttpMethod.GET, withCookie(cookie), String.class)
+                .getStatusCode().value()).isEqualTo(401);
+    }
+
+    private static TestRestTemplate client(ConfigurableApplicationContext node) {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        return new TestRestTemplate(new RestTemplateBuilder().rootUri("http://localhost:" + port));
+    }
+
+    private static HttpEntity<Void> withCookie(String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, cookie);
+        return new HttpEntity<>(headers);
+    }
+
+    private static HttpEntity<Map<String, Object>> json(Map<String, Object> body, String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (cookie != null) headers.add(HttpHeaders.COOKIE, cookie);
+        return new HttpEntity<>(body, headers);
+    }
+}
@@ -0,0 +1,109 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Service.StatementReader;
+import my_financial_app.demo.Service.StatementRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementReaderTest {
+
+    private static List<StatementRow> readAll(StatementReader.Format format, String content) throws Exception {
+        List<StatementRow> rows = new ArrayList<>();
+        try (StatementReader r = StatementReader.open(format, new StringReader(content))) {
+            StatementRow row;
+            while ((row = r.next()) != null) rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void csv_mapsColumnsByHeaderName_andHandlesQuotes() throws Exception {
+        String csv = "\uFEFFวันที่,รายละเอียด,จำนวนเงิน,หมวดหมู่\r\n"
+                + "05/01/2568,\"ข้าว, น้ำ\",\"-1,250.50\",อาหาร\r\n"
+                + "\r\n"
+                + "2025-01-06 09:30,\"เงินเดือน \"\"ม.ค.\"\"\",30000,\r\n";
+
+        List<StatementRow> rows = readAll(StatementReader.Format.CSV, csv);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).occurredAt()).isEqualTo(LocalDateTime.of(2025, 1, 5, 0, 0));
+        assertThat(rows.get(0).note()).isEqualTo("ข้าว, น้ำ");
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("-1250.50");
+        assertThat(rows.get(0).category()).isEqualTo("อาหาร");
+        assertThat(rows.get(1).occurredAt()).isEqualTo(LocalDateTime.of(2025, 1, 6, 9, 30));
+        assertThat(rows.get(1).note()).isEqualTo("เงินเดือน \"ม.ค.\"");
+        assertThat(rows.get(1).category()).isNull();
+    }
+
+    @Test
+    void csv_debitCreditColumns_becomeSignedAmount() throws Exception {
+        String csv = "date,withdrawal,deposit\n2025-02-01,100,\n2025-02-02,,(20)\n";
+
+        List<StatementRow> rows = readAll(StatementReader.Format.CSV, csv);
+
+        assertThat(rows).extracting(StatementRow::amount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-100"), new BigDecimal("20"));
+    }
+
+    @Test
+    void csv_badRow_isReportedAndReaderContinues() throws Exception {
+        try (StatementReader r = StatementReader.open(StatementReader.Format.CSV,
+                new StringReader("date,amount\nnot-a-date,1\n2025-01-01,2\n"))) {
+            assertThatThrownBy(r::next).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Row 1");
+            assertThat(r.next().amount()).isEqualByComparingTo("2");
+            assertThat(r.next()).isNull();
+        }
+    }
+
+    @Test
+    void csv_withoutDateColumn_failsWholeFile() {
+        assertThatThrownBy(() -> readAll(StatementReader.Format.CSV, "foo,amount\n1,2\n"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void ofx_sgmlAndXml_readStatementTransactions() throws Exception {
+        String sgml = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20250105120000.000[+7:ICT]
+                <TRNAMT>-45.00
+                <NAME>7-ELEVEN
+                </STMTTRN>
+                <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20250106<TRNAMT>1000.00<NAME>SALARY<MEMO>Jan &amp; bonus</STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        String xml = "<?xml version=\"1.0\"?><OFX><STMTTRN><DTPOSTED>20250107</DTPOSTED>"
+                + "<TRNAMT>-5</TRNAMT><NAME>BTS</NAME></STMTTRN></OFX>";
+
+        List<StatementRow> rows = readAll(StatementReader.Format.OFX, sgml);
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).occurredAt()).isEqualTo(LocalDateTime.of(2025, 1, 5, 12, 0));
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("-45.00");
+        assertThat(rows.get(0).place()).isEqualTo("7-ELEVEN");
+        assertThat(rows.get(1).note()).isEqualTo("Jan & bonus");
+
+        assertThat(readAll(StatementReader.Format.OFX, xml))
+                .singleElement()
+                .satisfies(r -> assertThat(r.amount()).isEqualByComparingTo("-5"));
+    }
+
+    @Test
+    void format_isGuessedFromFilename() {
+        assertThat(StatementReader.Format.of(null, "stmt.OFX")).isEqualTo(StatementReader.Format.OFX);
+        assertThat(StatementReader.Format.of("", "stmt.csv")).isEqualTo(StatementReader.Format.CSV);
+        assertThat(StatementReader.Format.of("ofx", "stmt.csv")).isEqualTo(StatementReader.Format.OFX);
+    }
+}
@@ -0,0 +1,165 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Controller.CreateExpenseRequest;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+import my_financial_app.demo.Service.ExpenseBatchService;
+import my_financial_app.demo.Service.StatsEngine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class StatsEngineIT {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 31);
+
+    @Autowired private StatsEngine stats;
+    @Autowired private ExpenseBatchService batch;
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private UserRepository userRepo;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager txManager;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        userRepo.deleteAll();
+        jdbc.update("DELETE FROM daily_stats");
+
+        user = userRepo.save(new User("john", "pass123", "john@mail.com"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        expenseRepo.deleteAll();
+        jdbc.update("DELETE FROM daily_stats");
+    }
+
+    @Test
+    void rebuild_aggregatesExpensesPerDay_andComparesWithPreviousPeriod() {
+        // ช่วงก่อนหน้า (30 วันก่อน 2025-03-02): 100, ช่วงปัจจุบัน: 150 + รายรับ 50
+        expenseRepo.saveAll(List.of(
+                expense("EXPENSE", "100.00", LocalDateTime.of(2025, 2, 10, 9, 0)),
+                expense("EXPENSE", "150.00", LocalDateTime.of(2025, 3, 5, 12, 0)),
+                expense("INCOME", "50.00", LocalDateTime.of(2025, 3, 5, 18, 30))));
+
+        stats.rebuild();
+        stats.refresh(TODAY);
+
+        StatsEngine.Snapshot snap = stats.snapshot();
+        assertThat(snap.totalUsers()).isEqualTo(1);
+        assertThat(snap.transactions()).isEqualTo(3);
+        assertThat(snap.expense()).isEqualByComparingTo("250.00");
+        assertThat(snap.income()).isEqualByComparingTo("50.00");
+        assertThat(snap.periodTransactions()).isEqualTo(2);
+        assertThat(snap.periodVolume()).isEqualByComparingTo("200.00");
+        assertThat(snap.volumeGrowth()).isEqualTo(100.0);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM daily_stats", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void writesThroughServices_recomputeOnlyTouchedDays() {
+        stats.refresh(TODAY);
+        assertThat(stats.snapshot().transactions()).isZero();
+
+        List<Expense> created = batch.createAll(user.getId(), List.of(
+                request("EXPENSE", 80.0, LocalDateTime.of(2025, 3, 30, 8, 0)),
+                request("EXPENSE", 20.0, LocalDateTime.of(2025, 3, 31, 8, 0))));
+
+        // ยังไม่ refresh = ยังเป็นค่าเดิมใน memory
+        assertThat(stats.snapshot().transactions()).isZero();
+
+        stats.refresh(TODAY);
+        assertThat(stats.snapshot().transactions()).isEqualTo(2);
+        assertThat(stats.snapshot().expense()).isEqualByComparingTo("100.00");
+
+        batch.deleteAll(user.getId(), List.of(created.get(0).getId()));
+        stats.refresh(TODAY);
+        assertThat(stats.snapshot().transactions()).isEqualTo(1);
+        assertThat(stats.snapshot().expense()).isEqualByComparingTo("20.00");
+        assertThat(jdbc.queryForList("SELECT stat_date FROM daily_stats", LocalDate.class))
+                .containsExactly(LocalDate.of(2025, 3, 31));
+    }
+
+    // replica อื่นถือ lock ของ daily_stats อยู่ (transaction ยังไม่จบ) -> rebuild ของเครื่องนี้รอ ไม่เขียนทับกัน
+    @Test
+    void rebuild_waitsForStatsLockHeldByAnotherTransaction() throws Exception {
+        expenseRepo.save(expense("EXPENSE", "10.00", LocalDateTime.of(2025, 3, 5, 9, 0)));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(txManager).executeWithoutResult(s -> {
+                    jdbc.queryForList("SELECT name FROM app_locks WHERE name = 'daily_stats' FOR UPDATE", String.class);
+                    locked.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(stats::rebuild);
+        Thread.sleep(200);
+        assertThat(rebuild).isNotDone();
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM daily_stats", Long.class)).isEqualTo(1);
+    }
+
+    private Expense expense(String type, String amount, LocalDateTime at) {
+        Expense e = new Expense();
+        e.setUser(user);
+        e.setType(Expense.EntryType.valueOf(type));
+        e.setCategory("อาหาร");
+        e.setAmount(new BigDecimal(amount));
+        e.setPlace("");
+        e.setPaymentMethod("CASH");
+        e.setOccurredAt(at);
+        return e;
+    }
+
+    private static CreateExpenseRequest request(String type, double amount, LocalDateTime at) {
+        CreateExpenseRequest r = new CreateExpenseRequest();
+        r.type = type;
+        r.category = "อาหาร";
+        r.amount = amount;
+        r.place = "";
+        r.paymentMethod = "CASH";
+        r.occurredAt = at;
+        return r;
+    }
+}
@@ -0,0 +1,131 @@
+package my_financial_app.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import my_financial_app.demo.Entity.User;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TaxControllerIT {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper om;
+    @Autowired private UserRepository userRepo;
+    @Autowired private ExpenseRepository expenseRepo;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setup() {
+        expenseRepo.deleteAll();
+        userRepo.deleteAll();
+        userRepo.save(new User("john", "pass123", "john@mail.com"));
+
+        session = new MockHttpSession();
+        session.setAttribute("username", "john");
+    }
+
+    private Map<String, Object> entry(String type, String category, double amount, String occurredAt) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", type);
+        body.put("category", category);
+        body.put("amount", amount);
+        body.put("place", "บริษัท");
+        body.put("occurredAt", occurredAt);
+        body.put("paymentMethod", "โอน");
+        return body;
+    }
+
+    private long create(Map<String, Object> body) throws Exception {
+        String json = mvc.perform(post("/api/expenses").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return om.readTree(json).get("id").asLong();
+    }
+
+    @Test
+    void income_isPrefilledFromIncomeEntries_andRefreshedWhenTheyChange() throws Exception {
+        long salary = create(entry("INCOME", "เงินเดือน", 50000, "2025-03-25T09:00:00"));
+        create(entry("INCOME", "โบนัส", 100000, "2025-12-20T09:00:00"));
+        create(entry("EXPENSE", "อาหาร", 300, "2025-03-25T12:00:00"));
+        create(entry("INCOME", "เงินเดือน", 40000, "2024-12-25T09:00:00"));
+
+        mvc.perform(get("/api/tax/income").param("year", "2025").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(150000.0))
+                .andExpect(jsonPath("$.entries").value(2))
+                .andExpect(jsonPath("$.byCategory['โบนัส']").value(100000.0));
+
+        // แก้รายการ INCOME ของปีนั้น -> cache ถูกล้าง
+        mvc.perform(put("/api/expenses/{id}", salary).session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(entry("INCOME", "เงินเดือน", 80000, "2025-03-25T09:00:00"))))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/tax/income").param("year", "2025").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(180000.0));
+
+        // 180,000 - ค่าใช้จ่าย 90,000 - ส่วนตัว 60,000 - ประกันสังคม 9,000 = 21,000 (ขั้นแรก 0%)
+        mvc.perform(post("/api/tax/summary").param("year", "2025").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of(
+                                "socialSecurityPerYear", 9000,
+                                "withheldSalaryPerYear", 1000))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.incomeSource").value("entries"))
+                .andExpect(jsonPath("$.incomePerYear").value(180000.0))
+                .andExpect(jsonPath("$.expense50pct").value(90000.0))
+                .andExpect(jsonPath("$.taxableIncome").value(21000.0))
+                .andExpect(jsonPath("$.taxByBracket").value(0.0))
+                .andExpect(jsonPath("$.netTax").value(-1000.0));
+    }
+
+    @Test
+    void summary_usesIncomeFromRequest_whenProvided() throws Exception {
+        create(entry("INCOME", "เงินเดือน", 50000, "2025-03-25T09:00:00"));
+
+        mvc.perform(post("/api/tax/summary").param("year", "2025").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of("salaryPerMonth", 50000))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.incomeSource").value("request"))
+                .andExpect(jsonPath("$.incomePerYear").value(600000.0))
+                .andExpect(jsonPath("$.taxByBracket").value(21500.0));
+    }
+
+    @Test
+    void requiresLogin_andValidYear() throws Exception {
+        mvc.perform(get("/api/tax/income").param("year", "2025"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post("/api/tax/summary").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/tax/income").param("year", "20250").session(session))
+                .andExpect(status().isBadRequest());
+    }
+}
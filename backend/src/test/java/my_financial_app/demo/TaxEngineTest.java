@@ -0,0 +1,123 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Controller.TaxRequest;
+import my_financial_app.demo.Entity.Expense;
+import my_financial_app.demo.Repository.ExpenseRepository;
+import my_financial_app.demo.Repository.ExpenseTotal;
+import my_financial_app.demo.Service.ExpensesChangedEvent;
+import my_financial_app.demo.Service.TaxEngine;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaxEngineTest {
+
+    private static BigDecimal baht(String v) {
+        return new BigDecimal(v).setScale(2);
+    }
+
+    @Test
+    void compute_salaryWithSocialSecurityAndWithholding() {
+        TaxRequest req = new TaxRequest();
+        req.socialSecurityPerYear = new BigDecimal("12000");   // เพดาน 9,000
+        req.withheldSalaryPerYear = new BigDecimal("15000");
+
+        TaxEngine.TaxSummary s = TaxEngine.compute(2025, new BigDecimal("600000"), "request", req);
+
+        assertThat(s.expense50pct()).isEqualTo(baht("100000"));
+        assertThat(s.totalDeductions()).isEqualTo(baht("69000"));    // ส่วนตัว 60,000 + ประกันสังคม 9,000
+        assertThat(s.taxableIncome()).isEqualTo(baht("431000"));
+        // 150,000 x 5% + 131,000 x 10%
+        assertThat(s.taxByBracket()).isEqualTo(baht("20600"));
+        assertThat(s.netTax()).isEqualTo(baht("5600"));
+        assertThat(s.brackets()).hasSize(3);
+    }
+
+    @Test
+    void compute_progressiveBrackets_upToOneMillion() {
+        TaxEngine.TaxSummary s = TaxEngine.compute(2025, new BigDecimal("1160000"), "request", new TaxRequest());
+
+        assertThat(s.taxableIncome()).isEqualTo(baht("1000000"));
+        // 7,500 + 20,000 + 37,500 + 50,000
+        assertThat(s.taxByBracket()).isEqualTo(baht("115000"));
+        assertThat(s.brackets()).hasSize(5);
+        assertThat(s.brackets().get(4).tax()).isEqualTo(baht("50000"));
+    }
+
+    @Test
+    void compute_lowIncome_paysNothing_andWithholdingIsRefunded() {
+        TaxRequest req = new TaxRequest();
+        req.withheldSalaryPerYear = new BigDecimal("3000");
+
+        TaxEngine.TaxSummary s = TaxEngine.compute(2025, new BigDecimal("120000"), "request", req);
+
+        assertThat(s.expense50pct()).isEqualTo(baht("60000"));
+        assertThat(s.taxableIncome()).isEqualTo(baht("0"));
+        assertThat(s.taxByBracket()).isEqualTo(baht("0"));
+        assertThat(s.netTax()).isEqualTo(baht("-3000"));
+    }
+
+    @Test
+    void compute_retirementGroup_isScaledToFiveHundredThousand() {
+        TaxRequest req = new TaxRequest();
+        req.pvdPerYear = new BigDecimal("500000");
+        req.annuityLifeIns = new BigDecimal("200000");
+
+        TaxEngine.TaxSummary s = TaxEngine.compute(2025, new BigDecimal("10000000"), "request", req);
+
+        // 500,000 x 5/7 = 357,142 + 200,000 x 5/7 = 142,857 (ปัดลง) + ส่วนตัว 60,000
+        assertThat(s.totalDeductions()).isEqualTo(baht("559999"));
+    }
+
+    @Test
+    void yearIncome_isCached_untilIncomeOfThatYearChanges() {
+        ExpenseRepository repo = Mockito.mock(ExpenseRepository.class);
+        Mockito.when(repo.sumByCategory(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(
+                        new ExpenseTotal("เงินเดือน", Expense.EntryType.INCOME, new BigDecimal("600000"), 12L),
+                        new ExpenseTotal("อาหาร", Expense.EntryType.EXPENSE, new BigDecimal("50000"), 90L),
+                        new ExpenseTotal("โบนัส", Expense.EntryType.INCOME, new BigDecimal("100000"), 1L)));
+        TaxEngine engine = new TaxEngine(repo, 100, Duration.ofHours(1));
+
+        TaxEngine.YearIncome income = engine.yearIncome(1L, 2025);
+        assertThat(income.total()).isEqualTo(baht("700000"));
+        assertThat(income.entries()).isEqualTo(13);
+        assertThat(income.byCategory()).containsOnlyKeys("เงินเดือน", "โบนัส");
+
+        engine.yearIncome(1L, 2025);
+        Mockito.verify(repo, Mockito.times(1)).sumByCategory(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // รายการของคนอื่น / ปีอื่น ไม่ล้าง
+        engine.onExpensesChanged(new ExpensesChangedEvent(Set.of(LocalDate.of(2025, 3, 1)),
+                Set.of(new ExpensesChangedEvent.IncomeYear(2L, 2025), new ExpensesChangedEvent.IncomeYear(1L, 2024))));
+        engine.yearIncome(1L, 2025);
+        Mockito.verify(repo, Mockito.times(1)).sumByCategory(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        engine.onExpensesChanged(new ExpensesChangedEvent(Set.of(LocalDate.of(2025, 3, 1)),
+                Set.of(new ExpensesChangedEvent.IncomeYear(1L, 2025))));
+        engine.yearIncome(1L, 2025);
+        Mockito.verify(repo, Mockito.times(2)).sumByCategory(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void yearIncome_expiresAfterTtl_withoutAnEvent() {
+        // แก้ผ่าน replica อื่น: pod นี้ไม่ได้รับ ExpensesChangedEvent
+        ExpenseRepository repo = Mockito.mock(ExpenseRepository.class);
+        Mockito.when(repo.sumByCategory(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(new ExpenseTotal("เงินเดือน", Expense.EntryType.INCOME, new BigDecimal("600000"), 12L)))
+                .thenReturn(List.of(new ExpenseTotal("เงินเดือน", Expense.EntryType.INCOME, new BigDecimal("650000"), 13L)));
+        TaxEngine engine = new TaxEngine(repo, 100, Duration.ZERO);
+
+        assertThat(engine.yearIncome(1L, 2025).total()).isEqualTo(baht("600000"));
+        assertThat(engine.yearIncome(1L, 2025).total()).isEqualTo(baht("650000"));
+    }
+}
@@ -0,0 +1,88 @@
+package my_financial_app.demo;
+
+import my_financial_app.demo.Config.VirtualThreadPinningMonitor;
+import my_financial_app.demo.Repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// โหมด spring.threads.virtual.enabled=true: request ของ Tomcat วิ่งบน virtual thread และ flow login ใช้ได้ปกติ
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(VirtualThreadsIT.ThreadProbe.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.threads.virtual.enabled=true"
+})
+class VirtualThreadsIT {
+
+    @RestController
+    static class ThreadProbe {
+        @GetMapping("/test/thread")
+        Map<String, Object> thread() {
+            return Map.of("virtual", Thread.currentThread().isVirtual());
+        }
+    }
+
+    @Autowired private TestRestTemplate rest;
+    @Autowired private UserRepository userRepository;
+    @Autowired private VirtualThreadPinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void requests_runOnVirtualThreads() {
+        ResponseEntity<Map> res = rest.getForEntity("/test/thread", Map.class);
+
+        assertThat(res.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(res.getBody().get("virtual")).isEqualTo(true);
+        assertThat(pinningMonitor.isRunning()).isTrue();
+    }
+
+    @Test
+    void login_thenListExpenses_onVirtualThreads() {
+        rest.exchange("/api/auth/register", HttpMethod.POST, json(Map.of(
+                "username", "alice",
+                "password", "123456",
+                "email", "alice@example.com"
+        )), Map.class);
+
+        ResponseEntity<Map> login = rest.exchange("/api/auth/login", HttpMethod.POST,
+                json(Map.of("username", "alice", "password", "123456")), Map.class);
+        assertThat(login.getStatusCode().is2xxSuccessful()).isTrue();
+
+        String cookie = login.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertThat(cookie).isNotNull();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, cookie.split(";", 2)[0]);
+        ResponseEntity<String> list = rest.exchange("/api/expenses", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(list.getStatusCode().value()).isEqualTo(200);
+        assertThat(list.getBody()).isEqualTo("[]");
+    }
+
+    private static HttpEntity<Map<String, Object>> json(Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+}
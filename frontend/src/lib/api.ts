@@ -57,22 +57,38 @@ function mapRepeatedToExpenseDTO(rt: ApiRepeatedTransaction): ExpenseDTO {
     }
 }
 
-export async function fetchAllTransactions(): Promise<ExpenseDTO[]> {
-    const [resExpenses, resRepeated] = await Promise.all([
-        fetch(`${API_BASE}/expenses`, {
+// GET /expenses ส่งทีละหน้า: ตาม cursor ใน X-Next-Cursor จนหมด (ไม่มี header = หน้าสุดท้าย)
+async function fetchAllExpensePages(): Promise<ExpenseDTO[]> {
+    const rows: ExpenseDTO[] = [];
+    let cursor: string | null = null;
+    do {
+        const url = new URL(`${API_BASE}/expenses`, window.location.origin);
+        url.searchParams.set("limit", "500");
+        if (cursor) url.searchParams.set("cursor", cursor);
+
+        const res = await fetch(url.toString(), {
             headers: { Accept: "application/json" },
             credentials: "include",
-        }),
+        });
+        if (!res.ok) throw new Error(`โหลดข้อมูลไม่สำเร็จ (${res.status})`);
+
+        rows.push(...(await res.json()));
+        cursor = res.headers?.get("X-Next-Cursor") ?? null;
+    } while (cursor);
+    return rows;
+}
+
+export async function fetchAllTransactions(): Promise<ExpenseDTO[]> {
+    const [serverData, resRepeated] = await Promise.all([
+        fetchAllExpensePages(),
         fetch(`${API_BASE}/repeated-transactions`, {
             headers: { Accept: "application/json" },
             credentials: "include",
         })
     ]);
 
-    if (!resExpenses.ok) throw new Error(`โหลดข้อมูลไม่สำเร็จ (${resExpenses.status})`);
     if (!resRepeated.ok) throw new Error(`โหลดรายการซ้ำไม่สำเร็จ (${resRepeated.status})`);
 
-    const serverData: ExpenseDTO[] = await resExpenses.json();
     const repeatedData: ApiRepeatedTransaction[] = await resRepeated.json();
 
     const repeatedAsExpenses = repeatedData.map(mapRepeatedToExpenseDTO);
@@ -324,7 +324,7 @@ export default function Home() {
             const { start, end } = monthRangeISO(year, month);
 
             const [resExpenses, resRepeated] = await Promise.all([
-                fetch(`${API_BASE}/expenses/range?start=${start}&end=${end}`, {
+                fetch(`${API_BASE}/expenses/range?start=${start}&end=${end}&all=true`, {
                     headers: { Accept: "application/json" },
                     credentials: "include",
                 }),
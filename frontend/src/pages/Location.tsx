@@ -2,6 +2,7 @@
 import { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import "./Location.css";
+import { API_BASE } from "../lib/api";
 
 type Place = {
     label: string;
@@ -24,22 +25,20 @@ function loadLongdo(): Promise<void> {
     });
 }
 
+// ค้นหา/แปลงพิกัดผ่าน backend (/api/places) ซึ่ง cache ผลและคุม rate limit ของ Nominatim ให้
 async function geocode(q: string): Promise<Place[]> {
-    const url = `https://nominatim.openstreetmap.org/search?format=jsonv2&limit=12&q=${encodeURIComponent(q)}`;
-    const res = await fetch(url, { headers: { "Accept-Language": "th" } });
-    const rows = (await res.json()) as any[];
-    return rows.map((r) => ({
-        label: r.display_name as string,
-        lat: parseFloat(r.lat),
-        lon: parseFloat(r.lon),
-    }));
+    const res = await fetch(`${API_BASE}/places/search?q=${encodeURIComponent(q)}`, { credentials: "include" });
+    if (!res.ok) return [];
+    const rows = (await res.json()) as Place[];
+    return rows.map((r) => ({ label: r.label, lat: r.lat, lon: r.lon }));
 }
 
 async function reverseGeocode(lat: number, lon: number): Promise<string> {
-    const url = `https://nominatim.openstreetmap.org/reverse?format=jsonv2&lat=${lat}&lon=${lon}`;
-    const res = await fetch(url, { headers: { "Accept-Language": "th" } });
-    const data = await res.json();
-    return data?.display_name || `${lat.toFixed(5)}, ${lon.toFixed(5)}`;
+    const fallback = `${lat.toFixed(5)}, ${lon.toFixed(5)}`;
+    const res = await fetch(`${API_BASE}/places/reverse?lat=${lat}&lon=${lon}`, { credentials: "include" });
+    if (!res.ok) return fallback;
+    const rows = (await res.json()) as Place[];
+    return rows[0]?.label || fallback;
 }
 
 function distanceKm(a: { lat: number; lon: number }, b: { lat: number; lon: number }) {
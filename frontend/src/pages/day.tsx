@@ -232,7 +232,7 @@ export default function Day() {
                 setError(null);
 
                 const dayISO = iso(anchor);
-                const expensesUrl = `${API_BASE}/expenses/range?start=${dayISO}&end=${dayISO}`;
+                const expensesUrl = `${API_BASE}/expenses/range?start=${dayISO}&end=${dayISO}&all=true`;
                 const repeatedUrl = `${API_BASE}/repeated-transactions`;
 
                 const [resExpenses, resRepeated] = await Promise.all([
@@ -78,9 +78,9 @@ describe('Location Page', () => {
     });
 
     // Helper functions
-    const mockReverseGeocode = (lat: number, lon: number) => ({
-        display_name: `ที่อยู่จำลอง ${lat} ${lon}`,
-    });
+    const mockReverseGeocode = (lat: number, lon: number) => ([
+        { label: `ที่อยู่จำลอง ${lat} ${lon}`, lat, lon },
+    ]);
 
     const simulateInitLoad = (type: 'success' | 'fail') => {
         (global.fetch as any).mockImplementation((url: string) => {
@@ -115,7 +115,7 @@ describe('Location Page', () => {
         expect(screen.getByText('ที่อยู่จำลอง 10 20')).toBeInTheDocument();
         expect(mockGeolocation.getCurrentPosition).toHaveBeenCalled();
         expect(global.fetch).toHaveBeenCalledWith(
-            expect.stringContaining('reverse?format=jsonv2&lat=10&lon=20'),
+            expect.stringContaining('/places/reverse?lat=10&lon=20'),
             expect.any(Object)
         );
     });
@@ -114,6 +114,8 @@ export default function Month() {
                 const expensesUrl = new URL(`${API_BASE}/expenses/range`, window.location.origin);
                 expensesUrl.searchParams.set("start", startISO);
                 expensesUrl.searchParams.set("end", endISO);
+                // ทั้งเดือนใน response เดียว (ไม่ส่ง all = ได้แค่หน้าแรก)
+                expensesUrl.searchParams.set("all", "true");
                 if (userId != null) expensesUrl.searchParams.set("userId", String(userId));
 
                 const repeatedUrl = `${API_BASE}/repeated-transactions`;